@@ -1,60 +1,90 @@
 import org.aion.avm.core.util.AvmDetails;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
-import com.eclipsesource.json.*;
 
 //This class is invoked by IDE with project's JDK to get JCLWhitelist
 public class AvmDetailsGetter {
 
     public static void main(String[] args) throws ClassNotFoundException, IOException {
 
-        JsonObject detailsObj = getJCLWhitelist();
-        writeOutput(args[0], detailsObj);
+        Map<Class<?>, List<AvmDetails.MethodDescriptor>> details = getJCLWhitelist();
+        writeOutput(args[0], details);
     }
 
-    public static JsonObject getJCLWhitelist() throws ClassNotFoundException {
-        Map<Class<?>, List<AvmDetails.MethodDescriptor>> details = AvmDetails.getClassLibraryWhiteList();
+    public static Map<Class<?>, List<AvmDetails.MethodDescriptor>> getJCLWhitelist() throws ClassNotFoundException {
+        return AvmDetails.getClassLibraryWhiteList();
+    }
 
-        JsonObject detailsObj = Json.object();
-        details.entrySet().stream().forEach(e -> {
+    //Stream the whitelist directly to the file. Format is read by JCLWhitelistJsonReader in the plugin
+    public static void writeOutput(String fileName, Map<Class<?>, List<AvmDetails.MethodDescriptor>> details) throws IOException {
 
-            JsonObject classJsonObj = Json.object();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
+            writer.write('{');
 
-            List<AvmDetails.MethodDescriptor> methods = e.getValue();
+            boolean firstClass = true;
+            for (Map.Entry<Class<?>, List<AvmDetails.MethodDescriptor>> e : details.entrySet()) {
+                if (!firstClass)
+                    writer.write(',');
+                firstClass = false;
 
-            JsonArray methodArray = Json.array();
-            for(AvmDetails.MethodDescriptor methodDescriptor: methods) {
-                JsonObject methodObj = Json.object();
-                methodObj.add("name", methodDescriptor.name);
-                methodObj.add("isStatic", methodDescriptor.isStatic);
+                writeString(writer, e.getKey().getCanonicalName());
+                writer.write(":[");
 
-                JsonArray paramArrays = Json.array();
-                for(Class arg: methodDescriptor.parameters) {
-                    paramArrays.add(arg.getCanonicalName());
-                }
+                boolean firstMethod = true;
+                for (AvmDetails.MethodDescriptor methodDescriptor : e.getValue()) {
+                    if (!firstMethod)
+                        writer.write(',');
+                    firstMethod = false;
 
-                methodObj.add("parameters", paramArrays);
-                methodArray.add(methodObj);
-            }
+                    writer.write("{\"name\":");
+                    writeString(writer, methodDescriptor.name);
+                    writer.write(",\"isStatic\":");
+                    writer.write(String.valueOf(methodDescriptor.isStatic));
+                    writer.write(",\"parameters\":[");
 
-            detailsObj.add(e.getKey().getCanonicalName(), methodArray);
-        });
+                    boolean firstParam = true;
+                    for (Class arg : methodDescriptor.parameters) {
+                        if (!firstParam)
+                            writer.write(',');
+                        firstParam = false;
 
-        return detailsObj;
-    }
+                        writeString(writer, arg.getCanonicalName());
+                    }
+                    writer.write("]}");
+                }
+                writer.write(']');
+            }
 
-    public static void writeOutput(String fileName, JsonObject jsonObject) throws IOException {
+            writer.write('}');
+        }
+    }
 
-        try (FileWriter fileWriter = new FileWriter(fileName)) {
-            jsonObject.writeTo(fileWriter);
-        } catch (Exception e) {
-            throw e;
+    private static void writeString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) ch));
+                    } else {
+                        writer.write(ch);
+                    }
+            }
         }
+        writer.write('"');
     }
 }
@@ -0,0 +1,485 @@
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+//This class is started by IDE with project's JDK and keeps one embedded AVM (LocalAvmNode of avm-helper) warm for a storage.
+//Modules which share the storage share the daemon, so deploy and call requests carry the artifactId of their module.
+//It must stay a single class without inner classes, as only AvmLocalDaemon.class is copied to the plugin folder.
+//
+//Protocol: one JSON-RPC 2.0 request per line on a loopback socket, one response per line.
+//The process exits when stdin is closed, so it never outlives the IDE.
+public class AvmLocalDaemon {
+
+    private final static String NODE_CLASS = "org.aion4j.avm.helper.local.LocalAvmNode";
+    private final static String STATUS_FILE = ".aion4j.conf";
+
+    //LocalAvmNode signatures of the supported avm-helper versions, newest first. Older versions take fewer args, so
+    //each signature takes a prefix of the request args: storagePath, sender, verboseConcurrentExecutor, verboseContractErrors
+    private final static Class<?>[][] CONSTRUCTORS = {
+            {String.class, String.class, boolean.class, boolean.class},
+            {String.class, String.class}
+    };
+    private final static String[] NODE_METHODS = {"deploy", "call", "transfer", "getBalance", "createAccountWithBalance"};
+    private final static Class<?>[][][] NODE_METHOD_SIGNATURES = {
+            //jar, args, sender, value
+            {{String.class, String.class, String.class, BigInteger.class}, {String.class, String.class, String.class}},
+            //contract, sender, method, args, value
+            {{String.class, String.class, String.class, String.class, BigInteger.class}, {String.class, String.class, String.class, String.class}},
+            //sender, to, value
+            {{String.class, String.class, BigInteger.class}},
+            //address
+            {{String.class}},
+            //address, balance
+            {{String.class, BigInteger.class}}
+    };
+
+    //Errors which are not caused by the contract. IDE falls back to Maven for these
+    private final static int METHOD_NOT_FOUND = -32601;
+    private final static int INTERNAL_ERROR = -32603;
+    //Contract or node reported an error. IDE shows it as result of the action
+    private final static int EXECUTION_ERROR = -32000;
+
+    private final Object node;
+    //Bound node methods by name. Missing if none of the supported signatures is found
+    private final Map<String, Method> nodeMethods;
+    private final String storagePath;
+    private final String defaultSender;
+    private final String token;
+
+    private AvmLocalDaemon(Object node, String storagePath, String defaultSender, String token) {
+        this.node = node;
+        this.nodeMethods = bindMethods(node.getClass());
+        this.storagePath = storagePath;
+        this.defaultSender = defaultSender;
+        this.token = token;
+    }
+
+    //args: storagePath verboseConcurrentExecutor verboseContractErrors defaultSender
+    public static void main(String[] args) throws Exception {
+        String storagePath = args[0];
+        boolean verboseConcurrent = Boolean.parseBoolean(args[1]);
+        boolean verboseErrors = Boolean.parseBoolean(args[2]);
+        String defaultSender = "-".equals(args[3]) ? null : args[3];
+
+        new File(storagePath).mkdirs();
+
+        Object node = createNode(storagePath, defaultSender, verboseConcurrent, verboseErrors);
+        AvmLocalDaemon daemon = new AvmLocalDaemon(node, storagePath, defaultSender, System.getenv("AVM_DAEMON_TOKEN"));
+
+        ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+
+        //Exit with the IDE
+        Thread stdinWatcher = new Thread(() -> {
+            try {
+                while (System.in.read() != -1) {
+                }
+            } catch (IOException e) {
+            }
+            System.exit(0);
+        }, "stdin-watcher");
+        stdinWatcher.setDaemon(true);
+        stdinWatcher.start();
+
+        System.out.println("AVM_DAEMON_READY " + serverSocket.getLocalPort());
+        System.out.flush();
+
+        while (true) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setTcpNoDelay(true);
+                daemon.serve(socket);
+            } catch (IOException e) {
+                System.err.println("Connection error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            JsonObject response = handle(line);
+            writer.write(response.toString());
+            writer.write('\n');
+            writer.flush();
+
+            if (response.get("shutdown") != null)
+                System.exit(0);
+        }
+    }
+
+    private JsonObject handle(String line) {
+        JsonValue id = Json.NULL;
+        try {
+            JsonObject request = Json.parse(line).asObject();
+            id = request.get("id") != null ? request.get("id") : Json.NULL;
+
+            if (token != null && !token.equals(request.getString("token", null)))
+                return error(id, INTERNAL_ERROR, "Invalid token");
+
+            String method = request.getString("method", "");
+            JsonObject params = request.get("params") != null && request.get("params").isObject()
+                    ? request.get("params").asObject() : new JsonObject();
+
+            if ("shutdown".equals(method))
+                return result(id, Json.value(true), "", 0).add("shutdown", true);
+
+            return execute(id, method, params);
+        } catch (Exception e) {
+            return error(id, INTERNAL_ERROR, String.valueOf(e));
+        }
+    }
+
+    private JsonObject execute(JsonValue id, String method, JsonObject params) throws Exception {
+        Object[] args;
+        String nodeMethod;
+
+        switch (method) {
+            case "ping":
+                return result(id, Json.value("pong"), "", 0);
+            case "deploy":
+                nodeMethod = "deploy";
+                args = new Object[]{params.getString("jar", null), params.getString("args", null),
+                        sender(params), params.getString("value", "0")};
+                break;
+            case "call":
+                nodeMethod = "call";
+                String contract = params.getString("contract", null);
+                if (contract == null || contract.isEmpty())
+                    contract = readStatus(params.getString("artifactId", ""), "deploy.address");
+                if (contract == null || contract.isEmpty())
+                    return error(id, EXECUTION_ERROR, "Please deploy the contract first");
+
+                args = new Object[]{contract, sender(params), params.getString("method", null),
+                        params.getString("args", null), params.getString("value", "0")};
+                break;
+            case "transfer":
+                nodeMethod = "transfer";
+                args = new Object[]{sender(params), params.getString("to", null), params.getString("value", "0")};
+                break;
+            case "getBalance":
+                nodeMethod = "getBalance";
+                args = new Object[]{sender(params)};
+                break;
+            case "callBatch":
+                return callBatch(id, params);
+            case "createAccount":
+                //Also used for topup of an existing account. A new address is generated if none is given
+                nodeMethod = "createAccountWithBalance";
+                String address = params.getString("address", null);
+                args = new Object[]{address == null || address.isEmpty() ? newAddress() : address, params.getString("balance", "0")};
+                break;
+            default:
+                return error(id, METHOD_NOT_FOUND, "Unknown method " + method);
+        }
+
+        int accountIndex = "deploy".equals(method) ? 2 : "call".equals(method) ? 1 : 0;
+        if (args[accountIndex] == null)
+            return error(id, INTERNAL_ERROR, "No account. Set the default account in the configuration");
+
+        Method target = nodeMethods.get(nodeMethod);
+        if (target == null)
+            return error(id, METHOD_NOT_FOUND, "LocalAvmNode." + nodeMethod + " is not available in this avm-helper version");
+
+        JsonObject invocation = invoke(target, args);
+        String output = invocation.getString("output", "");
+        if (invocation.get("error") != null)
+            return error(id, EXECUTION_ERROR, invocation.getString("error", "")).add("output", output);
+
+        JsonValue json = invocation.get("value");
+        if ("deploy".equals(method))
+            saveDeployStatus(params.getString("artifactId", ""), json);
+        else if ("createAccount".equals(method))
+            json = new JsonObject().add("address", (String) args[0]).add("created", json);
+
+        return result(id, json, output, invocation.getLong("elapsedNanos", 0) / 1_000_000);
+    }
+
+    //Calls of one method, usually from distinct senders, in one request: params contract, method, value and calls,
+    //an array of {address, args}. The calls run back to back without a round trip to the IDE in between.
+    //A failed call doesn't stop the batch. Value is an array with value or error, output and elapsedNanos of every call
+    private JsonObject callBatch(JsonValue id, JsonObject params) throws Exception {
+        String contract = params.getString("contract", null);
+        if (contract == null || contract.isEmpty())
+            contract = readStatus(params.getString("artifactId", ""), "deploy.address");
+        if (contract == null || contract.isEmpty())
+            return error(id, EXECUTION_ERROR, "Please deploy the contract first");
+
+        JsonValue calls = params.get("calls");
+        if (calls == null || !calls.isArray())
+            return error(id, INTERNAL_ERROR, "No calls in the batch");
+
+        long start = System.nanoTime();
+        JsonArray results = new JsonArray();
+        for (JsonValue call : calls.asArray()) {
+            JsonObject callParams = call.isObject() ? call.asObject() : new JsonObject();
+            Object[] args = new Object[]{contract, sender(callParams), params.getString("method", null),
+                    callParams.getString("args", null), params.getString("value", "0")};
+            if (args[1] == null)
+                return error(id, INTERNAL_ERROR, "No account. Set the default account in the configuration");
+
+            Method target = nodeMethods.get("call");
+            if (target == null)
+                return error(id, METHOD_NOT_FOUND, "LocalAvmNode.call is not available in this avm-helper version");
+
+            results.add(invoke(target, args));
+        }
+
+        return result(id, results, "", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //Invoke a node method. Returns value or error (if the node threw), output and elapsedNanos of the invocation
+    private JsonObject invoke(Method target, Object[] args) throws Exception {
+        //avm-helper prints results to stdout. Capture it for the IDE
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output, true, "UTF-8"));
+
+        JsonObject invocation = new JsonObject();
+        long start = System.nanoTime();
+        try {
+            Object value = target.invoke(node, convertArgs(target.getParameterTypes(), args));
+            invocation.add("elapsedNanos", System.nanoTime() - start);
+            invocation.add("value", toJson(value, 0));
+        } catch (InvocationTargetException e) {
+            invocation.add("elapsedNanos", System.nanoTime() - start);
+            invocation.add("error", String.valueOf(e.getTargetException()));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        return invocation.add("output", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private String sender(JsonObject params) {
+        String sender = params.getString("address", null);
+        return sender == null || sender.isEmpty() ? defaultSender : sender;
+    }
+
+    //Same status file and keys as aion4j maven plugin, so that Maven goals and the IDE see the last deployment
+    private void saveDeployStatus(String artifactId, JsonValue deployResponse) throws IOException {
+        if (!deployResponse.isObject())
+            return;
+
+        String address = deployResponse.asObject().getString("address", null);
+        if (address == null)
+            return;
+
+        File file = new File(storagePath, STATUS_FILE);
+        Properties properties = new Properties();
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            }
+        }
+
+        properties.setProperty(artifactId + ".deploy.address", address);
+        properties.setProperty(artifactId + ".last.deploy.debug.enabled", "false");
+
+        JsonValue txReceipt = deployResponse.asObject().get("txReceipt");
+        if (txReceipt != null && txReceipt.isString())
+            properties.setProperty(artifactId + ".deploy.tx.receipt", txReceipt.asString());
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        }
+    }
+
+    private String readStatus(String artifactId, String key) throws IOException {
+        File file = new File(storagePath, STATUS_FILE);
+        if (!file.exists())
+            return null;
+
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        return properties.getProperty(artifactId + "." + key);
+    }
+
+    private static Object createNode(String storagePath, String sender, boolean verboseConcurrent, boolean verboseErrors) throws Exception {
+        Class<?> nodeClass = Class.forName(NODE_CLASS);
+        Object[] args = {storagePath, sender, verboseConcurrent, verboseErrors};
+
+        for (Class<?>[] types : CONSTRUCTORS) {
+            Constructor<?> constructor;
+            try {
+                constructor = nodeClass.getConstructor(types);
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+
+            Object[] actualArgs = new Object[types.length];
+            System.arraycopy(args, 0, actualArgs, 0, actualArgs.length);
+            return constructor.newInstance(actualArgs);
+        }
+
+        StringBuilder supported = new StringBuilder();
+        for (Class<?>[] types : CONSTRUCTORS) {
+            supported.append("\n  LocalAvmNode").append(toSignature(types));
+        }
+        throw new IllegalStateException("Unsupported avm-helper version. " + NODE_CLASS
+                + " has none of the supported constructors:" + supported);
+    }
+
+    //First supported signature of every node method. A method without one is left out and reported per request
+    private static Map<String, Method> bindMethods(Class<?> nodeClass) {
+        Map<String, Method> methods = new HashMap<>();
+        for (int i = 0; i < NODE_METHODS.length; i++) {
+            for (Class<?>[] types : NODE_METHOD_SIGNATURES[i]) {
+                try {
+                    Method method = nodeClass.getMethod(NODE_METHODS[i], types);
+                    if (!Modifier.isStatic(method.getModifiers())) {
+                        methods.put(NODE_METHODS[i], method);
+                        break;
+                    }
+                } catch (NoSuchMethodException e) {
+                }
+            }
+
+            if (!methods.containsKey(NODE_METHODS[i]))
+                System.err.println("LocalAvmNode." + NODE_METHODS[i] + " has none of the supported signatures");
+        }
+        return methods;
+    }
+
+    private static String toSignature(Class<?>[] types) {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(types[i].getSimpleName());
+        }
+        return sb.append(")").toString();
+    }
+
+    private static Object[] convertArgs(Class<?>[] types, Object[] args) {
+        Object[] converted = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object arg = args[i];
+            Class<?> type = types[i];
+
+            if (arg == null || type.isInstance(arg)) {
+                converted[i] = arg;
+            } else if (type == BigInteger.class) {
+                converted[i] = new BigInteger(arg.toString());
+            } else if (type == long.class || type == Long.class) {
+                converted[i] = Long.parseLong(arg.toString());
+            } else if (type == int.class || type == Integer.class) {
+                converted[i] = Integer.parseInt(arg.toString());
+            } else if (type == boolean.class || type == Boolean.class) {
+                converted[i] = Boolean.parseBoolean(arg.toString());
+            } else {
+                converted[i] = arg.toString();
+            }
+        }
+        return converted;
+    }
+
+    //Response objects of avm-helper are simple beans. Serialize public getters
+    private static JsonValue toJson(Object value, int depth) {
+        if (value == null)
+            return Json.NULL;
+        if (value instanceof Boolean)
+            return Json.value((Boolean) value);
+        if (value instanceof Number || value instanceof CharSequence || value instanceof Character || value instanceof Enum)
+            return Json.value(value.toString());
+        if (value instanceof byte[])
+            return Json.value(toHex((byte[]) value));
+        if (value.getClass().isArray()) {
+            JsonArray array = new JsonArray();
+            int length = java.lang.reflect.Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                array.add(toJson(java.lang.reflect.Array.get(value, i), depth + 1));
+            }
+            return array;
+        }
+        if (depth > 3 || value.getClass().getName().startsWith("java."))
+            return Json.value(value.toString());
+
+        JsonObject object = new JsonObject();
+        for (Method method : value.getClass().getMethods()) {
+            String name = method.getName();
+            if (method.getParameterCount() != 0 || method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers()))
+                continue;
+
+            String property;
+            if (name.startsWith("get") && name.length() > 3)
+                property = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+            else if (name.startsWith("is") && name.length() > 2)
+                property = Character.toLowerCase(name.charAt(2)) + name.substring(3);
+            else
+                continue;
+
+            try {
+                object.add(property, toJson(method.invoke(value), depth + 1));
+            } catch (Exception e) {
+                //ignore the property
+            }
+        }
+        return object;
+    }
+
+    //Aion account address. 32 bytes starting with 0xa0
+    private static String newAddress() {
+        byte[] bytes = new byte[32];
+        new java.security.SecureRandom().nextBytes(bytes);
+        bytes[0] = (byte) 0xa0;
+        return toHex(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder("0x");
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static JsonObject result(JsonValue id, JsonValue value, String output, long elapsedMs) {
+        return new JsonObject()
+                .add("jsonrpc", "2.0")
+                .add("id", id)
+                .add("result", new JsonObject()
+                        .add("value", value)
+                        .add("output", output)
+                        .add("elapsedMs", elapsedMs));
+    }
+
+    private static JsonObject error(JsonValue id, int code, String message) {
+        return new JsonObject()
+                .add("jsonrpc", "2.0")
+                .add("id", id)
+                .add("error", new JsonObject()
+                        .add("code", code)
+                        .add("message", message));
+    }
+}
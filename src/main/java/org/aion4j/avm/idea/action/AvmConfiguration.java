@@ -74,8 +74,10 @@ public class AvmConfiguration extends AvmBaseAction {
         configModel.setAvmStoragePath(configService.getState().avmStoragePath);
         configModel.setLocalDefaultAccount(configService.getState().localDefaultAccount);
         configModel.setShouldAskCallerAccountEverytime(configService.getState().shouldAskCallerAccountEverytime);
+        configModel.setDisableLocalAvmDaemon(configService.getState().disableLocalAvmDaemon);
 
         configModel.setDisableJarOptimization(configService.getState().disableJarOptimization);
+        configModel.setParallelModuleDeploy(configService.getState().parallelModuleDeploy);
         configModel.setUseCredentialStore(configService.getState().useCredentialStore);
 
         configDialog.setState(configModel);
@@ -106,8 +108,10 @@ public class AvmConfiguration extends AvmBaseAction {
             state.avmStoragePath = remoteConfigModel.getAvmStoragePath();
             state.localDefaultAccount = remoteConfigModel.getLocalDefaultAccount();
             state.shouldAskCallerAccountEverytime = remoteConfigModel.shouldAskCallerAccountEverytime();
+            state.disableLocalAvmDaemon = remoteConfigModel.isDisableLocalAvmDaemon();
 
             state.disableJarOptimization = remoteConfigModel.isDisableJarOptimization();
+            state.parallelModuleDeploy = remoteConfigModel.isParallelModuleDeploy();
             state.useCredentialStore = remoteConfigModel.isUseCredentialStore();
 
             if(remoteConfigModel.isDisableCredentialStore()) { //don't store credentials
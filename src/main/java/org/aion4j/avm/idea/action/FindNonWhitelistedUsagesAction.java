@@ -0,0 +1,84 @@
+package org.aion4j.avm.idea.action;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.aion4j.avm.idea.compliance.ComplianceResultsPanel;
+import org.aion4j.avm.idea.compliance.ComplianceScanner;
+import org.aion4j.avm.idea.compliance.ComplianceToolWindowFactory;
+import org.aion4j.avm.idea.index.JCLUsageIndex;
+import org.aion4j.avm.idea.misc.AvmIcons;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLWhitelistLookup;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Find non-whitelisted JCL usages in contract files of AVM modules. {@link JCLUsageIndex} selects the files which may
+ * have such usages and only those are checked by the inspection, so it's much faster than a full compliance scan. It only
+ * finds files with usages which can be seen without resolving, e.g. not a call on the result of another call.
+ */
+public class FindNonWhitelistedUsagesAction extends AnAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null) {
+            e.getPresentation().setEnabledAndVisible(false);
+            return;
+        }
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        e.getPresentation().setEnabledAndVisible(avmService != null && avmService.isAvmProject());
+        e.getPresentation().setIcon(AvmIcons.AION_ICON);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null)
+            return;
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        if(avmService == null)
+            return;
+
+        JCLWhitelistLookup whitelist = avmService.getJCLWhitelist(project);
+        if(whitelist.size() == 0) {
+            IdeaUtil.showNotification(project, "Find non-whitelisted usages",
+                    "JCL whitelist is not loaded yet. Please try again in a moment", NotificationType.WARNING, null);
+            return;
+        }
+
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+
+        ComplianceResultsPanel resultsPanel = ComplianceToolWindowFactory.showResultsPanel(project);
+        resultsPanel.clear("Waiting for indexes...");
+
+        new Task.Backgroundable(project, "Finding non-whitelisted JCL usages", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                List<VirtualFile> files = DumbService.getInstance(project).runReadActionInSmartMode(() -> {
+                    GlobalSearchScope scope = ComplianceScanner.getContractScope(project, avmService);
+                    if(scope == null)
+                        return new ArrayList<VirtualFile>();
+
+                    return new ArrayList<>(JCLUsageIndex.findCandidateFiles(project, scope, whitelist));
+                });
+
+                new ComplianceScanner(project, resultsPanel).scan(files, indicator);
+            }
+        }.queue();
+    }
+}
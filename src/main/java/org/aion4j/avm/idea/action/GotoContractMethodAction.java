@@ -0,0 +1,104 @@
+package org.aion4j.avm.idea.action;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.ui.popup.PopupStep;
+import com.intellij.openapi.ui.popup.util.BaseListPopupStep;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.aion4j.avm.idea.compliance.ComplianceScanner;
+import org.aion4j.avm.idea.index.ContractMethodIndex;
+import org.aion4j.avm.idea.misc.AvmIcons;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.service.AvmService;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Popup with all @Callable and @Fallback methods of AVM modules, read from {@link ContractMethodIndex}.
+ */
+public class GotoContractMethodAction extends AnAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null) {
+            e.getPresentation().setEnabledAndVisible(false);
+            return;
+        }
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        e.getPresentation().setEnabledAndVisible(avmService != null && avmService.isAvmProject());
+        e.getPresentation().setIcon(AvmIcons.CALLABLE_GUTTER_ICON);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null)
+            return;
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        if(avmService == null)
+            return;
+
+        if(DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("Contract methods are not available while indexing");
+            return;
+        }
+
+        List<ContractMethodIndex.Location> methods = new ArrayList<>();
+        GlobalSearchScope scope = ComplianceScanner.getContractScope(project, avmService);
+        if(scope != null) {
+            methods.addAll(ContractMethodIndex.getEntries(project, ContractMethodIndex.Kind.CALLABLE, scope));
+            methods.addAll(ContractMethodIndex.getEntries(project, ContractMethodIndex.Kind.FALLBACK, scope));
+        }
+
+        if(methods.isEmpty()) {
+            IdeaUtil.showNotification(project, "Go to Contract Method", "No @Callable method found in AVM modules",
+                    NotificationType.INFORMATION, null);
+            return;
+        }
+
+        methods.sort(Comparator.comparing((ContractMethodIndex.Location l) -> l.getEntry().getClassName())
+                .thenComparing(l -> l.getEntry().getName()));
+
+        JBPopupFactory.getInstance().createListPopup(new BaseListPopupStep<ContractMethodIndex.Location>("Contract Methods", methods) {
+            @NotNull
+            @Override
+            public String getTextFor(ContractMethodIndex.Location location) {
+                ContractMethodIndex.Entry entry = location.getEntry();
+                String text = entry.getClassName() + "." + entry.getName() + entry.getSignature() + " : " + entry.getType();
+
+                return entry.getKind() == ContractMethodIndex.Kind.FALLBACK ? text + " @Fallback" : text;
+            }
+
+            @Override
+            public Icon getIconFor(ContractMethodIndex.Location location) {
+                return AvmIcons.CALLABLE_GUTTER_ICON;
+            }
+
+            @Override
+            public boolean isSpeedSearchEnabled() {
+                return true;
+            }
+
+            @Override
+            public PopupStep onChosen(ContractMethodIndex.Location location, boolean finalChoice) {
+                return doFinalStep(() -> {
+                    if(location.getFile().isValid())
+                        new OpenFileDescriptor(project, location.getFile(), location.getEntry().getOffset()).navigate(true);
+                });
+            }
+        }).showCenteredInCurrentWindow(project);
+    }
+}
@@ -7,11 +7,14 @@ import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.DataKey;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.ui.popup.PopupStep;
+import com.intellij.openapi.ui.popup.util.BaseListPopupStep;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import org.aion4j.avm.idea.action.remote.AvmRemoteBaseAction;
 import org.aion4j.avm.idea.action.remote.ui.CallMethodInputDialog;
-import org.aion4j.avm.idea.misc.AvmApiConstant;
+import org.aion4j.avm.idea.index.ContractMethodIndex;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.AvmMethodArgsHelper;
 import org.aion4j.avm.idea.misc.IdeaUtil;
@@ -63,7 +66,7 @@ public abstract class InvokeMethodAction extends AvmRemoteBaseAction {
             }
 
             if(element != null && element instanceof PsiMethod) { //Check if callable method
-                if(!((PsiMethod) element).hasAnnotation(AvmApiConstant.CALLABLE_ANNOTATION))
+                if(ContractMethodIndex.getKind((PsiMethod) element) != ContractMethodIndex.Kind.CALLABLE)
                     element = null; //Need to check through PsiLocation
             }
         }
@@ -75,25 +78,66 @@ public abstract class InvokeMethodAction extends AvmRemoteBaseAction {
             PsiLocation psiLocation = e.getData(DataKey.create("Location"));
             if(psiLocation != null) {
                 element = psiLocation.getPsiElement();
+
+                //Gutter markers are attached to the method name identifier
+                if(element instanceof PsiIdentifier && element.getParent() instanceof PsiMethod)
+                    element = element.getParent();
             }
         }
 
+        //Read everything needed from the event now. The method may be picked later in a popup, when the event is stale
+        MavenRunnerParameters mavenRunnerParameters = getMavenRunnerParameters(e, project, getGoals());
+        if(!preExecute(project, mavenRunnerParameters)) return;
+
         if (element == null || !(element instanceof PsiMethod)) {
-            IdeaUtil.showNotification(project, "Avm - Call Method", "Please right click on a @callable method name",
-                    NotificationType.WARNING, null);
-            return;
+            //Let user pick one of the @Callable methods of the file
+            PsiFile file = e.getData(CommonDataKeys.PSI_FILE);
+            List<PsiMethod> callableMethods = file != null
+                    ? ContractMethodIndex.getMembers(file, ContractMethodIndex.Kind.CALLABLE, PsiMethod.class) : new ArrayList<>();
+
+            if(callableMethods.isEmpty()) {
+                IdeaUtil.showNotification(project, "Avm - Call Method", "Please right click on a @callable method name",
+                        NotificationType.WARNING, null);
+                return;
+            } else if(callableMethods.size() == 1) {
+                element = callableMethods.get(0);
+            } else {
+                JBPopupFactory.getInstance().createListPopup(new BaseListPopupStep<PsiMethod>("Select @Callable Method", callableMethods) {
+                    @NotNull
+                    @Override
+                    public String getTextFor(PsiMethod method) {
+                        return method.getName() + method.getParameterList().getText();
+                    }
+
+                    @Override
+                    public Icon getIconFor(PsiMethod method) {
+                        return AvmIcons.CALLABLE_GUTTER_ICON;
+                    }
+
+                    @Override
+                    public boolean isSpeedSearchEnabled() {
+                        return true;
+                    }
+
+                    @Override
+                    public PopupStep onChosen(PsiMethod method, boolean finalChoice) {
+                        return doFinalStep(() -> invokeMethod(project, method, mavenRunnerParameters));
+                    }
+                }).showInBestPositionFor(e.getDataContext());
+                return;
+            }
         }
 
-        if(!preExecute(e, project)) return;
+        invokeMethod(project, (PsiMethod) element, mavenRunnerParameters);
+    }
 
+    private void invokeMethod(Project project, PsiMethod method, MavenRunnerParameters mavenRunnerParameters) {
         MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
-        MavenRunnerParameters mavenRunnerParameters = getMavenRunnerParameters(e, project, getGoals());
         MavenRunnerSettings mavenRunnerSettings = getMavenRunnerSettings(project);
         //set kernel info
         //Map<String, String> settingMap = new HashMap<>();
         //initConfigInformation(project, settingMap);
 
-        PsiMethod method = (PsiMethod) element;
         List<InvokeParam> parameters = getInvokeParams(method);
 
         AvmCacheService avmCacheService = ServiceManager.getService(project, AvmCacheService.class);
@@ -151,16 +195,16 @@ public abstract class InvokeMethodAction extends AvmRemoteBaseAction {
         if(!StringUtil.isEmptyOrSpaces(contractAddress))
             settingMap.put("contract", contractAddress);
         
-        execute(project, e, mavenRunner, mavenRunnerParameters, mavenRunnerSettings);
+        execute(project, mavenRunner, mavenRunnerParameters, mavenRunnerSettings);
     }
 
     /**
-     * Override in subclass if any pre-work needed before actual run
-     * @param e
+     * Override in subclass if any pre-work needed before actual run. Called before the method is selected
      * @param project
+     * @param mavenRunnerParameters working directory is the module of the contract
      * @return
      */
-    protected boolean preExecute(AnActionEvent e, Project project) {
+    protected boolean preExecute(Project project, MavenRunnerParameters mavenRunnerParameters) {
         return true;
     }
 
@@ -170,7 +214,7 @@ public abstract class InvokeMethodAction extends AvmRemoteBaseAction {
      * @param mavenRunnerParameters
      * @param mavenRunnerSettings
      */
-    protected void execute(Project project, AnActionEvent evt, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
+    protected void execute(Project project, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
         mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
 
         });
@@ -0,0 +1,74 @@
+package org.aion4j.avm.idea.action;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import org.aion4j.avm.idea.compliance.ComplianceResultsPanel;
+import org.aion4j.avm.idea.compliance.ComplianceScanner;
+import org.aion4j.avm.idea.compliance.ComplianceToolWindowFactory;
+import org.aion4j.avm.idea.misc.AvmIcons;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLWhitelistLookup;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Check all contract source files of AVM modules for JCL whitelist and abi compliance, without opening them in editor.
+ */
+public class ScanComplianceAction extends AnAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null) {
+            e.getPresentation().setEnabledAndVisible(false);
+            return;
+        }
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        e.getPresentation().setEnabledAndVisible(avmService != null && avmService.isAvmProject());
+        e.getPresentation().setIcon(AvmIcons.AION_ICON);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null)
+            return;
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        if(avmService == null)
+            return;
+
+        //Whitelist checks are skipped until the whitelist is loaded, so a scan now would report false clean results
+        JCLWhitelistLookup whitelist = avmService.getJCLWhitelist(project);
+        if(!avmService.isWhitelistReady() || whitelist.size() == 0) {
+            IdeaUtil.showNotification(project, "Scan for compliance",
+                    "JCL whitelist is not loaded yet. Please try again in a moment", NotificationType.WARNING, null);
+            return;
+        }
+
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+
+        ComplianceResultsPanel resultsPanel = ComplianceToolWindowFactory.showResultsPanel(project);
+        resultsPanel.clear("Collecting contract files...");
+
+        new Task.Backgroundable(project, "Scanning AVM modules for compliance", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                List<VirtualFile> files = ReadAction.compute(() -> ComplianceScanner.collectContractFiles(project, avmService));
+
+                new ComplianceScanner(project, resultsPanel).scan(files, indicator);
+            }
+        }.queue();
+    }
+}
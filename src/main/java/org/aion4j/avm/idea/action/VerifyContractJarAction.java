@@ -0,0 +1,134 @@
+package org.aion4j.avm.idea.action;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import org.aion4j.avm.idea.compliance.ComplianceFinding;
+import org.aion4j.avm.idea.compliance.ComplianceResultsPanel;
+import org.aion4j.avm.idea.compliance.ComplianceToolWindowFactory;
+import org.aion4j.avm.idea.compliance.ContractJarVerifier;
+import org.aion4j.avm.idea.compliance.ViolationSourceMapper;
+import org.aion4j.avm.idea.misc.AvmIcons;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLClassHierarchy;
+import org.aion4j.avm.idea.service.JCLWhitelistLookup;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.idea.maven.project.MavenProject;
+import org.jetbrains.idea.maven.project.MavenProjectsManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Verify the built contract jars of AVM modules against JCL whitelist at bytecode level.
+ */
+public class VerifyContractJarAction extends AnAction {
+    private final static Logger log = Logger.getInstance(VerifyContractJarAction.class);
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null) {
+            e.getPresentation().setEnabledAndVisible(false);
+            return;
+        }
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        e.getPresentation().setEnabledAndVisible(avmService != null && avmService.isAvmProject());
+        e.getPresentation().setIcon(AvmIcons.AION_ICON);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if(project == null)
+            return;
+
+        AvmService avmService = ServiceManager.getService(project, AvmService.class);
+        if(avmService == null)
+            return;
+
+        JCLWhitelistLookup whitelist = avmService.getJCLWhitelist(project);
+        if(whitelist.size() == 0) {
+            IdeaUtil.showNotification(project, "Contract jar verification",
+                    "JCL whitelist is not loaded yet. Please try again in a moment", NotificationType.WARNING, null);
+            return;
+        }
+
+        List<File> jars = getContractJars(project, avmService);
+        if(jars.isEmpty()) {
+            IdeaUtil.showNotification(project, "Contract jar verification",
+                    "No contract jar found. Please build the project first", NotificationType.WARNING, null);
+            return;
+        }
+
+        ComplianceResultsPanel resultsPanel = ComplianceToolWindowFactory.showResultsPanel(project);
+        resultsPanel.clear("Verifying contract jars...");
+
+        new Task.Backgroundable(project, "Verifying contract jars", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                long start = System.currentTimeMillis();
+                int total = 0;
+                JCLClassHierarchy hierarchy = avmService.getJCLClassHierarchy(project);
+
+                for (File jar : jars) {
+                    indicator.checkCanceled();
+                    indicator.setText2(jar.getName());
+
+                    try {
+                        List<ContractJarVerifier.Violation> violations = verifyJar(jar, whitelist, hierarchy);
+                        total += violations.size();
+
+                        List<ComplianceFinding> findings = ReadAction.compute(() -> ViolationSourceMapper.toFindings(project, violations));
+                        resultsPanel.findingsAdded(findings);
+                    } catch (IOException ex) {
+                        log.warn("Error reading contract jar " + jar, ex);
+                        resultsPanel.findingsAdded(Collections.singletonList(
+                                new ComplianceFinding(jar.getName(), "Unable to read jar: " + ex.getMessage())));
+                    }
+                }
+
+                resultsPanel.setStatus(String.format("Verified %d jar(s) in %d ms. %d problems found",
+                        jars.size(), System.currentTimeMillis() - start, total));
+            }
+        }.queue();
+    }
+
+    /**
+     * Verify a contract jar. This can be used as a gate before deployment.
+     */
+    public static List<ContractJarVerifier.Violation> verifyJar(File jar, JCLWhitelistLookup whitelist, JCLClassHierarchy hierarchy) throws IOException {
+        return new ContractJarVerifier(whitelist, hierarchy).verify(jar);
+    }
+
+    public static List<File> getContractJars(Project project, AvmService avmService) {
+        List<File> jars = new ArrayList<>();
+        MavenProjectsManager mavenProjectsManager = MavenProjectsManager.getInstance(project);
+
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if(!avmService.isAvmModule(module))
+                continue;
+
+            MavenProject mavenProject = mavenProjectsManager.findProject(module);
+            File jar = new File(mavenProject.getBuildDirectory(), mavenProject.getFinalName() + ".jar");
+
+            if(jar.exists())
+                jars.add(jar);
+        }
+
+        return jars;
+    }
+}
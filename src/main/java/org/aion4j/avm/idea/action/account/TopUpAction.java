@@ -29,6 +29,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import org.aion4j.avm.idea.action.account.ui.TopupAccountDialog;
 import org.aion4j.avm.idea.action.remote.AvmRemoteBaseAction;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 import org.jetbrains.annotations.NotNull;
@@ -100,11 +101,15 @@ public abstract class TopUpAction extends AvmRemoteBaseAction {
             }
         }
 
-        //TODOl
-        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
+        Runnable onComplete = () -> {
             IdeaUtil.showNotification(project, "Account Topup", "Account topup was successful",
                     NotificationType.INFORMATION, null);
-        });
+        };
+
+        if(isRemote())
+            mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, onComplete);
+        else
+            LocalAvmDaemonManager.getInstance(project).run(mavenRunnerParameters, mavenRunnerSettings, onComplete);
     }
 
     @Override
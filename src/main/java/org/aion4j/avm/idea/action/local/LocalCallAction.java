@@ -1,14 +1,15 @@
 package org.aion4j.avm.idea.action.local;
 
 import com.intellij.notification.NotificationType;
-import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import org.aion4j.avm.idea.action.InvokeMethodAction;
 import org.aion4j.avm.idea.action.local.ui.LocalGetAccountDialog;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
 import org.aion4j.avm.idea.misc.ResultCache;
 import org.aion4j.avm.idea.misc.ResultCacheUtil;
 import org.aion4j.avm.idea.service.AvmConfigStateService;
@@ -32,9 +33,9 @@ public class LocalCallAction extends InvokeMethodAction {
     }
 
     @Override
-    protected void execute(Project project, AnActionEvent evt, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
+    protected void execute(Project project, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
         //Check if last deployment was with debug mode and set preserve debuggability accordingly
-        ResultCache resultCache = ResultCacheUtil.getResultCache(project, evt);
+        ResultCache resultCache = ResultCacheUtil.getResultCache(project, PsiCustomUtil.getMavenProject(project, mavenRunnerParameters.getWorkingDirPath()));
         if(resultCache != null) {
             String lastDeployAddress = resultCache.getLastDeployedAddress();
             boolean debugEnabledInLastDeploy = resultCache.getDebugEnabledInLastDeploy();
@@ -52,7 +53,7 @@ public class LocalCallAction extends InvokeMethodAction {
             }
         }
 
-        super.execute(project, evt, mavenRunner, mavenRunnerParameters, mavenRunnerSettings);
+        LocalAvmDaemonManager.getInstance(project).run(mavenRunnerParameters, mavenRunnerSettings, null);
     }
 
     @Override
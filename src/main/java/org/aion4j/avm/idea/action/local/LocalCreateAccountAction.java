@@ -24,13 +24,12 @@ package org.aion4j.avm.idea.action.local;
 
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import org.aion4j.avm.idea.action.local.ui.LocalCreateAccountDialog;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.idea.maven.execution.MavenRunner;
 import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
 import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
 
@@ -64,8 +63,6 @@ public class LocalCreateAccountAction extends AvmLocalBaseAction {
 
         BigInteger balance = dialog.getBalance();
 
-        MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
-
         List<String> goals = new ArrayList<>();
         goals.add("aion4j:account");
 
@@ -80,7 +77,7 @@ public class LocalCreateAccountAction extends AvmLocalBaseAction {
             mavenRunnerSettings.getMavenProperties().put("balance", BigInteger.ZERO.toString());
         }
 
-        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
+        LocalAvmDaemonManager.getInstance(project).run(mavenRunnerParameters, mavenRunnerSettings, () -> {
             IdeaUtil.showNotification(project, "Account creation", "Account created successfully",
                     NotificationType.INFORMATION, null);
         });
@@ -27,11 +27,12 @@ import com.intellij.execution.RunnerAndConfigurationSettings;
 import com.intellij.execution.configurations.ConfigurationTypeUtil;
 import com.intellij.execution.executors.DefaultDebugExecutor;
 import com.intellij.notification.NotificationType;
-import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
 import com.twelvemonkeys.lang.StringUtil;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
 import org.aion4j.avm.idea.misc.ResultCache;
 import org.aion4j.avm.idea.misc.ResultCacheUtil;
 import org.jetbrains.idea.maven.execution.MavenRunConfigurationType;
@@ -45,8 +46,8 @@ import javax.swing.*;
 public class LocalDebugAction extends LocalCallAction {
 
     @Override
-    protected boolean preExecute(AnActionEvent evt, Project project) {
-        ResultCache resultCache = ResultCacheUtil.getResultCache(project, evt);
+    protected boolean preExecute(Project project, MavenRunnerParameters mavenRunnerParameters) {
+        ResultCache resultCache = ResultCacheUtil.getResultCache(project, PsiCustomUtil.getMavenProject(project, mavenRunnerParameters.getWorkingDirPath()));
 
         if(resultCache == null) {
             return true; //Just ignore any error and continue
@@ -60,10 +61,13 @@ public class LocalDebugAction extends LocalCallAction {
     }
 
     @Override
-    protected void execute(Project project, AnActionEvent evt, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
+    protected void execute(Project project, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
 
         mavenRunnerSettings.getMavenProperties().put("preserveDebuggability", "true");
 
+        //Debug run changes the storage of the module
+        LocalAvmDaemonManager.getInstance(project).stop(mavenRunnerParameters.getWorkingDirPath());
+
         MavenRunConfigurationType mavenRunConfigurationType = ConfigurationTypeUtil.findConfigurationType(MavenRunConfigurationType.class);
         RunnerAndConfigurationSettings runnerConfigurationSettings = MavenRunConfigurationType.createRunnerAndConfigurationSettings(new MavenGeneralSettings(), mavenRunnerSettings, mavenRunnerParameters, project);
         ProgramRunnerUtil.executeConfiguration(runnerConfigurationSettings, DefaultDebugExecutor.getDebugExecutorInstance());
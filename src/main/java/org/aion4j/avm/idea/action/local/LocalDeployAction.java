@@ -10,14 +10,16 @@ import com.intellij.psi.PsiFile;
 import org.aion4j.avm.idea.action.DeployArgsHelper;
 import org.aion4j.avm.idea.action.local.ui.LocalGetAccountDialog;
 import org.aion4j.avm.idea.common.Tuple;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
+import org.aion4j.avm.idea.deploy.MultiModuleDeployer;
 import org.aion4j.avm.idea.exception.DeploymentCommandCancelledException;
 import org.aion4j.avm.idea.misc.AionConversionUtil;
 import org.aion4j.avm.idea.misc.AvmIcons;
+import org.aion4j.avm.idea.misc.ContractBuildCacheUtil;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 import org.aion4j.avm.idea.misc.PsiCustomUtil;
 import org.aion4j.avm.idea.service.AvmConfigStateService;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.idea.maven.execution.MavenRunner;
 import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
 import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
 import org.jetbrains.idea.maven.project.MavenProject;
@@ -48,13 +50,21 @@ public class LocalDeployAction extends AvmLocalBaseAction {
     public void actionPerformed(@NotNull AnActionEvent e) {
         Project project = e.getProject();
 
-        MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
         MavenRunnerSettings mavenRunnerSettings = getMavenRunnerSettings(project);
         mavenRunnerSettings.setSkipTests(true);
 
-        List<String> goals = new ArrayList<>();
-        goals.add("clean");
-        goals.add("package");
+        //Skip or reduce the build if the contract is not changed since the last deploy
+        MavenProject mavenProject = PsiCustomUtil.getMavenProject(project, PsiCustomUtil.getWorkingDirFromActionEvent(e, project));
+        String buildOptions = "local|disableJarOptimization=" + mavenRunnerSettings.getMavenProperties().get("disableJarOptimization");
+        boolean multiModule = MultiModuleDeployer.isMultiModuleDeploy(project, mavenProject);
+
+        Tuple<List<String>, Runnable> build;
+        if(multiModule)
+            build = new Tuple<>(new ArrayList<>(), () -> {}); //built by MultiModuleDeployer
+        else
+            build = ContractBuildCacheUtil.getBuildGoals(project, mavenProject, buildOptions);
+
+        List<String> goals = new ArrayList<>(build._1());
 
         //Only try to auto create  account when storage path is default (target folder) and custom account is select. Just to avoid error
         AvmConfigStateService configService = ServiceManager.getService(project, AvmConfigStateService.class);
@@ -89,8 +99,14 @@ public class LocalDeployAction extends AvmLocalBaseAction {
 
         MavenRunnerParameters mavenRunnerParameters = getMavenRunnerParameters(e, project, goals);
 
+        if(multiModule) {
+            new MultiModuleDeployer(project, mavenProject, mavenRunnerParameters, mavenRunnerSettings, false)
+                    .deploy(buildOptions, goals);
+            return;
+        }
 
-        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
+        //The jar is cached once it is built, even if the deployment fails
+        LocalAvmDaemonManager.getInstance(project).run(mavenRunnerParameters, mavenRunnerSettings, build._2(), () -> {
             IdeaUtil.showNotification(project, "Deployment", "Contract deployed successfully",
                     NotificationType.INFORMATION, null);
         });
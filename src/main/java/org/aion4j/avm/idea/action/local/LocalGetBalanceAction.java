@@ -2,12 +2,11 @@ package org.aion4j.avm.idea.action.local;
 
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.idea.maven.execution.MavenRunner;
 import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
 import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
 
@@ -27,15 +26,13 @@ public class LocalGetBalanceAction extends AvmLocalBaseAction {
 
         Project project = e.getProject();
 
-        MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
-
         List<String> goals = new ArrayList<>();
         goals.add("aion4j:get-balance");
 
         MavenRunnerParameters mavenRunnerParameters = getMavenRunnerParameters(e, project, goals);
         MavenRunnerSettings mavenRunnerSettings = getMavenRunnerSettings(project);
 
-        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
+        LocalAvmDaemonManager.getInstance(project).run(mavenRunnerParameters, mavenRunnerSettings, () -> {
             IdeaUtil.showNotification(project, "Get Balance call", "Balance fetched successfully",
                     NotificationType.INFORMATION, null);
         });
@@ -2,14 +2,13 @@ package org.aion4j.avm.idea.action.local;
 
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import org.aion4j.avm.idea.action.local.ui.LocalGetAccountDialog;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.idea.maven.execution.MavenRunner;
 import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
 import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
 
@@ -44,8 +43,6 @@ public class LocalGetBalanceByAccountAction extends AvmLocalBaseAction {
             return;
         }
 
-        MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
-
         List<String> goals = new ArrayList<>();
         goals.add("aion4j:get-balance");
 
@@ -54,7 +51,7 @@ public class LocalGetBalanceByAccountAction extends AvmLocalBaseAction {
 
         mavenRunnerSettings.getMavenProperties().put("address", account);
 
-        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
+        LocalAvmDaemonManager.getInstance(project).run(mavenRunnerParameters, mavenRunnerSettings, () -> {
             IdeaUtil.showNotification(project, "Get Balance call", "Balance fetched successfully",
                     NotificationType.INFORMATION, null);
         });
@@ -0,0 +1,60 @@
+package org.aion4j.avm.idea.action.local;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import org.aion4j.avm.idea.loadtest.LoadTestDialog;
+import org.aion4j.avm.idea.loadtest.LoadTestTask;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
+import org.aion4j.avm.idea.misc.ResultCache;
+import org.aion4j.avm.idea.misc.ResultCacheUtil;
+import org.jetbrains.idea.maven.execution.MavenRunner;
+import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
+import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
+import org.jetbrains.idea.maven.project.MavenProject;
+
+import java.util.Map;
+
+/**
+ * Calls a @Callable method many times on the embedded AVM with generated args and distinct sender accounts.
+ * Method args entered in the call dialog are the default args template.
+ */
+public class LocalLoadTestAction extends LocalCallAction {
+
+    @Override
+    protected void execute(Project project, MavenRunner mavenRunner, MavenRunnerParameters mavenRunnerParameters, MavenRunnerSettings mavenRunnerSettings) {
+        Map<String, String> properties = mavenRunnerSettings.getMavenProperties();
+        String contract = properties.get("contract");
+
+        MavenProject mavenProject = PsiCustomUtil.getMavenProject(project, mavenRunnerParameters.getWorkingDirPath());
+        if(mavenProject == null) {
+            IdeaUtil.showNotification(project, "AVM Load Test", "Maven project of the contract is not found",
+                    NotificationType.ERROR, null);
+            return;
+        }
+
+        if(StringUtil.isEmptyOrSpaces(contract)) {
+            ResultCache resultCache = ResultCacheUtil.getResultCache(project, mavenProject);
+            if(resultCache == null || StringUtil.isEmpty(resultCache.getLastDeployedAddress())) {
+                IdeaUtil.showNotification(project, "AVM Load Test", "Please deploy the contract first.\n" +
+                        "Aion Virtual Machine -> Embedded -> Deploy", NotificationType.ERROR, null);
+                return;
+            }
+
+            if(resultCache.getDebugEnabledInLastDeploy()) {
+                IdeaUtil.showNotification(project, "AVM Load Test", "Load test doesn't run in debug mode. Please re-deploy the contract.",
+                        NotificationType.ERROR, null);
+                return;
+            }
+        }
+
+        String method = properties.get("method");
+        LoadTestDialog dialog = new LoadTestDialog(project, method, properties.get("args"));
+        if(!dialog.showAndGet())
+            return;
+
+        new LoadTestTask(project, mavenProject, StringUtil.nullize(contract, true), method, properties.get("value"),
+                dialog.getArgsTemplate(), dialog.getCalls(), dialog.getBatchSize(), dialog.getSenders()).queue();
+    }
+}
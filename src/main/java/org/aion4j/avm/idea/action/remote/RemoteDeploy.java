@@ -8,13 +8,17 @@ import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiFile;
 import org.aion4j.avm.idea.action.DeployArgsHelper;
 import org.aion4j.avm.idea.common.Tuple;
+import org.aion4j.avm.idea.deploy.MultiModuleDeployer;
 import org.aion4j.avm.idea.exception.DeploymentCommandCancelledException;
 import org.aion4j.avm.idea.misc.AvmIcons;
+import org.aion4j.avm.idea.misc.ContractBuildCacheUtil;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
 import org.aion4j.avm.idea.service.AvmConfigStateService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.idea.maven.execution.MavenRunner;
 import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
 import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
+import org.jetbrains.idea.maven.project.MavenProject;
 
 import javax.swing.*;
 import java.math.BigInteger;
@@ -48,10 +52,18 @@ public class RemoteDeploy extends AvmRemoteBaseAction {
 
         MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
 
+        //Skip or reduce the build if the contract is not changed since the last deploy
+        MavenProject mavenProject = PsiCustomUtil.getMavenProject(project, PsiCustomUtil.getWorkingDirFromActionEvent(e, project));
+        String buildOptions = state.cleanAndBuildBeforeDeploy
+                ? "remote|" + state.mvnProfile + "|disableJarOptimization=" + state.disableJarOptimization : null;
+        boolean multiModule = MultiModuleDeployer.isMultiModuleDeploy(project, mavenProject);
+
+        Runnable onBuild = () -> {};
         List<String> goals = new ArrayList<>();
-        if(state.cleanAndBuildBeforeDeploy) {
-            goals.add("clean");
-            goals.add("package");
+        if(buildOptions != null && !multiModule) {
+            Tuple<List<String>, Runnable> build = ContractBuildCacheUtil.getBuildGoals(project, mavenProject, buildOptions);
+            goals.addAll(build._1());
+            onBuild = build._2();
         }
 
         //set deploy args
@@ -87,9 +99,13 @@ public class RemoteDeploy extends AvmRemoteBaseAction {
             mavenRunnerSettings.getMavenProperties().put("disableJarOptimization", "true");
         }
 
-        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, () -> {
-            //System.out.println("Deployment is successfull");
-        });
+        if(multiModule) {
+            new MultiModuleDeployer(project, mavenProject, mavenRunnerParameters, mavenRunnerSettings, true)
+                    .deploy(buildOptions, goals);
+            return;
+        }
+
+        mavenRunner.run(mavenRunnerParameters, mavenRunnerSettings, onBuild);
     }
 
     @Override
@@ -71,6 +71,8 @@ public class AvmConfigUI extends DialogWrapper {
     private JTextField localDefaultAccountTf;
     private JCheckBox askCallerAccountCB;
     private JCheckBox disableJarOptimizationCB;
+    private JCheckBox disableLocalAvmDaemonCB;
+    private JCheckBox parallelModuleDeployCB;
     private JButton fetchButton;
     private JLabel fetchStatusLabel;
     private JButton defaultAccountChooser;
@@ -259,8 +261,10 @@ public class AvmConfigUI extends DialogWrapper {
             setLocalDefaultAccountTf(model.getLocalDefaultAccount());
 
         setAskCallerAccountEverytime(model.shouldAskCallerAccountEverytime());
+        setDisableLocalAvmDaemon(model.isDisableLocalAvmDaemon());
 
         setDisableJarOptimization(model.isDisableJarOptimization());
+        setParallelModuleDeploy(model.isParallelModuleDeploy());
 
         setUseCredentialStore(model.isUseCredentialStore());
 
@@ -338,6 +342,14 @@ public class AvmConfigUI extends DialogWrapper {
         this.disableJarOptimizationCB.setSelected(flag);
     }
 
+    public void setDisableLocalAvmDaemon(boolean flag) {
+        this.disableLocalAvmDaemonCB.setSelected(flag);
+    }
+
+    public void setParallelModuleDeploy(boolean flag) {
+        this.parallelModuleDeployCB.setSelected(flag);
+    }
+
     public void setUseCredentialStore(boolean flag) {
         this.useCredentialStoreCB.setSelected(flag);
     }
@@ -396,12 +408,16 @@ public class AvmConfigUI extends DialogWrapper {
     }
 
     public RemoteConfigModel getRemoteConfig() {
-        return new RemoteConfigModel(web3RpcTf.getText(), pkTf.getText(), accountTf.getText(),
+        RemoteConfigModel configModel = new RemoteConfigModel(web3RpcTf.getText(), pkTf.getText(), accountTf.getText(),
                 notStoreCredentialsCheckBox.isSelected(), cleanAndBuildCheckBox.isSelected(), deployNrgTf.getText(), deployNrgPriceTf.getText(),
                 contractTxnNrgTf.getText(), contractTxnNrgPriceTf.getText(), mvnProfileTf.getText(), getReceiptWaitCB.isSelected(),
                 preserveDebugModeCheckBox.isSelected(), verboseContractErrorCheckBox.isSelected(), verboseConcurrentExecutorCheckBox.isSelected(),
                 storagePathTf.getText(), localDefaultAccountTf.getText(), askCallerAccountCB.isSelected(), disableJarOptimizationCB.isSelected(),
                 useCredentialStoreCB.isSelected());
+        configModel.setDisableLocalAvmDaemon(disableLocalAvmDaemonCB.isSelected());
+        configModel.setParallelModuleDeploy(parallelModuleDeployCB.isSelected());
+
+        return configModel;
     }
 
 
@@ -425,8 +441,10 @@ public class AvmConfigUI extends DialogWrapper {
         private String avmStoragePath;
         private String localDefaultAccount;
         private boolean shouldAskCallerAccountEverytime;
+        private boolean disableLocalAvmDaemon;
 
         private boolean disableJarOptimization;
+        private boolean parallelModuleDeploy;
         private boolean useCredentialStore;
 
         public RemoteConfigModel() {
@@ -597,6 +615,14 @@ public class AvmConfigUI extends DialogWrapper {
             this.shouldAskCallerAccountEverytime = shouldAskCallerAccountEverytime;
         }
 
+        public boolean isDisableLocalAvmDaemon() {
+            return disableLocalAvmDaemon;
+        }
+
+        public void setDisableLocalAvmDaemon(boolean disableLocalAvmDaemon) {
+            this.disableLocalAvmDaemon = disableLocalAvmDaemon;
+        }
+
         public boolean isDisableJarOptimization() {
             return disableJarOptimization;
         }
@@ -605,6 +631,14 @@ public class AvmConfigUI extends DialogWrapper {
             this.disableJarOptimization = disableJarOptimization;
         }
 
+        public boolean isParallelModuleDeploy() {
+            return parallelModuleDeploy;
+        }
+
+        public void setParallelModuleDeploy(boolean parallelModuleDeploy) {
+            this.parallelModuleDeploy = parallelModuleDeploy;
+        }
+
         public boolean isUseCredentialStore() {
             return useCredentialStore;
         }
@@ -0,0 +1,56 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.openapi.vfs.VirtualFile;
+
+/**
+ * A compliance problem found in a contract source file. For problems found in compiled code without a source file
+ * (e.g. a dependency packaged in the contract jar), file is null and only the location is known.
+ */
+public class ComplianceFinding {
+    private final VirtualFile file;
+    private final String location;
+    private final int offset;
+    private final int line; //0 based
+    private final String message;
+
+    public ComplianceFinding(VirtualFile file, int offset, int line, String message) {
+        this(file, file.getName() + ":" + (line + 1), offset, line, message);
+    }
+
+    public ComplianceFinding(String location, String message) {
+        this(null, location, 0, -1, message);
+    }
+
+    private ComplianceFinding(VirtualFile file, String location, int offset, int line, String message) {
+        this.file = file;
+        this.location = location;
+        this.offset = offset;
+        this.line = line;
+        this.message = message;
+    }
+
+    public VirtualFile getFile() {
+        return file;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return location + " " + message;
+    }
+}
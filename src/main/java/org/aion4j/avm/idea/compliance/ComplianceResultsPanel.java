@@ -0,0 +1,104 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * Tool window panel which lists compliance findings as they are reported. Double click navigates to the source.
+ */
+public class ComplianceResultsPanel extends JPanel implements ComplianceScanner.Listener {
+
+    private final Project project;
+    private final DefaultListModel<ComplianceFinding> model = new DefaultListModel<>();
+    private final JBList<ComplianceFinding> list = new JBList<>(model);
+    private final JLabel statusLabel = new JLabel(" ");
+
+    public ComplianceResultsPanel(Project project) {
+        super(new BorderLayout());
+        this.project = project;
+
+        list.setCellRenderer(new ColoredListCellRenderer<ComplianceFinding>() {
+            @Override
+            protected void customizeCellRenderer(@NotNull JList<? extends ComplianceFinding> list, ComplianceFinding finding,
+                                                 int index, boolean selected, boolean hasFocus) {
+                append(finding.getLocation() + "  ", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                append(finding.getMessage(), SimpleTextAttributes.ERROR_ATTRIBUTES);
+            }
+        });
+
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if(e.getClickCount() == 2)
+                    navigateToSelected();
+            }
+        });
+
+        statusLabel.setBorder(JBUI.Borders.empty(2, 5));
+
+        add(statusLabel, BorderLayout.NORTH);
+        add(new JBScrollPane(list), BorderLayout.CENTER);
+    }
+
+    public void clear(String status) {
+        runInEdt(() -> {
+            model.clear();
+            statusLabel.setText(status);
+        });
+    }
+
+    /**
+     * Show the result of a task which is not a file by file scan
+     */
+    public void setStatus(String status) {
+        runInEdt(() -> statusLabel.setText(status));
+    }
+
+    @Override
+    public void findingsAdded(List<ComplianceFinding> findings) {
+        runInEdt(() -> {
+            for (ComplianceFinding finding : findings) {
+                model.addElement(finding);
+            }
+        });
+    }
+
+    @Override
+    public void progress(int scanned, int total, double filesPerSecond) {
+        runInEdt(() -> statusLabel.setText(String.format("Scanning... %d/%d files, %.1f files/sec, %d problems",
+                scanned, total, filesPerSecond, model.size())));
+    }
+
+    @Override
+    public void finished(int scanned, int total, int findings, long elapsedMillis, boolean cancelled) {
+        double filesPerSecond = elapsedMillis > 0 ? scanned * 1000.0 / elapsedMillis : scanned;
+
+        runInEdt(() -> statusLabel.setText(String.format("%s %d/%d files in %d ms (%.1f files/sec). %d problems found",
+                cancelled ? "Cancelled after" : "Scanned", scanned, total, elapsedMillis, filesPerSecond, findings)));
+    }
+
+    private void navigateToSelected() {
+        ComplianceFinding finding = list.getSelectedValue();
+        if(finding == null || finding.getFile() == null || !finding.getFile().isValid())
+            return;
+
+        new OpenFileDescriptor(project, finding.getFile(), finding.getOffset()).navigate(true);
+    }
+
+    private void runInEdt(Runnable runnable) {
+        ApplicationManager.getApplication().invokeLater(runnable, project.getDisposed());
+    }
+}
@@ -0,0 +1,204 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.concurrency.SensitiveProgressWrapper;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.aion4j.avm.idea.inspection.JCLWhitelistInspection;
+import org.aion4j.avm.idea.service.AvmService;
+import org.jetbrains.jps.model.java.JavaSourceRootType;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link JCLWhitelistInspection} checks on all contract source files of the AVM modules. Files are processed in
+ * parallel by a bounded worker pool. Each file is checked in a read action which gives way to write actions, so the
+ * scan doesn't block the UI. Findings are reported to the listener as soon as a file is done.
+ */
+public class ComplianceScanner {
+    private final static Logger log = Logger.getInstance(ComplianceScanner.class);
+
+    private final Project project;
+    private final Listener listener;
+    private final JCLWhitelistInspection inspection = new JCLWhitelistInspection();
+
+    public ComplianceScanner(Project project, Listener listener) {
+        this.project = project;
+        this.listener = listener;
+    }
+
+    /**
+     * Collect java files under production source roots of AVM modules. Should be called inside a read action.
+     */
+    public static List<VirtualFile> collectContractFiles(Project project, AvmService service) {
+        List<VirtualFile> files = new ArrayList<>();
+
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if(!service.isAvmModule(module))
+                continue;
+
+            for (VirtualFile sourceRoot : ModuleRootManager.getInstance(module).getSourceRoots(JavaSourceRootType.SOURCE)) {
+                VfsUtilCore.iterateChildrenRecursively(sourceRoot, null, file -> {
+                    if(!file.isDirectory() && "java".equals(file.getExtension()))
+                        files.add(file);
+                    return true;
+                });
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Search scope of production sources of AVM modules.
+     * @return scope or null if there is no AVM module
+     */
+    public static GlobalSearchScope getContractScope(Project project, AvmService service) {
+        GlobalSearchScope scope = null;
+
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if(!service.isAvmModule(module))
+                continue;
+
+            GlobalSearchScope moduleScope = module.getModuleScope(false);
+            scope = scope == null ? moduleScope : scope.uniteWith(moduleScope);
+        }
+
+        return scope;
+    }
+
+    public void scan(List<VirtualFile> files, ProgressIndicator indicator) {
+        int total = files.size();
+        int workers = Math.max(1, Math.min(total, Runtime.getRuntime().availableProcessors() - 1));
+
+        Queue<VirtualFile> queue = new ConcurrentLinkedQueue<>(files);
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger findings = new AtomicInteger();
+        long start = System.currentTimeMillis();
+
+        indicator.setIndeterminate(false);
+
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("AVM Compliance Scan", workers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> {
+                VirtualFile file;
+                while (!indicator.isCanceled() && (file = queue.poll()) != null) {
+                    List<ComplianceFinding> fileFindings = scanFile(file, indicator);
+                    if(fileFindings == null) //cancelled
+                        return;
+
+                    int count = scanned.incrementAndGet();
+                    findings.addAndGet(fileFindings.size());
+
+                    if(!fileFindings.isEmpty())
+                        listener.findingsAdded(fileFindings);
+
+                    double filesPerSecond = filesPerSecond(count, start);
+                    indicator.setFraction((double) count / total);
+                    indicator.setText2(String.format("%d/%d files, %.1f files/sec", count, total, filesPerSecond));
+                    listener.progress(count, total, filesPerSecond);
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                while (true) {
+                    try {
+                        future.get(100, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if(indicator.isCanceled())
+                            future.cancel(false);
+                    }
+                }
+            } catch (CancellationException | InterruptedException e) {
+                //cancelled
+            } catch (ExecutionException e) {
+                log.warn("Error in AVM compliance scan", e.getCause());
+            }
+        }
+        executor.shutdown();
+
+        long elapsed = System.currentTimeMillis() - start;
+        if(log.isDebugEnabled())
+            log.debug(String.format("Compliance scan of %d files took %d ms", scanned.get(), elapsed));
+
+        listener.finished(scanned.get(), total, findings.get(), elapsed, indicator.isCanceled());
+    }
+
+    /**
+     * @return findings or null if the scan was cancelled
+     */
+    private List<ComplianceFinding> scanFile(VirtualFile file, ProgressIndicator indicator) {
+        Ref<List<ComplianceFinding>> result = Ref.create();
+
+        //Retry if a write action interrupts the read action
+        while (!ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> result.set(inspect(file)),
+                new SensitiveProgressWrapper(indicator))) {
+            if(indicator.isCanceled())
+                return null;
+
+            ProgressIndicatorUtils.yieldToPendingWriteActions();
+        }
+
+        return result.get();
+    }
+
+    private List<ComplianceFinding> inspect(VirtualFile file) {
+        if(project.isDisposed() || !file.isValid())
+            return Collections.emptyList();
+
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if(!(psiFile instanceof PsiJavaFile))
+            return Collections.emptyList();
+
+        List<ComplianceFinding> fileFindings = new ArrayList<>();
+        try {
+            for (ProblemDescriptor descriptor : inspection.inspectFile(psiFile, InspectionManager.getInstance(project), false)) {
+                PsiElement element = descriptor.getPsiElement();
+                int offset = element != null ? element.getTextRange().getStartOffset() : 0;
+
+                fileFindings.add(new ComplianceFinding(file, offset, descriptor.getLineNumber(), descriptor.getDescriptionTemplate()));
+            }
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Error checking " + file.getPath(), e);
+        }
+
+        return fileFindings;
+    }
+
+    private static double filesPerSecond(int count, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        return count * 1000.0 / elapsed;
+    }
+
+    public interface Listener {
+        void findingsAdded(List<ComplianceFinding> findings);
+
+        void progress(int scanned, int total, double filesPerSecond);
+
+        void finished(int scanned, int total, int findings, long elapsedMillis, boolean cancelled);
+    }
+}
@@ -0,0 +1,46 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+
+public class ComplianceToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    public final static String TOOL_WINDOW_ID = "AVM Compliance";
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        addResultsPanel(project, toolWindow);
+    }
+
+    /**
+     * Show the tool window and return its results panel. Should be called in EDT.
+     */
+    public static ComplianceResultsPanel showResultsPanel(Project project) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(TOOL_WINDOW_ID);
+
+        ComplianceResultsPanel panel;
+        Content content = toolWindow.getContentManager().getContentCount() > 0 ? toolWindow.getContentManager().getContent(0) : null;
+        if(content != null && content.getComponent() instanceof ComplianceResultsPanel)
+            panel = (ComplianceResultsPanel) content.getComponent();
+        else
+            panel = addResultsPanel(project, toolWindow);
+
+        toolWindow.show(null);
+        return panel;
+    }
+
+    private static ComplianceResultsPanel addResultsPanel(Project project, ToolWindow toolWindow) {
+        ComplianceResultsPanel panel = new ComplianceResultsPanel(project);
+
+        Content content = ContentFactory.SERVICE.getInstance().createContent(panel, "", false);
+        toolWindow.getContentManager().addContent(content);
+
+        return panel;
+    }
+}
@@ -0,0 +1,242 @@
+package org.aion4j.avm.idea.compliance;
+
+import org.aion4j.avm.idea.service.JCLClassHierarchy;
+import org.aion4j.avm.idea.service.JCLWhitelistLookup;
+import org.jetbrains.org.objectweb.asm.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Verify a built contract jar against the JCL whitelist at bytecode level. Every method invocation, object creation,
+ * field access and invokedynamic call site (bootstrap method and method handle arguments, e.g. string concatenation
+ * and lambdas) on a JCL class is checked, including code from dependencies shaded into the jar. No PSI is involved.
+ *
+ * Bytecode refers to a method through the static type of the receiver, while the whitelist lists methods by declaring
+ * class. So if a method is not found on the owner, it's checked on the class declaring it according to the
+ * {@link JCLClassHierarchy} of avm.jar, the same class PSI resolves the call to.
+ */
+public class ContractJarVerifier {
+
+    private final static String[] JCL_PREFIXES = {"java/", "javax/", "org/xml/"};
+
+    private final JCLWhitelistLookup whitelist;
+    private final JCLClassHierarchy hierarchy;
+
+    //owner + name + descriptor -> allowed
+    private final Map<String, Boolean> methodVerdicts = new HashMap<>();
+
+    public ContractJarVerifier(JCLWhitelistLookup whitelist, JCLClassHierarchy hierarchy) {
+        this.whitelist = whitelist;
+        this.hierarchy = hierarchy;
+    }
+
+    public List<Violation> verify(File jar) throws IOException {
+        List<Violation> violations = new ArrayList<>();
+
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if(entry.isDirectory() || !entry.getName().endsWith(".class") || entry.getName().startsWith("META-INF/"))
+                    continue;
+
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    new ClassReader(in).accept(new ClassChecker(violations), ClassReader.SKIP_FRAMES);
+                }
+            }
+        }
+
+        return violations;
+    }
+
+    /**
+     * Verify a single class file.
+     */
+    public List<Violation> verifyClass(byte[] classBytes) {
+        List<Violation> violations = new ArrayList<>();
+        new ClassReader(classBytes).accept(new ClassChecker(violations), ClassReader.SKIP_FRAMES);
+
+        return violations;
+    }
+
+    private static boolean isJCLClass(String internalName) {
+        for (String prefix : JCL_PREFIXES) {
+            if(internalName.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+
+    //Whitelist uses canonical names. java/util/Map$Entry -> java.util.Map.Entry
+    private static String toCanonicalName(String internalName) {
+        return internalName.replace('/', '.').replace('$', '.');
+    }
+
+    private boolean isClassAllowed(String owner) {
+        return whitelist.isClassPresent(toCanonicalName(owner));
+    }
+
+    private boolean isMethodAllowed(String owner, String name, String descriptor) {
+        String key = owner + '#' + name + descriptor;
+        Boolean verdict = methodVerdicts.get(key);
+
+        if(verdict == null) {
+            List<String> params = new ArrayList<>();
+            for (Type type : Type.getArgumentTypes(descriptor)) {
+                params.add(type.getClassName().replace('$', '.'));
+            }
+
+            verdict = whitelist.isMethodAllowed(toCanonicalName(owner), name, params);
+
+            //Inherited method. Constructors are never inherited
+            if(!verdict && !"<init>".equals(name)) {
+                String declaringClass = hierarchy.findDeclaringClass(owner, name, params.size());
+                if(declaringClass != null && !declaringClass.equals(owner))
+                    verdict = whitelist.isMethodAllowed(toCanonicalName(declaringClass), name, params);
+            }
+
+            methodVerdicts.put(key, verdict);
+        }
+
+        return verdict;
+    }
+
+    private class ClassChecker extends ClassVisitor {
+        private final List<Violation> violations;
+        private final Set<String> reported = new HashSet<>();
+
+        private String className;
+        private String sourceFile;
+
+        ClassChecker(List<Violation> violations) {
+            super(Opcodes.ASM6);
+            this.violations = violations;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.className = name.replace('/', '.');
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            this.sourceFile = source;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String methodName, String descriptor, String signature, String[] exceptions) {
+            return new MethodVisitor(Opcodes.ASM6) {
+                int line = -1;
+
+                @Override
+                public void visitLineNumber(int line, Label start) {
+                    this.line = line;
+                }
+
+                @Override
+                public void visitTypeInsn(int opcode, String type) {
+                    if(opcode == Opcodes.NEW && isJCLClass(type) && !isClassAllowed(type))
+                        report(line, String.format("%s is not allowed in a Avm smart contract project", toCanonicalName(type)));
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                    if(isJCLClass(owner) && !isClassAllowed(owner))
+                        report(line, String.format("%s.%s is not allowed in a Avm smart contract project", toCanonicalName(owner), name));
+                }
+
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    checkMethod(line, owner, name, descriptor);
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethod, Object... bootstrapArguments) {
+                    //StringConcatFactory, LambdaMetafactory etc.
+                    if(isJCLClass(bootstrapMethod.getOwner()) && !isClassAllowed(bootstrapMethod.getOwner()))
+                        report(line, String.format("%s is not allowed in a Avm smart contract project", toCanonicalName(bootstrapMethod.getOwner())));
+
+                    //Implementation of a lambda or method reference, e.g. String::length
+                    for (Object argument : bootstrapArguments) {
+                        if(!(argument instanceof Handle))
+                            continue;
+
+                        Handle handle = (Handle) argument;
+                        if(handle.getTag() <= Opcodes.H_PUTSTATIC) {
+                            if(isJCLClass(handle.getOwner()) && !isClassAllowed(handle.getOwner()))
+                                report(line, String.format("%s.%s is not allowed in a Avm smart contract project", toCanonicalName(handle.getOwner()), handle.getName()));
+                        } else {
+                            checkMethod(line, handle.getOwner(), handle.getName(), handle.getDesc());
+                        }
+                    }
+                }
+            };
+        }
+
+        private void checkMethod(int line, String owner, String name, String descriptor) {
+            if(!isJCLClass(owner)) //Also skips array types like [Ljava/lang/Object;
+                return;
+
+            if(!isClassAllowed(owner)) {
+                report(line, String.format("%s is not allowed in a Avm smart contract project", toCanonicalName(owner)));
+            } else if(!isMethodAllowed(owner, name, descriptor)) {
+                report(line, String.format("%s.%s is not allowed in a Avm smart contract project", toCanonicalName(owner), name));
+            }
+        }
+
+        private void report(int line, String message) {
+            if(reported.add(line + message))
+                violations.add(new Violation(className, sourceFile, line, message));
+        }
+    }
+
+    public static class Violation {
+        private final String className;
+        private final String sourceFile;
+        private final int line; //-1 if no debug info
+        private final String message;
+
+        Violation(String className, String sourceFile, int line, String message) {
+            this.className = className;
+            this.sourceFile = sourceFile;
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * @return binary name of the class where the violation is
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        public String getSourceFile() {
+            return sourceFile;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getLocation() {
+            if(sourceFile == null)
+                return className;
+
+            return className + " (" + sourceFile + (line > 0 ? ":" + line : "") + ")";
+        }
+
+        @Override
+        public String toString() {
+            return getLocation() + " " + message;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.openapi.compiler.CompileContext;
+import com.intellij.openapi.compiler.CompileTask;
+import com.intellij.openapi.diagnostic.Logger;
+
+/**
+ * Runs incremental whitelist check on generated contract classes after each make.
+ */
+public class PostCompileWhitelistCheckTask implements CompileTask {
+    private final static Logger log = Logger.getInstance(PostCompileWhitelistCheckTask.class);
+
+    @Override
+    public boolean execute(CompileContext context) {
+        try {
+            PostCompileWhitelistChecker checker = PostCompileWhitelistChecker.getInstance(context.getProject());
+            if(checker != null)
+                checker.check(context);
+        } catch (Exception e) {
+            log.warn("Error in post compile whitelist check", e);
+        }
+
+        return true; //Never fail the build
+    }
+}
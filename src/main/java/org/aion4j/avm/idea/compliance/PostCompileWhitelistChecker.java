@@ -0,0 +1,200 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.compiler.*;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.CompilerModuleExtension;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLWhitelistLookup;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental whitelist check of compiled contract classes. Class files generated by a make are collected through
+ * {@link CompilationStatusListener#fileGenerated} and verified by {@link PostCompileWhitelistCheckTask} after the build.
+ * Verdicts are cached by class file hash, so a class with unchanged bytecode is never scanned again for the same whitelist.
+ * Problems of all classes are reported as compiler warnings, so they stay in the Problems view across builds.
+ */
+public class PostCompileWhitelistChecker implements CompilationStatusListener {
+    private final static Logger log = Logger.getInstance(PostCompileWhitelistChecker.class);
+
+    private final Project project;
+
+    //Class files generated since last check
+    private final Set<String> generatedClassFiles = ConcurrentHashMap.newKeySet();
+
+    //class file path -> hash of the last checked content
+    private final Map<String, String> classHashes = new HashMap<>();
+
+    //class file hash -> violations
+    private final Map<String, List<ContractJarVerifier.Violation>> verdicts = new HashMap<>();
+    private long whitelistStamp = -1;
+
+    public PostCompileWhitelistChecker(Project project) {
+        this.project = project;
+    }
+
+    public static PostCompileWhitelistChecker getInstance(Project project) {
+        return ServiceManager.getService(project, PostCompileWhitelistChecker.class);
+    }
+
+    @Override
+    public void fileGenerated(String outputRoot, String relativePath) {
+        if(relativePath.endsWith(".class"))
+            generatedClassFiles.add(new File(outputRoot, relativePath).getPath());
+    }
+
+    @Override
+    public void compilationFinished(boolean aborted, int errors, int warnings, CompileContext compileContext) {
+        if(aborted)
+            generatedClassFiles.clear();
+    }
+
+    /**
+     * Check class files generated by the current build and report problems of all checked classes to the compile context.
+     */
+    public synchronized void check(@NotNull CompileContext context) {
+        AvmService service = ServiceManager.getService(project, AvmService.class);
+        if(service == null || !service.isAvmProject()) {
+            generatedClassFiles.clear();
+            return;
+        }
+
+        JCLWhitelistLookup whitelist = service.getJCLWhitelist(project);
+        if(whitelist.size() == 0) //Not loaded yet. Check these classes in next build
+            return;
+
+        long stamp = service.getWhitelistModificationTracker().getModificationCount();
+        if(stamp != whitelistStamp) { //Re-check everything against new whitelist
+            verdicts.clear();
+            for (String classFile : classHashes.keySet()) {
+                generatedClassFiles.add(classFile);
+            }
+            whitelistStamp = stamp;
+        }
+
+        List<String> outputRoots = ReadAction.compute(() -> getAvmOutputRoots(service));
+
+        long start = System.currentTimeMillis();
+        int scanned = 0;
+
+        ContractJarVerifier verifier = new ContractJarVerifier(whitelist, service.getJCLClassHierarchy(project));
+        List<String> changedFiles = new ArrayList<>(generatedClassFiles);
+        generatedClassFiles.removeAll(changedFiles);
+
+        for (String classFile : changedFiles) {
+            if(!isUnder(classFile, outputRoots))
+                continue;
+
+            File file = new File(classFile);
+            if(!file.exists()) {
+                classHashes.remove(classFile);
+                continue;
+            }
+
+            try {
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                String hash = hash(bytes);
+
+                if(!verdicts.containsKey(hash)) {
+                    verdicts.put(hash, verifier.verifyClass(bytes));
+                    scanned++;
+                }
+
+                classHashes.put(classFile, hash);
+            } catch (Exception e) {
+                log.warn("Error checking class file " + classFile, e);
+            }
+        }
+
+        if(log.isDebugEnabled())
+            log.debug(String.format("Post compile whitelist check: %d changed, %d scanned in %d ms",
+                    changedFiles.size(), scanned, System.currentTimeMillis() - start));
+
+        report(context);
+    }
+
+    private void report(CompileContext context) {
+        List<ContractJarVerifier.Violation> violations = new ArrayList<>();
+        Set<String> liveHashes = new HashSet<>();
+
+        for (Iterator<Map.Entry<String, String>> it = classHashes.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, String> entry = it.next();
+            if(!new File(entry.getKey()).exists()) { //class removed
+                it.remove();
+                continue;
+            }
+
+            liveHashes.add(entry.getValue());
+            List<ContractJarVerifier.Violation> classViolations = verdicts.get(entry.getValue());
+            if(classViolations != null)
+                violations.addAll(classViolations);
+        }
+
+        verdicts.keySet().retainAll(liveHashes);
+
+        if(violations.isEmpty())
+            return;
+
+        ReadAction.run(() -> {
+            for (ContractJarVerifier.Violation violation : violations) {
+                VirtualFile sourceFile = ViolationSourceMapper.findSourceFile(project, violation);
+
+                if(sourceFile != null) {
+                    context.addMessage(CompilerMessageCategory.WARNING, "[AVM] " + violation.getMessage(),
+                            sourceFile.getUrl(), violation.getLine(), 1);
+                } else {
+                    context.addMessage(CompilerMessageCategory.WARNING, "[AVM] " + violation.getLocation() + " " + violation.getMessage(),
+                            null, -1, -1);
+                }
+            }
+        });
+    }
+
+    private List<String> getAvmOutputRoots(AvmService service) {
+        List<String> roots = new ArrayList<>();
+
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if(!service.isAvmModule(module))
+                continue;
+
+            CompilerModuleExtension extension = CompilerModuleExtension.getInstance(module);
+            if(extension == null || extension.getCompilerOutputPath() == null)
+                continue;
+
+            roots.add(new File(extension.getCompilerOutputPath().getPath()).getPath());
+        }
+
+        return roots;
+    }
+
+    private static boolean isUnder(String classFile, List<String> outputRoots) {
+        for (String root : outputRoots) {
+            if(classFile.startsWith(root + File.separator))
+                return true;
+        }
+        return false;
+    }
+
+    private static String hash(byte[] bytes) throws NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("SHA-1");
+        byte[] digest = md.digest(bytes);
+
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package org.aion4j.avm.idea.compliance;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Map bytecode level violations back to source files, when the class is part of the project and has line number info.
+ */
+public class ViolationSourceMapper {
+
+    /**
+     * @return source file of the violation's class or null if the class is not a project class. Should be called inside a read action.
+     */
+    public static VirtualFile findSourceFile(Project project, ContractJarVerifier.Violation violation) {
+        String topLevelClass = violation.getClassName();
+        if(topLevelClass.contains("$"))
+            topLevelClass = topLevelClass.substring(0, topLevelClass.indexOf('$'));
+
+        PsiClass psiClass = JavaPsiFacade.getInstance(project).findClass(topLevelClass, GlobalSearchScope.projectScope(project));
+        return psiClass != null && psiClass.getContainingFile() != null ? psiClass.getContainingFile().getVirtualFile() : null;
+    }
+
+    /**
+     * Should be called inside a read action.
+     */
+    public static List<ComplianceFinding> toFindings(Project project, List<ContractJarVerifier.Violation> violations) {
+        List<ComplianceFinding> findings = new ArrayList<>();
+
+        for (ContractJarVerifier.Violation violation : violations) {
+            VirtualFile file = findSourceFile(project, violation);
+            Document document = file != null ? FileDocumentManager.getInstance().getDocument(file) : null;
+
+            if(document != null && violation.getLine() > 0 && violation.getLine() <= document.getLineCount()) {
+                int line = violation.getLine() - 1;
+                findings.add(new ComplianceFinding(file, document.getLineStartOffset(line), line, violation.getMessage()));
+            } else {
+                findings.add(new ComplianceFinding(violation.getLocation(), violation.getMessage()));
+            }
+        }
+
+        return findings;
+    }
+}
@@ -0,0 +1,35 @@
+package org.aion4j.avm.idea.component;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import org.aion4j.avm.idea.service.AvmService;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Pre-warm JCL whitelist in background once the project is opened and indexed, so that the first inspection run
+ * doesn't need to wait for the whitelist.
+ */
+public class AvmStartupActivity implements StartupActivity {
+
+    private static final Logger log = Logger.getInstance(AvmStartupActivity.class);
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        AvmService service = ServiceManager.getService(project, AvmService.class);
+        if(service == null)
+            return;
+
+        if(!service.isInitialize())
+            service.init(project);
+
+        if(!service.isAvmProject())
+            return;
+
+        if(log.isDebugEnabled())
+            log.debug("Scheduling JCL whitelist load for project " + project.getName());
+
+        service.scheduleJCLWhitelistLoad(project);
+    }
+}
@@ -5,6 +5,7 @@ import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationAction;
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.compiler.CompilerTopics;
 import com.intellij.openapi.components.ProjectComponent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
@@ -17,6 +18,7 @@ import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.messages.MessageBusConnection;
 import org.aion4j.avm.idea.action.InitializationAction;
+import org.aion4j.avm.idea.compliance.PostCompileWhitelistChecker;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 import org.aion4j.avm.idea.service.AvmService;
 import org.jetbrains.annotations.NotNull;
@@ -77,6 +79,8 @@ public class BootstrapImpl implements Bootstrap, ProjectComponent {
             service.init(project);
 
             if(service.isAvmProject()) { //hey I am avm project. Let's check if everything initialized properly or not
+              service.scheduleJCLWhitelistLoad(project);
+
               String aion4jVersion = mvnProjectManager.getRootProjects().get(0).getProperties().getProperty("aion4j.plugin.version");
 
               if(!"x.x.x".equals(aion4jVersion)) {
@@ -97,10 +101,16 @@ public class BootstrapImpl implements Bootstrap, ProjectComponent {
                 }
               }
             }
+        } else if(service.isAvmProject() && !service.isWhitelistReady()) {
+            //e.g. project sdk is set now. No-op if the load is already scheduled
+            service.scheduleJCLWhitelistLoad(project);
         }
       }
     });
 
+    //Collect generated class files for incremental whitelist check after make
+    connection.subscribe(CompilerTopics.COMPILATION_STATUS, PostCompileWhitelistChecker.getInstance(project));
+
     connection.subscribe(ProjectTopics.MODULES, new ModuleListener() {
       @Override
       public void moduleAdded(@NotNull Project project, @NotNull com.intellij.openapi.module.Module module) {
@@ -114,7 +124,7 @@ public class BootstrapImpl implements Bootstrap, ProjectComponent {
 //        System.out.println("maven module>> " + module.getName());
         AvmService service = ServiceManager.getService(project, AvmService.class);
         if(service != null) {
-          service.updateSourceAndTestFolders(project);
+          service.invalidateModuleClassification(project);
         }
       }
     });
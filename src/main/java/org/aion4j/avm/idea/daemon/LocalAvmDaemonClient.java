@@ -0,0 +1,204 @@
+package org.aion4j.avm.idea.daemon;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Connection to one AvmLocalDaemon process. Requests are JSON-RPC 2.0 objects, one per line, on a loopback socket.
+ * Requests are serialized, as the daemon runs one transaction at a time.
+ */
+class LocalAvmDaemonClient {
+    private final static Logger log = Logger.getInstance(LocalAvmDaemonClient.class);
+
+    private final static String READY_PREFIX = "AVM_DAEMON_READY ";
+    private final static int EXECUTION_ERROR = -32000; //Same as AvmLocalDaemon
+
+    private final Process process;
+    private final String token;
+    private final String configKey;
+
+    private Socket socket;
+    private BufferedReader reader;
+    private Writer writer;
+    private long nextId = 1;
+
+    private LocalAvmDaemonClient(Process process, String token, String configKey) {
+        this.process = process;
+        this.token = token;
+        this.configKey = configKey;
+    }
+
+    /**
+     * Start the daemon process and connect to it.
+     * @param configKey identifies the node configuration. A daemon with another key has to be restarted
+     */
+    static LocalAvmDaemonClient start(GeneralCommandLine commandLine, String token, String configKey, long startTimeoutMs) {
+        commandLine.withEnvironment("AVM_DAEMON_TOKEN", token);
+
+        Process process;
+        try {
+            process = commandLine.createProcess();
+        } catch (ExecutionException e) {
+            throw new LocalAvmDaemonException("Unable to start local AVM daemon", e);
+        }
+
+        LocalAvmDaemonClient client = new LocalAvmDaemonClient(process, token, configKey);
+        try {
+            client.connect(client.waitForPort(startTimeoutMs));
+            return client;
+        } catch (LocalAvmDaemonException e) {
+            client.stop();
+            throw e;
+        }
+    }
+
+    private int waitForPort(long timeoutMs) {
+        CompletableFuture<Integer> port = new CompletableFuture<>();
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    if (!port.isDone() && line.startsWith(READY_PREFIX)) {
+                        port.complete(Integer.parseInt(line.substring(READY_PREFIX.length()).trim()));
+                    } else if (log.isDebugEnabled()) {
+                        log.debug("[avm daemon] " + line);
+                    }
+                }
+            } catch (Exception e) {
+                //process stopped
+            }
+            port.completeExceptionally(new EOFException("Daemon exited"));
+        });
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            try (BufferedReader err = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = err.readLine()) != null) {
+                    log.info("[avm daemon] " + line);
+                }
+            } catch (IOException e) {
+                //process stopped
+            }
+        });
+
+        try {
+            return port.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new LocalAvmDaemonException("Local AVM daemon didn't start in " + timeoutMs + " ms");
+        } catch (Exception e) {
+            throw new LocalAvmDaemonException("Local AVM daemon exited during startup. Exit code: "
+                    + (process.isAlive() ? "-" : String.valueOf(process.exitValue())) + ". See idea.log for details");
+        }
+    }
+
+    private void connect(int port) {
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new LocalAvmDaemonException("Unable to connect to local AVM daemon", e);
+        }
+    }
+
+    /**
+     * Send a request and wait for the response.
+     * @return the result object of the response
+     * @throws LocalAvmDaemonException for JSON-RPC errors, timeouts and io errors. The connection is not usable after a timeout.
+     */
+    synchronized JsonObject request(String method, JsonObject params, int timeoutMs) {
+        JsonObject request = new JsonObject()
+                .add("jsonrpc", "2.0")
+                .add("id", nextId++)
+                .add("token", token)
+                .add("method", method)
+                .add("params", params);
+
+        String line;
+        try {
+            socket.setSoTimeout(timeoutMs);
+            writer.write(request.toString());
+            writer.write('\n');
+            writer.flush();
+
+            line = reader.readLine();
+        } catch (SocketTimeoutException e) {
+            stop(); //response would be read by the next request
+            throw new LocalAvmDaemonException("Local AVM daemon didn't respond in " + timeoutMs + " ms");
+        } catch (IOException e) {
+            stop();
+            throw new LocalAvmDaemonException("Error communicating with local AVM daemon", e);
+        }
+
+        if (line == null) {
+            stop();
+            throw new LocalAvmDaemonException("Local AVM daemon closed the connection");
+        }
+
+        JsonObject response = Json.parse(line).asObject();
+        JsonValue error = response.get("error");
+        if (error != null && error.isObject()) {
+            int code = error.asObject().getInt("code", 0);
+            String message = error.asObject().getString("message", "");
+
+            JsonValue output = response.get("output");
+            if (output != null && output.isString() && !output.asString().isEmpty())
+                message = message + "\n" + output.asString();
+
+            throw new LocalAvmDaemonException(message, code == EXECUTION_ERROR);
+        }
+
+        return response.get("result").asObject();
+    }
+
+    String getConfigKey() {
+        return configKey;
+    }
+
+    boolean isAlive() {
+        return process.isAlive() && socket != null && !socket.isClosed();
+    }
+
+    /**
+     * Stop the daemon. Closing stdin is enough, the daemon exits on EOF. Kill it if it doesn't.
+     */
+    void stop() {
+        try {
+            if (socket != null)
+                socket.close();
+        } catch (IOException e) {
+            //ignore
+        }
+
+        try {
+            process.getOutputStream().close();
+        } catch (IOException e) {
+            //ignore
+        }
+
+        try {
+            if (!process.waitFor(2, TimeUnit.SECONDS))
+                process.destroyForcibly();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
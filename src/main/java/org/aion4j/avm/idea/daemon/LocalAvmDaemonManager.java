@@ -0,0 +1,574 @@
+package org.aion4j.avm.idea.daemon;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.ide.plugins.PluginManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.JDOMUtil;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import org.aion4j.avm.idea.common.Tuple;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+import org.aion4j.avm.idea.misc.IOUtil;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
+import org.aion4j.avm.idea.service.AvmConfigStateService;
+import org.apache.commons.lang3.SystemUtils;
+import org.jdom.Element;
+import org.jdom.Namespace;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.idea.maven.execution.MavenRunner;
+import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
+import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
+import org.jetbrains.idea.maven.model.MavenArtifact;
+import org.jetbrains.idea.maven.model.MavenId;
+import org.jetbrains.idea.maven.model.MavenPlugin;
+import org.jetbrains.idea.maven.project.MavenProject;
+import org.jetbrains.idea.maven.project.MavenProjectsManager;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one warm AvmLocalDaemon per AVM storage and runs embedded AVM goals (deploy, call, get-balance, accounts) on it,
+ * instead of starting a new Maven JVM for every action. Build goals (clean, package) still run through Maven.
+ * Modules share the storage, and so the daemon, if a storage path is set in the configuration.
+ * If the daemon can't be started or used, the goals are run through Maven as before.
+ */
+public class LocalAvmDaemonManager implements Disposable {
+    private final static Logger log = Logger.getInstance(LocalAvmDaemonManager.class);
+
+    private final static String DAEMON_CLASS = "AvmLocalDaemon";
+    private final static String AION4J_GOAL_PREFIX = "aion4j:";
+    private final static String AION4J_GROUP_ID = "org.aion4j";
+    private final static String AION4J_MAVEN_PLUGIN = "aion4j-maven-plugin";
+    private final static String AVM_HELPER = "avm-helper";
+
+    private final static int START_TIMEOUT = 60_000;
+    private final static int REQUEST_TIMEOUT = 5 * 60_000;
+    private final static int MAX_OUTPUT_LENGTH = 2000;
+
+    private final Project project;
+
+    //storage path -> daemon. Two daemons on the same storage would overwrite each other's state.
+    //Daemons of different storages are started and used concurrently
+    private final Map<String, LocalAvmDaemonClient> daemons = new ConcurrentHashMap<>();
+    private final Map<String, Object> storageLocks = new ConcurrentHashMap<>();
+    private boolean daemonClassCopied;
+
+    public LocalAvmDaemonManager(Project project) {
+        this.project = project;
+    }
+
+    public static LocalAvmDaemonManager getInstance(Project project) {
+        return ServiceManager.getService(project, LocalAvmDaemonManager.class);
+    }
+
+    /**
+     * Drop-in replacement of {@link MavenRunner#run} for embedded AVM actions.
+     */
+    public void run(MavenRunnerParameters parameters, MavenRunnerSettings settings, @Nullable Runnable onComplete) {
+        run(parameters, settings, null, onComplete);
+    }
+
+    /**
+     * @param onBuild called after the build goals succeeded, before the aion4j goals run. If build and aion4j goals
+     *                run in one Maven run, only after all of them succeeded
+     */
+    public void run(MavenRunnerParameters parameters, MavenRunnerSettings settings, @Nullable Runnable onBuild,
+                    @Nullable Runnable onComplete) {
+        String workingDir = parameters.getWorkingDirPath();
+        Map<String, String> properties = settings.getMavenProperties();
+
+        List<String> buildGoals = new ArrayList<>();
+        List<String> avmGoals = new ArrayList<>();
+        boolean routable = !isDisabled();
+        for (String goal : parameters.getGoals()) {
+            if(goal.startsWith(AION4J_GOAL_PREFIX))
+                avmGoals.add(goal);
+            else if(avmGoals.isEmpty())
+                buildGoals.add(goal);
+            else
+                routable = false; //build goal after an aion4j goal
+        }
+
+        MavenProject mavenProject = PsiCustomUtil.getMavenProject(project, workingDir);
+        String moduleDir = mavenProject != null ? mavenProject.getDirectory() : workingDir;
+        routable = routable && mavenProject != null && !avmGoals.isEmpty()
+                && !Boolean.parseBoolean(properties.get("preserveDebuggability")); //debug deployments stay on Maven
+
+        for (String goal : avmGoals) {
+            routable = routable && isSupported(goal, properties);
+        }
+
+        if(!routable) {
+            //Maven changes the storage. A running daemon would overwrite it with stale state
+            if(!avmGoals.isEmpty())
+                stop(moduleDir);
+
+            //One Maven run for build and aion4j goals, so there is no callback in between
+            runMaven(parameters, settings, parameters.getGoals(), () -> {
+                if(onBuild != null)
+                    onBuild.run();
+                if(onComplete != null)
+                    onComplete.run();
+            });
+            return;
+        }
+
+        //clean removes the default storage folder
+        if(buildGoals.contains("clean"))
+            stop(moduleDir);
+
+        Runnable daemonStep = () -> ApplicationManager.getApplication().invokeLater(() ->
+                runOnDaemon(parameters, settings, mavenProject, avmGoals, onComplete));
+
+        if(buildGoals.isEmpty()) {
+            daemonStep.run();
+        } else {
+            runMaven(parameters, settings, buildGoals, () -> {
+                if(onBuild != null)
+                    onBuild.run();
+                daemonStep.run();
+            });
+        }
+    }
+
+    private void runOnDaemon(MavenRunnerParameters parameters, MavenRunnerSettings settings, MavenProject mavenProject,
+                             List<String> avmGoals, @Nullable Runnable onComplete) {
+        new Task.Backgroundable(project, "Running on embedded AVM", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                Map<String, String> properties = settings.getMavenProperties();
+
+                LocalAvmDaemonClient daemon;
+                try {
+                    daemon = getOrStartDaemon(mavenProject, properties);
+                } catch (LocalAvmDaemonException e) {
+                    fallback(parameters, settings, avmGoals, onComplete, e);
+                    return;
+                }
+
+                for (int i = 0; i < avmGoals.size(); i++) {
+                    String goal = avmGoals.get(i);
+                    Tuple<String, JsonObject> request = toRequest(goal, properties, mavenProject);
+
+                    indicator.setText(goal);
+                    long start = System.currentTimeMillis();
+                    try {
+                        JsonObject result = daemon.request(request._1(), request._2(), REQUEST_TIMEOUT);
+                        long elapsed = System.currentTimeMillis() - start;
+
+                        if(log.isDebugEnabled())
+                            log.debug(goal + " on local AVM daemon took " + elapsed + " ms");
+
+                        IdeaUtil.showNotification(project, "Embedded AVM",
+                                String.format("%s (%d ms)\n%s", goal, elapsed, getOutput(result)), NotificationType.INFORMATION, null);
+                    } catch (LocalAvmDaemonException e) {
+                        if(e.isExecutionError()) {
+                            IdeaUtil.showNotification(project, "Embedded AVM", goal + " failed\n" + truncate(e.getMessage()),
+                                    NotificationType.ERROR, null);
+                            return;
+                        }
+
+                        stop(mavenProject);
+                        fallback(parameters, settings, avmGoals.subList(i, avmGoals.size()), onComplete, e);
+                        return;
+                    }
+                }
+
+                if(onComplete != null)
+                    ApplicationManager.getApplication().invokeLater(onComplete);
+            }
+        }.queue();
+    }
+
+    /**
+     * Send one request to the daemon of the module's storage, starting it if needed. For batches like scenarios, which have no
+     * Maven equivalent and so no fallback.
+     * @return result object of the response with value, output and elapsedMs
+     */
+    public JsonObject request(MavenProject mavenProject, String method, JsonObject params) {
+        AvmConfigStateService.State state = ServiceManager.getService(project, AvmConfigStateService.class).getState();
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("enableVerboseConcurrentExecutor", String.valueOf(state.verboseConcurrentExecutor));
+        properties.put("enableVerboseContractErrors", String.valueOf(state.verboseContractError));
+
+        JsonObject moduleParams = new JsonObject().merge(params);
+        addModuleParams(moduleParams, mavenProject, state);
+
+        return getOrStartDaemon(mavenProject, properties).request(method, moduleParams, REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Run one aion4j goal on the daemon of the module's storage, starting it if needed. Unlike {@link #run}, there is no
+     * fallback to Maven and no notification.
+     * @return result object of the response with value, output and elapsedMs
+     * @throws LocalAvmDaemonException if the daemon is disabled, the goal is not supported or the request fails
+     */
+    public JsonObject runGoal(MavenProject mavenProject, String goal, Map<String, String> properties) {
+        if(isDisabled() || !isSupported(goal, properties) || Boolean.parseBoolean(properties.get("preserveDebuggability")))
+            throw new LocalAvmDaemonException(goal + " can't run on the embedded AVM");
+
+        Tuple<String, JsonObject> request = toRequest(goal, properties, mavenProject);
+
+        return getOrStartDaemon(mavenProject, properties).request(request._1(), request._2(), REQUEST_TIMEOUT);
+    }
+
+    private void fallback(MavenRunnerParameters parameters, MavenRunnerSettings settings, List<String> goals,
+                          @Nullable Runnable onComplete, LocalAvmDaemonException e) {
+        log.warn("Local AVM daemon is not available. Running " + goals + " through Maven", e);
+
+        ApplicationManager.getApplication().invokeLater(() -> runMaven(parameters, settings, goals, onComplete));
+    }
+
+    private void runMaven(MavenRunnerParameters parameters, MavenRunnerSettings settings, List<String> goals, @Nullable Runnable onComplete) {
+        MavenRunnerParameters goalParameters = parameters.clone();
+        goalParameters.setGoals(new ArrayList<>(goals));
+
+        MavenRunner mavenRunner = ServiceManager.getService(project, MavenRunner.class);
+        mavenRunner.run(goalParameters, settings, onComplete);
+    }
+
+    private static boolean isSupported(String goal, Map<String, String> properties) {
+        switch (goal) {
+            case "aion4j:deploy":
+            case "aion4j:call":
+            case "aion4j:get-balance":
+            case "aion4j:create-account":
+                return true;
+            case "aion4j:account":
+                return Boolean.parseBoolean(properties.get("create")) || Boolean.parseBoolean(properties.get("topup"));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Map an aion4j goal with its Maven properties to a daemon request.
+     * @return method and params, or null if the goal is not supported by the daemon
+     */
+    @Nullable
+    private Tuple<String, JsonObject> toRequest(String goal, Map<String, String> properties, MavenProject mavenProject) {
+        if(!isSupported(goal, properties))
+            return null;
+
+        JsonObject params = new JsonObject();
+        copy(properties, params, "address");
+        addModuleParams(params, mavenProject, ServiceManager.getService(project, AvmConfigStateService.class).getState());
+
+        switch (goal) {
+            case "aion4j:deploy":
+                params.add("jar", PsiCustomUtil.getContractJar(mavenProject).getAbsolutePath());
+                copy(properties, params, "args");
+                copy(properties, params, "value");
+                return new Tuple<>("deploy", params);
+            case "aion4j:call":
+                copy(properties, params, "contract");
+                copy(properties, params, "method");
+                copy(properties, params, "args");
+                copy(properties, params, "value");
+                return new Tuple<>("call", params);
+            case "aion4j:get-balance":
+                return new Tuple<>("getBalance", params);
+            case "aion4j:create-account":
+                copy(properties, params, "balance");
+                return new Tuple<>("createAccount", params);
+            case "aion4j:account":
+                copy(properties, params, "balance");
+                return new Tuple<>("createAccount", params);
+            default:
+                return null;
+        }
+    }
+
+    private static void copy(Map<String, String> properties, JsonObject params, String name) {
+        String value = properties.get(name);
+        if(!StringUtil.isEmptyOrSpaces(value))
+            params.add(name, value.trim());
+    }
+
+    //The daemon may be shared with other modules, so the module and its default account go with every request
+    private static void addModuleParams(JsonObject params, MavenProject mavenProject, AvmConfigStateService.State state) {
+        params.set("artifactId", mavenProject.getMavenId().getArtifactId());
+
+        String defaultSender = getDefaultAccount(mavenProject, state);
+        if(params.get("address") == null && defaultSender != null)
+            params.add("address", defaultSender);
+    }
+
+    private LocalAvmDaemonClient getOrStartDaemon(MavenProject mavenProject, Map<String, String> properties) {
+        synchronized (getStorageLock(getStoragePath(mavenProject))) {
+            return startDaemonIfNeeded(mavenProject, properties);
+        }
+    }
+
+    private LocalAvmDaemonClient startDaemonIfNeeded(MavenProject mavenProject, Map<String, String> properties) {
+        AvmConfigStateService.State state = ServiceManager.getService(project, AvmConfigStateService.class).getState();
+
+        Sdk sdk = ProjectRootManager.getInstance(project).getProjectSdk();
+        if(sdk == null || sdk.getHomePath() == null)
+            throw new LocalAvmDaemonException("Project JDK is not set");
+
+        File pluginPath = PluginManager.getPlugin(PluginId.getId(IdeaUtil.PLUGIN_ID)).getPath();
+        String classpath = buildClasspath(mavenProject, pluginPath);
+
+        String storagePath = getStoragePath(mavenProject);
+        String defaultSender = getDefaultAccount(mavenProject, state);
+
+        List<String> cmds = new ArrayList<>();
+        cmds.add(sdk.getHomePath() + File.separator + "bin" + File.separator + "java");
+        cmds.add("-cp");
+        cmds.add(classpath);
+        cmds.add("-Dfile.encoding=UTF8");
+        cmds.add(DAEMON_CLASS);
+        cmds.add(storagePath);
+        cmds.add(String.valueOf(Boolean.parseBoolean(properties.get("enableVerboseConcurrentExecutor"))));
+        cmds.add(String.valueOf(Boolean.parseBoolean(properties.get("enableVerboseContractErrors"))));
+
+        //Any change in jdk, libraries or node configuration needs a new daemon. The default account only seeds the
+        //node, requests carry the account of their module, so modules with different accounts can share the daemon
+        String configKey = String.join("|", cmds);
+        cmds.add(defaultSender != null ? defaultSender : "-");
+
+        String storageKey = FileUtil.toSystemIndependentName(storagePath);
+
+        LocalAvmDaemonClient daemon = daemons.get(storageKey);
+        if(daemon != null && daemon.isAlive() && daemon.getConfigKey().equals(configKey))
+            return daemon;
+
+        if(daemon != null)
+            daemon.stop();
+        daemons.remove(storageKey);
+
+        copyDaemonClass(pluginPath);
+
+        GeneralCommandLine commandLine = new GeneralCommandLine(cmds);
+        commandLine.setCharset(StandardCharsets.UTF_8);
+        commandLine.setWorkDirectory(pluginPath);
+
+        if(log.isDebugEnabled())
+            log.debug("Starting local AVM daemon " + commandLine.getCommandLineString());
+
+        daemon = LocalAvmDaemonClient.start(commandLine, UUID.randomUUID().toString(), configKey, START_TIMEOUT);
+        daemons.put(storageKey, daemon);
+
+        return daemon;
+    }
+
+    private String getStoragePath(MavenProject mavenProject) {
+        AvmConfigStateService.State state = ServiceManager.getService(project, AvmConfigStateService.class).getState();
+
+        return !StringUtil.isEmptyOrSpaces(state.avmStoragePath) ? state.avmStoragePath
+                : mavenProject.getBuildDirectory() + File.separator + "storage";
+    }
+
+    //Only once, as daemons of other storages may be loading the class
+    private synchronized void copyDaemonClass(File pluginPath) {
+        if(daemonClassCopied)
+            return;
+
+        IOUtil.copyResource("/" + DAEMON_CLASS + ".class", pluginPath.getAbsolutePath());
+        daemonClassCopied = true;
+    }
+
+    //Same avm libraries as aion4j maven plugin (project's lib folder), and the plugin's avm-helper from the local maven repository
+    private String buildClasspath(MavenProject mavenProject, File pluginPath) {
+        String cpSeparator = SystemUtils.IS_OS_WINDOWS ? ";" : ":";
+
+        List<String> entries = new ArrayList<>();
+        entries.add(".");
+        entries.add("lib" + File.separatorChar + "minimal-json-0.9.5.jar");
+
+        File libDir = new File(mavenProject.getDirectory(), "lib");
+        if(!new File(libDir, "avm.jar").exists() && project.getBasePath() != null)
+            libDir = new File(project.getBasePath(), "lib");
+
+        File[] libJars = libDir.listFiles((dir, name) -> name.endsWith(".jar"));
+        if(libJars == null || libJars.length == 0) {
+            entries.add(new File(pluginPath, "lib" + File.separatorChar + "avm.jar").getAbsolutePath());
+        } else {
+            for (File jar : libJars) {
+                entries.add(jar.getAbsolutePath());
+            }
+        }
+
+        entries.add(findAvmHelperJar(mavenProject).getAbsolutePath());
+
+        return String.join(cpSeparator, entries);
+    }
+
+    //avm-helper version of the project's aion4j-maven-plugin: a dependency declared on the plugin or on the project,
+    //otherwise the one in the plugin's own pom. The jar is resolved by Maven, so it's in the local repository once a
+    //Maven aion4j goal has run
+    private File findAvmHelperJar(MavenProject mavenProject) {
+        File localRepository = MavenProjectsManager.getInstance(project).getLocalRepository();
+
+        MavenPlugin plugin = mavenProject.findPlugin(AION4J_GROUP_ID, AION4J_MAVEN_PLUGIN);
+        String version = null;
+        if(plugin != null) {
+            for (MavenId dependency : plugin.getDependencies()) {
+                if(AION4J_GROUP_ID.equals(dependency.getGroupId()) && AVM_HELPER.equals(dependency.getArtifactId()))
+                    version = dependency.getVersion();
+            }
+        }
+
+        if(version == null) {
+            List<MavenArtifact> dependencies = mavenProject.findDependencies(AION4J_GROUP_ID, AVM_HELPER);
+            if(!dependencies.isEmpty())
+                version = dependencies.get(0).getVersion();
+        }
+
+        if(version == null && plugin != null && plugin.getVersion() != null)
+            version = readAvmHelperVersion(getArtifactFile(localRepository, AION4J_MAVEN_PLUGIN, plugin.getVersion(), "pom"));
+
+        if(version == null)
+            throw new LocalAvmDaemonException("Unable to find avm-helper version of aion4j-maven-plugin "
+                    + (plugin != null ? plugin.getVersion() : "") + ". Run a Maven aion4j goal once.");
+
+        File jar = getArtifactFile(localRepository, AVM_HELPER, version, "jar");
+        if(!jar.exists())
+            throw new LocalAvmDaemonException("avm-helper " + version + " is not found in the local maven repository. Run a Maven aion4j goal once.");
+
+        if(log.isDebugEnabled())
+            log.debug("Using avm-helper " + jar);
+
+        return jar;
+    }
+
+    private static File getArtifactFile(File localRepository, String artifactId, String version, String extension) {
+        return new File(localRepository, AION4J_GROUP_ID.replace('.', File.separatorChar) + File.separator + artifactId
+                + File.separator + version + File.separator + artifactId + "-" + version + "." + extension);
+    }
+
+    //avm-helper dependency version in the plugin's pom. Version can be a property of the pom or the project version
+    @Nullable
+    private static String readAvmHelperVersion(File pluginPom) {
+        if(!pluginPom.exists())
+            return null;
+
+        Element pom;
+        try {
+            pom = JDOMUtil.load(pluginPom);
+        } catch (Exception e) {
+            log.warn("Unable to read " + pluginPom, e);
+            return null;
+        }
+
+        Namespace ns = pom.getNamespace();
+        Element dependencies = pom.getChild("dependencies", ns);
+        if(dependencies == null)
+            return null;
+
+        for (Element dependency : dependencies.getChildren("dependency", ns)) {
+            if(!AION4J_GROUP_ID.equals(dependency.getChildTextTrim("groupId", ns))
+                    || !AVM_HELPER.equals(dependency.getChildTextTrim("artifactId", ns)))
+                continue;
+
+            String version = dependency.getChildTextTrim("version", ns);
+            if(version == null || !version.startsWith("${"))
+                return version;
+
+            String property = version.substring(2, version.length() - 1);
+            if("project.version".equals(property) || "pom.version".equals(property))
+                return pom.getChildTextTrim("version", ns);
+
+            Element properties = pom.getChild("properties", ns);
+            return properties != null ? properties.getChildTextTrim(property, ns) : null;
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static String getDefaultAccount(MavenProject mavenProject, AvmConfigStateService.State state) {
+        if(!StringUtil.isEmptyOrSpaces(state.localDefaultAccount))
+            return state.localDefaultAccount.trim();
+
+        Element configuration = mavenProject.getPluginConfiguration(AION4J_GROUP_ID, AION4J_MAVEN_PLUGIN);
+        if(configuration == null)
+            return null;
+
+        String account = configuration.getChildTextTrim("localDefaultAccount");
+        return StringUtil.isEmpty(account) || account.startsWith("${") ? null : account;
+    }
+
+    private boolean isDisabled() {
+        AvmConfigStateService configService = ServiceManager.getService(project, AvmConfigStateService.class);
+        return configService == null || configService.getState() == null || configService.getState().disableLocalAvmDaemon;
+    }
+
+    private static String getOutput(JsonObject result) {
+        String output = result.getString("output", "");
+        if(StringUtil.isEmptyOrSpaces(output)) {
+            JsonValue value = result.get("value");
+            output = value == null ? "" : value.isString() ? value.asString() : value.toString();
+        }
+        return truncate(output);
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > MAX_OUTPUT_LENGTH ? text.substring(0, MAX_OUTPUT_LENGTH) + "..." : text;
+    }
+
+    /**
+     * Stop the daemon on the storage of a module, e.g. before Maven changes the storage. If the storage is shared,
+     * this stops the daemon of the other modules too.
+     */
+    public void stop(String moduleDir) {
+        if(moduleDir == null)
+            return;
+
+        MavenProject mavenProject = PsiCustomUtil.getMavenProject(project, moduleDir);
+        if(mavenProject != null) {
+            stop(mavenProject);
+        } else {
+            AvmConfigStateService.State state = ServiceManager.getService(project, AvmConfigStateService.class).getState();
+            if(!StringUtil.isEmptyOrSpaces(state.avmStoragePath))
+                stopStorage(state.avmStoragePath);
+        }
+    }
+
+    private void stop(MavenProject mavenProject) {
+        stopStorage(getStoragePath(mavenProject));
+    }
+
+    public void stopAll() {
+        for (String storagePath : new ArrayList<>(daemons.keySet())) {
+            stopStorage(storagePath);
+        }
+    }
+
+    private void stopStorage(String storagePath) {
+        String storageKey = FileUtil.toSystemIndependentName(storagePath);
+        synchronized (getStorageLock(storageKey)) {
+            LocalAvmDaemonClient daemon = daemons.remove(storageKey);
+            if(daemon != null)
+                daemon.stop();
+        }
+    }
+
+    private Object getStorageLock(String storagePath) {
+        return storageLocks.computeIfAbsent(FileUtil.toSystemIndependentName(storagePath), k -> new Object());
+    }
+
+    @Override
+    public void dispose() {
+        stopAll();
+    }
+}
@@ -0,0 +1,70 @@
+package org.aion4j.avm.idea.deploy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Text summary of a multi-module deployment, with the build time and the deploy time of each module.
+ */
+public class DeploySummary {
+
+    private final static int MAX_MESSAGE_LENGTH = 120;
+
+    private final int modules;
+    private final int builtModules;
+    private final long buildMillis;
+    private final long totalMillis;
+    private final List<ModuleDeployResult> results;
+
+    public DeploySummary(int modules, int builtModules, long buildMillis, long totalMillis, List<ModuleDeployResult> results) {
+        this.modules = modules;
+        this.builtModules = builtModules;
+        this.buildMillis = buildMillis;
+        this.totalMillis = totalMillis;
+        this.results = results;
+    }
+
+    public boolean isSuccess() {
+        return results.size() == modules && results.stream().allMatch(ModuleDeployResult::isSuccess);
+    }
+
+    public long getFailedCount() {
+        return results.stream().filter(r -> !r.isSuccess()).count();
+    }
+
+    /**
+     * Failed modules first, then the slowest.
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+
+        if(builtModules == 0)
+            sb.append(String.format("Build: all %d modules up to date\n", modules));
+        else
+            sb.append(String.format("Build: %d of %d modules in %d ms\n", builtModules, modules, buildMillis));
+
+        sb.append(String.format("Deployed %d of %d modules. Total %d ms\n", results.size() - getFailedCount(), modules, totalMillis));
+
+        List<ModuleDeployResult> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing(ModuleDeployResult::isSuccess)
+                .thenComparing(Comparator.comparingLong(ModuleDeployResult::getElapsedMillis).reversed()));
+
+        int nameWidth = sorted.stream().mapToInt(r -> r.getModuleName().length()).max().orElse(0);
+        for (ModuleDeployResult result : sorted) {
+            sb.append(String.format("  %-" + nameWidth + "s  %6d ms  %s", result.getModuleName(), result.getElapsedMillis(),
+                    result.isSuccess() ? "OK" : "FAILED"));
+
+            if(result.getMessage() != null && !result.getMessage().isEmpty())
+                sb.append("  ").append(truncate(result.getMessage().trim().replace('\n', ' ')));
+
+            sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_MESSAGE_LENGTH ? text.substring(0, MAX_MESSAGE_LENGTH) + "..." : text;
+    }
+}
@@ -0,0 +1,35 @@
+package org.aion4j.avm.idea.deploy;
+
+public class ModuleDeployResult {
+
+    private final String moduleName;
+    private final boolean success;
+    private final long elapsedMillis;
+    private final String message;
+
+    public ModuleDeployResult(String moduleName, boolean success, long elapsedMillis, String message) {
+        this.moduleName = moduleName;
+        this.success = success;
+        this.elapsedMillis = elapsedMillis;
+        this.message = message;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return contract address, transaction hash or error. May be null
+     */
+    public String getMessage() {
+        return message;
+    }
+}
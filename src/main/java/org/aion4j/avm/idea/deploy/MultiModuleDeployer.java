@@ -0,0 +1,332 @@
+package org.aion4j.avm.idea.deploy;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.aion4j.avm.idea.common.Tuple;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+import org.aion4j.avm.idea.misc.ContractBuildCacheUtil;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
+import org.aion4j.avm.idea.service.AvmCacheService;
+import org.aion4j.avm.idea.service.AvmConfigStateService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.idea.maven.execution.MavenRunConfigurationType;
+import org.jetbrains.idea.maven.execution.MavenRunnerParameters;
+import org.jetbrains.idea.maven.execution.MavenRunnerSettings;
+import org.jetbrains.idea.maven.project.MavenGeneralSettings;
+import org.jetbrains.idea.maven.project.MavenProject;
+import org.jetbrains.idea.maven.project.MavenProjectsManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Deploys the contract modules of an aggregator project. Changed modules are built by one parallel Maven build (-T 1C).
+ * Local deployments then run concurrently, every module on the embedded AVM of its storage. Remote deployments run one
+ * after another, as the aion4j plugin takes the nonce of the account from the node.
+ * The build time and the deploy time of every module are shown in one summary.
+ */
+public class MultiModuleDeployer {
+    private final static Logger log = Logger.getInstance(MultiModuleDeployer.class);
+
+    private final static String TITLE = "Multi-module Deployment";
+    private final static long MAVEN_DEPLOY_TIMEOUT_MINUTES = 10;
+
+    private final Project project;
+    private final MavenProject aggregator;
+    private final MavenRunnerParameters parameters;
+    private final MavenRunnerSettings settings;
+    private final boolean remote;
+
+    public MultiModuleDeployer(Project project, MavenProject aggregator, MavenRunnerParameters parameters,
+                               MavenRunnerSettings settings, boolean remote) {
+        this.project = project;
+        this.aggregator = aggregator;
+        this.parameters = parameters;
+        this.settings = settings;
+        this.remote = remote;
+    }
+
+    /**
+     * @return true if parallel module deployment is enabled and the project has contract modules
+     */
+    public static boolean isMultiModuleDeploy(Project project, MavenProject mavenProject) {
+        AvmConfigStateService.State state = ServiceManager.getService(project, AvmConfigStateService.class).getState();
+
+        return state != null && state.parallelModuleDeploy && mavenProject != null && mavenProject.isAggregator()
+                && !getContractModules(project, mavenProject).isEmpty();
+    }
+
+    /**
+     * Modules with a contract main class, including modules of nested aggregators.
+     */
+    public static List<MavenProject> getContractModules(Project project, MavenProject aggregator) {
+        List<MavenProject> contractModules = new ArrayList<>();
+        for (MavenProject module : MavenProjectsManager.getInstance(project).getModules(aggregator)) {
+            if(module.isAggregator())
+                contractModules.addAll(getContractModules(project, module));
+            else if(PsiCustomUtil.getContractMainClass(module) != null)
+                contractModules.add(module);
+        }
+        return contractModules;
+    }
+
+    /**
+     * Should be called in EDT.
+     * @param buildOptions see {@link ContractBuildCacheUtil#getBuildGoals}. Null to deploy the existing jars
+     * @param deployGoals aion4j goals to run for every module, e.g. aion4j:deploy
+     */
+    public void deploy(@Nullable String buildOptions, List<String> deployGoals) {
+        List<MavenProject> modules = getContractModules(project, aggregator);
+
+        List<MavenProject> changedModules = new ArrayList<>();
+        List<Runnable> saveBuilds = new ArrayList<>();
+        boolean clean = false;
+        if(buildOptions != null) {
+            for (MavenProject module : modules) {
+                Tuple<List<String>, Runnable> build = ContractBuildCacheUtil.getBuildGoals(project, module, buildOptions);
+                if(!build._1().isEmpty()) {
+                    changedModules.add(module);
+                    clean = clean || build._1().contains("clean");
+                }
+                saveBuilds.add(build._2());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        if(changedModules.isEmpty()) {
+            deployModules(modules, deployGoals, 0, 0, start);
+            return;
+        }
+
+        //clean removes the default storage folder
+        if(clean && !remote) {
+            for (MavenProject module : changedModules) {
+                LocalAvmDaemonManager.getInstance(project).stop(module.getDirectory());
+            }
+        }
+
+        List<String> goals = new ArrayList<>();
+        if(clean)
+            goals.add("clean");
+        goals.add("package");
+        goals.add("-pl");
+        goals.add(changedModules.stream().map(m -> ":" + m.getMavenId().getArtifactId()).collect(Collectors.joining(",")));
+        goals.add("-am");
+
+        MavenRunnerParameters buildParameters = parameters.clone();
+        buildParameters.setWorkingDirPath(aggregator.getDirectory());
+        buildParameters.setGoals(goals);
+
+        MavenGeneralSettings generalSettings = MavenProjectsManager.getInstance(project).getGeneralSettings().clone();
+        generalSettings.setThreads("1C");
+
+        runMaven(buildParameters, generalSettings, settings, exitCode -> {
+            long buildMillis = System.currentTimeMillis() - start;
+            if(exitCode != 0) {
+                IdeaUtil.showNotification(project, TITLE, "Build failed. No module was deployed", NotificationType.ERROR, null);
+                return;
+            }
+
+            saveBuilds.forEach(Runnable::run);
+            ApplicationManager.getApplication().invokeLater(() ->
+                    deployModules(modules, deployGoals, changedModules.size(), buildMillis, start));
+        });
+    }
+
+    private void deployModules(List<MavenProject> modules, List<String> deployGoals, int builtModules, long buildMillis, long start) {
+        Consumer<List<ModuleDeployResult>> showSummary = results -> {
+            DeploySummary summary = new DeploySummary(modules.size(), builtModules, buildMillis,
+                    System.currentTimeMillis() - start, results);
+
+            if(log.isDebugEnabled())
+                log.debug(summary.toText());
+
+            IdeaUtil.showNotification(project, TITLE, summary.toText(),
+                    summary.isSuccess() ? NotificationType.INFORMATION : NotificationType.ERROR, null);
+        };
+
+        if(remote)
+            deployRemote(modules, deployGoals, new ArrayList<>(), showSummary);
+        else
+            deployLocal(modules, deployGoals, showSummary);
+    }
+
+    //One after another, as every deployment needs the next nonce of the same account
+    private void deployRemote(List<MavenProject> modules, List<String> deployGoals, List<ModuleDeployResult> results,
+                              Consumer<List<ModuleDeployResult>> onFinished) {
+        if(results.size() == modules.size()) {
+            onFinished.accept(results);
+            return;
+        }
+
+        //The next deployment starts after the receipt. Otherwise the node may hand out the nonce of the pending
+        //transaction again. Only the last module follows the receipt setting
+        MavenProject module = modules.get(results.size());
+        Map<String, String> properties = getModuleProperties(module);
+        if(results.size() < modules.size() - 1)
+            properties.put("wait", "true");
+
+        long start = System.currentTimeMillis();
+        runMaven(getModuleParameters(module, deployGoals), null, getModuleSettings(properties), exitCode -> {
+            results.add(new ModuleDeployResult(getName(module), exitCode == 0, System.currentTimeMillis() - start,
+                    exitCode == 0 ? null : "Maven exit code " + exitCode));
+
+            ApplicationManager.getApplication().invokeLater(() -> deployRemote(modules, deployGoals, results, onFinished));
+        });
+    }
+
+    //Concurrently, every module on the embedded AVM of its storage
+    private void deployLocal(List<MavenProject> modules, List<String> deployGoals, Consumer<List<ModuleDeployResult>> onFinished) {
+        AvmConfigStateService.State state = ServiceManager.getService(project, AvmConfigStateService.class).getState();
+
+        //Modules share the storage and its daemon if a storage path is set. Requests to one daemon run one after
+        //another anyway, and a Maven fallback of one module stops the daemon under the others
+        int threads = StringUtil.isEmptyOrSpaces(state.avmStoragePath)
+                ? Math.min(modules.size(), Runtime.getRuntime().availableProcessors()) : 1;
+
+        new Task.Backgroundable(project, "Deploying " + modules.size() + " modules", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("AVM module deployment", threads);
+
+                List<Future<ModuleDeployResult>> futures = new ArrayList<>();
+                for (MavenProject module : modules) {
+                    futures.add(executor.submit(() -> deployLocal(module, deployGoals)));
+                }
+
+                List<ModuleDeployResult> results = new ArrayList<>();
+                for (int i = 0; i < futures.size(); i++) {
+                    indicator.setFraction((double) i / futures.size());
+                    try {
+                        results.add(futures.get(i).get());
+                    } catch (InterruptedException | ExecutionException e) {
+                        log.warn("Deployment of " + getName(modules.get(i)) + " failed", e);
+                        results.add(new ModuleDeployResult(getName(modules.get(i)), false, 0, e.getMessage()));
+                    }
+                }
+                executor.shutdown();
+
+                onFinished.accept(results);
+            }
+        }.queue();
+    }
+
+    private ModuleDeployResult deployLocal(MavenProject module, List<String> deployGoals) {
+        LocalAvmDaemonManager daemonManager = LocalAvmDaemonManager.getInstance(project);
+        Map<String, String> properties = getModuleProperties(module);
+
+        long start = System.currentTimeMillis();
+        String address = null;
+        for (int i = 0; i < deployGoals.size(); i++) {
+            try {
+                JsonObject result = daemonManager.runGoal(module, deployGoals.get(i), properties);
+                address = getAddress(result, address);
+            } catch (LocalAvmDaemonException e) {
+                if(e.isExecutionError())
+                    return new ModuleDeployResult(getName(module), false, System.currentTimeMillis() - start, e.getMessage());
+
+                //Not possible on the embedded AVM. Maven changes the storage, so the daemon of the storage has to go
+                daemonManager.stop(module.getDirectory());
+                int exitCode = runMavenAndWait(getModuleParameters(module, deployGoals.subList(i, deployGoals.size())),
+                        getModuleSettings(properties));
+
+                return new ModuleDeployResult(getName(module), exitCode == 0, System.currentTimeMillis() - start,
+                        exitCode == 0 ? "Deployed through Maven" : "Maven exit code " + exitCode);
+            }
+        }
+
+        return new ModuleDeployResult(getName(module), true, System.currentTimeMillis() - start, address);
+    }
+
+    private int runMavenAndWait(MavenRunnerParameters parameters, MavenRunnerSettings settings) {
+        CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+        ApplicationManager.getApplication().invokeLater(() -> runMaven(parameters, null, settings, exitCode::complete));
+
+        try {
+            return exitCode.get(MAVEN_DEPLOY_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            log.warn("Maven deployment didn't finish", e);
+            return -1;
+        }
+    }
+
+    //Same as MavenRunner.run, but reports failures too
+    private void runMaven(MavenRunnerParameters parameters, @Nullable MavenGeneralSettings generalSettings,
+                          MavenRunnerSettings settings, IntConsumer onExit) {
+        MavenRunConfigurationType.runConfiguration(project, parameters, generalSettings, settings, descriptor -> {
+            ProcessHandler handler = descriptor.getProcessHandler();
+            if(handler == null) {
+                onExit.accept(-1);
+                return;
+            }
+
+            handler.addProcessListener(new ProcessAdapter() {
+                @Override
+                public void processTerminated(@NotNull ProcessEvent event) {
+                    onExit.accept(event.getExitCode());
+                }
+            });
+        });
+    }
+
+    //Deploy args of the module, as set in the deploy args dialog of the module
+    private Map<String, String> getModuleProperties(MavenProject module) {
+        Map<String, String> properties = new HashMap<>(settings.getMavenProperties());
+
+        String args = ServiceManager.getService(project, AvmCacheService.class).getDeployArgs(getName(module));
+        if(!StringUtil.isEmptyOrSpaces(args))
+            properties.put("args", args);
+        else
+            properties.remove("args");
+
+        return properties;
+    }
+
+    private MavenRunnerParameters getModuleParameters(MavenProject module, List<String> goals) {
+        MavenRunnerParameters moduleParameters = parameters.clone();
+        moduleParameters.setWorkingDirPath(module.getDirectory());
+        moduleParameters.setGoals(new ArrayList<>(goals));
+        return moduleParameters;
+    }
+
+    private MavenRunnerSettings getModuleSettings(Map<String, String> properties) {
+        MavenRunnerSettings moduleSettings = settings.clone();
+        moduleSettings.setMavenProperties(new HashMap<>(properties));
+        return moduleSettings;
+    }
+
+    private static String getAddress(JsonObject result, String defaultAddress) {
+        JsonValue value = result.get("value");
+        return value != null && value.isObject() ? value.asObject().getString("address", defaultAddress) : defaultAddress;
+    }
+
+    private static String getName(MavenProject module) {
+        return module.getMavenId().getArtifactId();
+    }
+}
@@ -0,0 +1,28 @@
+package org.aion4j.avm.idea.exception;
+
+/**
+ * Error from the local AVM daemon. An execution error is reported by the contract or the node, so the request should not be
+ * retried through Maven. All other errors mean the daemon is not usable.
+ */
+public class LocalAvmDaemonException extends RuntimeException {
+
+    private final boolean executionError;
+
+    public LocalAvmDaemonException(String message) {
+        this(message, false);
+    }
+
+    public LocalAvmDaemonException(String message, boolean executionError) {
+        super(message);
+        this.executionError = executionError;
+    }
+
+    public LocalAvmDaemonException(String message, Exception e) {
+        super(message, e);
+        this.executionError = false;
+    }
+
+    public boolean isExecutionError() {
+        return executionError;
+    }
+}
@@ -0,0 +1,12 @@
+package org.aion4j.avm.idea.exception;
+
+public class ScenarioFormatException extends RuntimeException {
+
+    public ScenarioFormatException(String message) {
+        super(message);
+    }
+
+    public ScenarioFormatException(String message, Exception e) {
+        super(message, e);
+    }
+}
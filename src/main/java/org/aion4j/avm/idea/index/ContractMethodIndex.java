@@ -0,0 +1,397 @@
+package org.aion4j.avm.idea.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+import static org.aion4j.avm.idea.misc.AvmApiConstant.*;
+
+/**
+ * Index of contract entry points and abi fields: methods annotated with @Callable or @Fallback and fields
+ * annotated with @Initializable. Key is the annotation kind. Value is the annotated members of the file with their abi signature.
+ *
+ * Annotations are matched by name through the imports of the file, so indexing doesn't need to resolve.
+ */
+public class ContractMethodIndex extends FileBasedIndexExtension<String, List<ContractMethodIndex.Entry>> {
+
+    public final static ID<String, List<Entry>> NAME = ID.create("org.aion4j.avm.idea.ContractMethodIndex");
+
+    private final static int VERSION = 1;
+
+    private final static String ABI_PACKAGE = "org.aion.avm.tooling.abi";
+
+    private final static Key<CachedValue<Map<Integer, Entry>>> FILE_ENTRIES = Key.create("avm.contract.entries");
+
+    public enum Kind {
+        CALLABLE(CALLABLE_ANNOTATION),
+        FALLBACK(FALLBACK_ANNOTATION),
+        INITIALIZABLE(INITIALIZABLE_ANNOTATION);
+
+        private final String annotation;
+
+        Kind(String annotation) {
+            this.annotation = annotation;
+        }
+
+        public String getAnnotation() {
+            return annotation;
+        }
+
+        public String getShortName() {
+            return annotation.substring(annotation.lastIndexOf('.') + 1);
+        }
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<Entry>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Entry>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if(!(psiFile instanceof PsiJavaFile))
+                return Collections.emptyMap();
+
+            return collect((PsiJavaFile) psiFile);
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Entry>> getValueExternalizer() {
+        return EntriesExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Abi annotation kind of a method or field. Uses the index when available, otherwise looks up the annotations.
+     * @return kind or null if the member is not annotated
+     */
+    public static Kind getKind(PsiModifierListOwner member) {
+        if(!(member instanceof PsiNameIdentifierOwner))
+            return null;
+
+        PsiElement nameIdentifier = ((PsiNameIdentifierOwner) member).getNameIdentifier();
+        PsiFile psiFile = member.getContainingFile();
+
+        if(nameIdentifier == null || psiFile == null || psiFile.getVirtualFile() == null || DumbService.isDumb(member.getProject())) {
+            for (Kind kind : Kind.values()) {
+                if(member.hasAnnotation(kind.getAnnotation()))
+                    return kind;
+            }
+            return null;
+        }
+
+        Entry entry = getFileEntries(psiFile).get(nameIdentifier.getTextRange().getStartOffset());
+        return entry != null && entry.getName().equals(nameIdentifier.getText()) ? entry.getKind() : null;
+    }
+
+    /**
+     * Indexed entries of a file, keyed by the offset of member name. Cached until the file is changed.
+     */
+    public static Map<Integer, Entry> getFileEntries(@NotNull PsiFile psiFile) {
+        return CachedValuesManager.getCachedValue(psiFile, FILE_ENTRIES, () -> {
+            Map<Integer, Entry> entries = new HashMap<>();
+
+            VirtualFile file = psiFile.getVirtualFile();
+            if(file != null) {
+                for (List<Entry> kindEntries : FileBasedIndex.getInstance().getFileData(NAME, file, psiFile.getProject()).values()) {
+                    for (Entry entry : kindEntries) {
+                        entries.put(entry.getOffset(), entry);
+                    }
+                }
+            }
+
+            return CachedValueProvider.Result.create(entries, psiFile);
+        });
+    }
+
+    /**
+     * Annotated members of the kind in a file, in the order of declaration.
+     */
+    public static <T extends PsiMember> List<T> getMembers(@NotNull PsiFile psiFile, @NotNull Kind kind, @NotNull Class<T> memberClass) {
+        List<T> members = new ArrayList<>();
+
+        if(psiFile.getVirtualFile() == null || DumbService.isDumb(psiFile.getProject())) {
+            for (T member : PsiTreeUtil.findChildrenOfType(psiFile, memberClass)) {
+                if(getKind(member) == kind)
+                    members.add(member);
+            }
+            return members;
+        }
+
+        List<Entry> entries = new ArrayList<>(getFileEntries(psiFile).values());
+        entries.sort(Comparator.comparingInt(Entry::getOffset));
+
+        for (Entry entry : entries) {
+            if(entry.getKind() != kind)
+                continue;
+
+            PsiElement element = psiFile.findElementAt(entry.getOffset());
+            if(element instanceof PsiIdentifier && memberClass.isInstance(element.getParent()))
+                members.add(memberClass.cast(element.getParent()));
+        }
+        return members;
+    }
+
+    /**
+     * All members of the kind in the scope. Should be called inside a read action in smart mode.
+     */
+    public static List<Location> getEntries(Project project, Kind kind, GlobalSearchScope scope) {
+        List<Location> locations = new ArrayList<>();
+
+        FileBasedIndex.getInstance().processValues(NAME, kind.name(), null, (file, entries) -> {
+            for (Entry entry : entries) {
+                locations.add(new Location(file, entry));
+            }
+            return true;
+        }, scope);
+
+        return locations;
+    }
+
+    private static Map<String, List<Entry>> collect(PsiJavaFile javaFile) {
+        Set<String> importedAnnotations = new HashSet<>();
+        boolean abiPackageImported = false;
+
+        PsiImportList importList = javaFile.getImportList();
+        if(importList != null) {
+            for (PsiImportStatement importStatement : importList.getImportStatements()) {
+                String name = importStatement.getQualifiedName();
+                if(name == null)
+                    continue;
+
+                if(importStatement.isOnDemand())
+                    abiPackageImported |= ABI_PACKAGE.equals(name);
+                else
+                    importedAnnotations.add(name);
+            }
+        }
+
+        boolean packageImported = abiPackageImported;
+        Map<String, List<Entry>> result = new HashMap<>();
+
+        javaFile.accept(new JavaRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitMethod(PsiMethod method) {
+                Kind kind = findKind(method.getModifierList());
+                if(kind != null && kind != Kind.INITIALIZABLE && method.getNameIdentifier() != null) {
+                    StringBuilder signature = new StringBuilder("(");
+                    PsiParameter[] parameters = method.getParameterList().getParameters();
+                    for (int i = 0; i < parameters.length; i++) {
+                        if(i > 0)
+                            signature.append(", ");
+                        signature.append(typeText(parameters[i].getTypeElement()));
+                    }
+                    signature.append(")");
+
+                    addEntry(kind, method, method.getNameIdentifier(), signature.toString(), typeText(method.getReturnTypeElement()));
+                }
+
+                super.visitMethod(method);
+            }
+
+            @Override
+            public void visitField(PsiField field) {
+                Kind kind = findKind(field.getModifierList());
+                if(kind == Kind.INITIALIZABLE)
+                    addEntry(kind, field, field.getNameIdentifier(), "", typeText(field.getTypeElement()));
+
+                super.visitField(field);
+            }
+
+            private void addEntry(Kind kind, PsiMember member, PsiIdentifier nameIdentifier, String signature, String type) {
+                PsiClass containingClass = member.getContainingClass();
+                String className = containingClass != null && containingClass.getName() != null ? containingClass.getName() : "";
+
+                result.computeIfAbsent(kind.name(), k -> new ArrayList<>()).add(new Entry(kind, className, nameIdentifier.getText(),
+                        signature, type, nameIdentifier.getTextRange().getStartOffset()));
+            }
+
+            private Kind findKind(PsiModifierList modifierList) {
+                if(modifierList == null)
+                    return null;
+
+                for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+                    PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+                    if(reference == null)
+                        continue;
+
+                    String name = reference.getText();
+                    for (Kind kind : Kind.values()) {
+                        if(name.equals(kind.getAnnotation()))
+                            return kind;
+
+                        if(name.equals(kind.getShortName()) && (packageImported || importedAnnotations.contains(kind.getAnnotation())))
+                            return kind;
+                    }
+                }
+                return null;
+            }
+        });
+
+        return result;
+    }
+
+    private static String typeText(PsiTypeElement typeElement) {
+        return typeElement != null ? typeElement.getText().replaceAll("\\s+", "") : "void";
+    }
+
+    /**
+     * An annotated member of a file
+     */
+    public static class Entry {
+        private final Kind kind;
+        private final String className;
+        private final String name;
+        private final String signature; //parameter types. e.g. (Address, BigInteger)
+        private final String type; //return type or field type
+        private final int offset; //offset of the name identifier
+
+        Entry(Kind kind, String className, String name, String signature, String type, int offset) {
+            this.kind = kind;
+            this.className = className;
+            this.name = name;
+            this.signature = signature;
+            this.type = type;
+            this.offset = offset;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry) o;
+            return offset == entry.offset && kind == entry.kind && className.equals(entry.className)
+                    && name.equals(entry.name) && signature.equals(entry.signature) && type.equals(entry.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, className, name, signature, offset);
+        }
+
+        @Override
+        public String toString() {
+            return className + "." + name + signature;
+        }
+    }
+
+    /**
+     * Indexed entry with its file
+     */
+    public static class Location {
+        private final VirtualFile file;
+        private final Entry entry;
+
+        Location(VirtualFile file, Entry entry) {
+            this.file = file;
+            this.entry = entry;
+        }
+
+        public VirtualFile getFile() {
+            return file;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+    }
+
+    private static class EntriesExternalizer implements DataExternalizer<List<Entry>> {
+        private final static EntriesExternalizer INSTANCE = new EntriesExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, List<Entry> entries) throws IOException {
+            DataInputOutputUtil.writeINT(out, entries.size());
+            for (Entry entry : entries) {
+                DataInputOutputUtil.writeINT(out, entry.kind.ordinal());
+                out.writeUTF(entry.className);
+                out.writeUTF(entry.name);
+                out.writeUTF(entry.signature);
+                out.writeUTF(entry.type);
+                DataInputOutputUtil.writeINT(out, entry.offset);
+            }
+        }
+
+        @Override
+        public List<Entry> read(@NotNull DataInput in) throws IOException {
+            int size = DataInputOutputUtil.readINT(in);
+
+            List<Entry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Kind kind = Kind.values()[DataInputOutputUtil.readINT(in)];
+                entries.add(new Entry(kind, in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), DataInputOutputUtil.readINT(in)));
+            }
+            return entries;
+        }
+    }
+}
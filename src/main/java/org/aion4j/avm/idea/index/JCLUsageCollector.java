@@ -0,0 +1,201 @@
+package org.aion4j.avm.idea.index;
+
+import com.intellij.psi.*;
+
+import java.util.*;
+
+/**
+ * Collects JCL references of a java file for {@link JCLUsageIndex}. Index data can't depend on other files or on the
+ * JDK, so references are not resolved. Names are mapped only from the file itself:
+ * <ul>
+ *     <li>single type imports and fully qualified names are keyed by FQN</li>
+ *     <li>other simple names are keyed by the candidate packages (on-demand imports of JCL packages and java.lang) and
+ *     the name, e.g. <code>java.lang,java.util:Random</code></li>
+ * </ul>
+ * Static method calls and constructor calls are also keyed with <code>#method</code> and <code>#&lt;init&gt;</code>.
+ * Calls on instances need type inference and are left to the inspection. Keys are only candidates, a same-package
+ * class may shadow an on-demand import, so usages must be confirmed by the inspection.
+ */
+class JCLUsageCollector extends JavaRecursiveElementWalkingVisitor {
+
+    private final static String[] JCL_PREFIXES = {"java.", "javax.", "org.xml."};
+    private final static String CONSTRUCTOR = "<init>";
+
+    private final Map<String, String> singleTypeImports = new HashMap<>(); //simple name -> fqn
+    private final List<String> onDemandPackages = new ArrayList<>();
+    private String onDemandPrefix; //candidate packages of simple names. e.g. "java.lang,java.util:"
+    private final Set<String> declaredClasses = new HashSet<>();
+
+    private final Map<String, List<Integer>> usages = new HashMap<>();
+
+    private JCLUsageCollector(PsiJavaFile javaFile) {
+        onDemandPackages.add("java.lang");
+
+        PsiImportList importList = javaFile.getImportList();
+        if(importList != null) {
+            for (PsiImportStatement importStatement : importList.getImportStatements()) {
+                String name = importStatement.getQualifiedName();
+                if(name == null)
+                    continue;
+
+                if(importStatement.isOnDemand()) {
+                    if(isJCLName(name + "."))
+                        onDemandPackages.add(name);
+                } else {
+                    singleTypeImports.put(name.substring(name.lastIndexOf('.') + 1), name);
+                }
+            }
+        }
+
+        onDemandPrefix = String.join(",", onDemandPackages) + JCLUsageIndex.CANDIDATES_SEPARATOR;
+
+        //Classes declared in the file shadow imported classes
+        javaFile.accept(new JavaRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitClass(PsiClass aClass) {
+                if(aClass.getName() != null)
+                    declaredClasses.add(aClass.getName());
+                super.visitClass(aClass);
+            }
+        });
+    }
+
+    /**
+     * @return JCL usage key -> start offsets of the usages in the file
+     */
+    static Map<String, int[]> collect(PsiJavaFile javaFile) {
+        JCLUsageCollector collector = new JCLUsageCollector(javaFile);
+        javaFile.accept(collector);
+
+        if(collector.usages.isEmpty())
+            return Collections.emptyMap();
+
+        Map<String, int[]> result = new HashMap<>(collector.usages.size());
+        for (Map.Entry<String, List<Integer>> entry : collector.usages.entrySet()) {
+            List<Integer> offsets = entry.getValue();
+            int[] values = new int[offsets.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = offsets.get(i);
+            }
+            Arrays.sort(values);
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+
+    @Override
+    public void visitImportList(PsiImportList list) {
+        //Imports are not usages
+    }
+
+    @Override
+    public void visitPackageStatement(PsiPackageStatement statement) {
+    }
+
+    @Override
+    public void visitReferenceElement(PsiJavaCodeReferenceElement reference) {
+        //Only the outermost reference of a qualified name. e.g. java.util.Map.Entry, not java.util.Map
+        //Reference expressions are handled in visitReferenceExpression
+        if(!(reference instanceof PsiReferenceExpression) && !(reference.getParent() instanceof PsiJavaCodeReferenceElement)) {
+            String fqn = toJCLClassName(reference);
+            if(fqn != null)
+                addUsage(fqn, reference.getTextRange().getStartOffset());
+        }
+
+        super.visitReferenceElement(reference);
+    }
+
+    @Override
+    public void visitReferenceExpression(PsiReferenceExpression expression) {
+        //Static access through class name. e.g. Math.abs(..) or Integer.MAX_VALUE
+        PsiExpression qualifier = expression.getQualifierExpression();
+        if(qualifier instanceof PsiReferenceExpression) {
+            String fqn = toJCLClassName((PsiReferenceExpression) qualifier);
+            if(fqn != null) {
+                addUsage(fqn, qualifier.getTextRange().getStartOffset());
+
+                PsiElement nameElement = expression.getReferenceNameElement();
+                if(nameElement != null && expression.getParent() instanceof PsiMethodCallExpression)
+                    addUsage(fqn + "#" + expression.getReferenceName(), nameElement.getTextRange().getStartOffset());
+            }
+        }
+
+        super.visitReferenceExpression(expression);
+    }
+
+    @Override
+    public void visitNewExpression(PsiNewExpression expression) {
+        PsiJavaCodeReferenceElement classReference = expression.getClassReference();
+        if(classReference == null && expression.getAnonymousClass() != null)
+            classReference = expression.getAnonymousClass().getBaseClassReference();
+
+        if(classReference != null && expression.getArrayDimensions().length == 0 && expression.getArrayInitializer() == null) {
+            String fqn = toJCLClassName(classReference);
+            if(fqn != null)
+                addUsage(fqn + "#" + CONSTRUCTOR, classReference.getTextRange().getStartOffset());
+        }
+
+        super.visitNewExpression(expression);
+    }
+
+    private void addUsage(String key, int offset) {
+        usages.computeIfAbsent(key, k -> new ArrayList<>()).add(offset);
+    }
+
+    private String toJCLClassName(PsiJavaCodeReferenceElement reference) {
+        String name = referenceName(reference);
+        if(name == null)
+            return null;
+
+        int dot = name.indexOf('.');
+        String first = dot == -1 ? name : name.substring(0, dot);
+        String rest = dot == -1 ? "" : name.substring(dot);
+
+        if(declaredClasses.contains(first))
+            return null;
+
+        if(singleTypeImports.containsKey(first)) {
+            String fqn = singleTypeImports.get(first) + rest;
+            return isJCLName(fqn) ? fqn : null;
+        }
+
+        if(Character.isLowerCase(first.charAt(0))) //fully qualified name, or a package
+            return isJCLName(name) && hasClassName(name) ? name : null;
+
+        return onDemandPrefix + name;
+    }
+
+    //Dotted name of the reference without type arguments. e.g. Map.Entry for Map.Entry<K, V>
+    private static String referenceName(PsiJavaCodeReferenceElement reference) {
+        String name = reference.getReferenceName();
+        if(name == null || name.isEmpty())
+            return null;
+
+        PsiElement qualifier = reference.getQualifier();
+        if(qualifier == null)
+            return name;
+
+        if(!(qualifier instanceof PsiJavaCodeReferenceElement)) //method call, this etc.
+            return null;
+
+        String qualifierName = referenceName((PsiJavaCodeReferenceElement) qualifier);
+        return qualifierName != null ? qualifierName + "." + name : null;
+    }
+
+    //By convention, class names start with an upper case letter. e.g. java.util.Map.Entry but not java.util
+    private static boolean hasClassName(String name) {
+        for (int i = 0; i < name.length() - 1; i++) {
+            if(name.charAt(i) == '.' && Character.isUpperCase(name.charAt(i + 1)))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isJCLName(String name) {
+        for (String prefix : JCL_PREFIXES) {
+            if(name.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+package org.aion4j.avm.idea.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLWhitelistLookup;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Index of JCL usages in contract sources of AVM modules. Key is the FQN of a referenced JCL class, or the candidate
+ * packages and simple name for names which can't be mapped without resolving (see {@link JCLUsageCollector}), plus
+ * <code>#method</code> for static method and constructor calls. Value is the start offsets of the usages in the file.
+ *
+ * Keys are not resolved, so the index is only used as a prefilter to find files which may have non-whitelisted usages.
+ * Problems are reported by the inspection on those files.
+ */
+public class JCLUsageIndex extends FileBasedIndexExtension<String, int[]> {
+
+    public final static ID<String, int[]> NAME = ID.create("org.aion4j.avm.idea.JCLUsageIndex");
+
+    final static String CANDIDATES_SEPARATOR = ":";
+
+    private final static int VERSION = 2;
+
+    @NotNull
+    @Override
+    public ID<String, int[]> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, int[], FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if(!(psiFile instanceof PsiJavaFile))
+                return Collections.emptyMap();
+
+            return JCLUsageCollector.collect((PsiJavaFile) psiFile);
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<int[]> getValueExternalizer() {
+        return OffsetsExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE) {
+            @Override
+            public boolean acceptInput(@NotNull VirtualFile file) {
+                return super.acceptInput(file) && isContractSource(file);
+            }
+        };
+    }
+
+    //Production source of an AVM module in any open project, as the input filter is not project aware.
+    //Files are filtered again when project roots change, e.g. after maven import
+    private static boolean isContractSource(VirtualFile file) {
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            if(project.isDisposed())
+                continue;
+
+            ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+            if(!fileIndex.isInSourceContent(file) || fileIndex.isInTestSourceContent(file))
+                continue;
+
+            Module module = fileIndex.getModuleForFile(file);
+            AvmService service = ServiceManager.getService(project, AvmService.class);
+            if(module != null && service != null && service.isAvmModule(module))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Find files which may have usages not allowed by the whitelist. Should be called inside a read action in smart mode.
+     * As index keys don't have parameter types, method usages are only checked by name. Overloads are checked by the inspection.
+     */
+    public static Set<VirtualFile> findCandidateFiles(Project project, GlobalSearchScope scope, JCLWhitelistLookup whitelist) {
+        FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+        JavaPsiFacade psiFacade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope allScope = GlobalSearchScope.allScope(project);
+
+        Set<VirtualFile> files = new HashSet<>();
+        for (String key : fileBasedIndex.getAllKeys(NAME, project)) {
+            if(isAllowed(key, whitelist, clazz -> psiFacade.findClass(clazz, allScope) != null))
+                continue;
+
+            fileBasedIndex.processValues(NAME, key, null, (file, offsets) -> {
+                files.add(file);
+                return true;
+            }, scope);
+        }
+
+        return files;
+    }
+
+    /**
+     * @param isJCLClass checks if a candidate class exists in the project JDK
+     */
+    static boolean isAllowed(String key, JCLWhitelistLookup whitelist, Predicate<String> isJCLClass) {
+        int hash = key.indexOf('#');
+        String method = hash == -1 ? null : key.substring(hash + 1);
+        List<String> candidates = getCandidateClasses(hash == -1 ? key : key.substring(0, hash));
+
+        for (String clazz : candidates) {
+            if(whitelist.isClassPresent(clazz))
+                return method == null || !whitelist.getMethods(clazz, method).isEmpty();
+        }
+
+        //Not in the whitelist. Simple names may also be classes of the project
+        for (String clazz : candidates) {
+            if(isJCLClass.test(clazz))
+                return false;
+        }
+        return true;
+    }
+
+    //java.lang,java.util:Map.Entry -> java.lang.Map.Entry, java.util.Map.Entry
+    private static List<String> getCandidateClasses(String name) {
+        int separator = name.indexOf(CANDIDATES_SEPARATOR);
+        if(separator == -1)
+            return Collections.singletonList(name);
+
+        String simpleName = name.substring(separator + CANDIDATES_SEPARATOR.length());
+
+        List<String> candidates = new ArrayList<>();
+        for (String pkg : name.substring(0, separator).split(",")) {
+            candidates.add(pkg + "." + simpleName);
+        }
+        return candidates;
+    }
+
+    private static class OffsetsExternalizer implements DataExternalizer<int[]> {
+        private final static OffsetsExternalizer INSTANCE = new OffsetsExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, int[] offsets) throws IOException {
+            DataInputOutputUtil.writeINT(out, offsets.length);
+
+            //Offsets are in ascending order, store deltas
+            int previous = 0;
+            for (int offset : offsets) {
+                DataInputOutputUtil.writeINT(out, offset - previous);
+                previous = offset;
+            }
+        }
+
+        @Override
+        public int[] read(@NotNull DataInput in) throws IOException {
+            int[] offsets = new int[DataInputOutputUtil.readINT(in)];
+
+            int previous = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                previous += DataInputOutputUtil.readINT(in);
+                offsets[i] = previous;
+            }
+            return offsets;
+        }
+    }
+}
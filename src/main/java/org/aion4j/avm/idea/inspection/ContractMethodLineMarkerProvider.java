@@ -25,35 +25,64 @@ package org.aion4j.avm.idea.inspection;
 import com.intellij.execution.lineMarker.RunLineMarkerContributor;
 import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.AnAction;
-import com.intellij.psi.PsiAnnotation;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiIdentifier;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.aion4j.avm.idea.index.ContractMethodIndex;
 import org.aion4j.avm.idea.misc.AvmIcons;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Gutter actions for @Callable methods. Markers are only created for the method name identifier, and the marker of a
+ * method is cached until its file is changed.
+ */
 public class ContractMethodLineMarkerProvider extends RunLineMarkerContributor {
+
+    private final static Key<CachedValue<Info>> CALLABLE_INFO = Key.create("avm.callable.marker.info");
+
+    private static volatile AnAction[] gutterActions;
+
     @Nullable
     @Override
     public Info getInfo(@NotNull PsiElement element) {
-        if(element instanceof PsiMethod) {
-
-            PsiMethod method = (PsiMethod)element;
-            PsiAnnotation callableAnnotation = method.getAnnotation("org.aion.avm.tooling.abi.Callable");
+        if(!(element instanceof PsiIdentifier) || !(element.getParent() instanceof PsiMethod))
+            return null;
 
-            if (callableAnnotation != null) {
-               // LineMarkerInfo lineMarkerInfo = new LineMarkerInfo();
-                ActionManager am = ActionManager.getInstance();
-                AnAction localCall = am.getAction("Avm.local.gutter.LocalCallAction");
-                AnAction debugAction = am.getAction("Avm.local.gutter.Debug");
-                AnAction remoteCall = am.getAction("Avm.remote.gutter.CallMethodAction");
-                AnAction remoteTxn = am.getAction("Avm.remote.gutter.ContractTxnAction");
+        PsiMethod method = (PsiMethod) element.getParent();
+        if(method.getNameIdentifier() != element)
+            return null;
 
-                return new RunLineMarkerContributor.Info(AvmIcons.CALLABLE_GUTTER_ICON,
-                        (psiElement -> ((PsiMethod)psiElement).getName()), localCall, debugAction, remoteCall, remoteTxn);
+        return CachedValuesManager.getCachedValue(method, CALLABLE_INFO, () -> {
+            Info info = null;
+            if (ContractMethodIndex.getKind(method) == ContractMethodIndex.Kind.CALLABLE) {
+                info = new RunLineMarkerContributor.Info(AvmIcons.CALLABLE_GUTTER_ICON,
+                        (psiElement -> psiElement.getText()), getGutterActions());
             }
-        }
 
-        return null;
+            return CachedValueProvider.Result.create(info, method.getContainingFile(),
+                    DumbService.getInstance(method.getProject()).getModificationTracker());
+        });
+    }
+
+    private static AnAction[] getGutterActions() {
+        AnAction[] actions = gutterActions;
+        if(actions == null) {
+            ActionManager am = ActionManager.getInstance();
+            AnAction localCall = am.getAction("Avm.local.gutter.LocalCallAction");
+            AnAction debugAction = am.getAction("Avm.local.gutter.Debug");
+            AnAction loadTest = am.getAction("Avm.local.gutter.LoadTestAction");
+            AnAction remoteCall = am.getAction("Avm.remote.gutter.CallMethodAction");
+            AnAction remoteTxn = am.getAction("Avm.remote.gutter.ContractTxnAction");
+
+            actions = new AnAction[]{localCall, debugAction, loadTest, remoteCall, remoteTxn};
+            gutterActions = actions;
+        }
+        return actions;
     }
 }
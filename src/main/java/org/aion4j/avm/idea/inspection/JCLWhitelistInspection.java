@@ -4,19 +4,30 @@ import com.intellij.codeInspection.*;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.compiled.ClsClassImpl;
 import com.intellij.psi.impl.source.tree.java.PsiMethodCallExpressionImpl;
 import com.intellij.psi.impl.source.tree.java.PsiNewExpressionImpl;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.aion4j.avm.idea.index.ContractMethodIndex;
 import org.aion4j.avm.idea.inspection.types.AvmTypes;
+import org.aion4j.avm.idea.perf.PerfMetrics;
 import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLVerdictCache;
 import org.aion4j.avm.idea.service.MethodDescriptor;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 import static org.aion4j.avm.idea.misc.AvmApiConstant.*;
 
@@ -24,6 +35,21 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
 
     private final static Logger log = Logger.getInstance(JCLWhitelistInspection.class);
 
+    private final static Key<CachedValue<List<CachedProblem>>> CACHED_PROBLEMS = Key.create("avm.jclwhitelist.problems");
+
+    //Verdict of one element. Descriptors are bound to the holder which created them, so only this is cached
+    private static class CachedProblem {
+        private final SmartPsiElementPointer<PsiElement> element;
+        private final String message;
+        private final ProblemHighlightType highlightType;
+
+        CachedProblem(SmartPsiElementPointer<PsiElement> element, String message, ProblemHighlightType highlightType) {
+            this.element = element;
+            this.message = message;
+            this.highlightType = highlightType;
+        }
+    }
+
     @NotNull
     @Override
     public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
@@ -36,13 +62,78 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
             if(!service.isInitialize()) {
                 service.init(psiFile.getProject());
             }
-            if(service.isUnderTestSource(psiFile.getVirtualFile())) {
+            //Only contract sources of AVM modules are checked
+            VirtualFile file = psiFile.getVirtualFile();
+            if(!service.isAvmFile(file) || service.isUnderTestSource(file)) {
                 return DummyJavaVisitor.CONSTANT;
             }
+
+            //Whitelist is loaded in background on project open. Files are highlighted again once it's ready
+            if(!service.isWhitelistReady())
+                return DummyJavaVisitor.CONSTANT;
         } else
             return DummyJavaVisitor.CONSTANT;
 
+        if(!isOnTheFly || !(psiFile instanceof PsiJavaFile))
+            return createCheckingVisitor(holder);
+
+        //Report problems of the whole file from cache. They are computed again only if the file, whitelist or roots are changed
         return new JavaElementVisitor() {
+            @Override
+            public void visitFile(PsiFile file) {
+                if(file != psiFile)
+                    return;
+
+                for (CachedProblem problem : getCachedProblems(psiFile, holder.getManager(), service)) {
+                    PsiElement element = problem.element.getElement();
+                    if(element != null)
+                        holder.registerProblem(element, problem.message, problem.highlightType);
+                }
+            }
+        };
+    }
+
+    private List<CachedProblem> getCachedProblems(PsiFile psiFile, InspectionManager manager, AvmService service) {
+        return CachedValuesManager.getCachedValue(psiFile, CACHED_PROBLEMS, () -> {
+            SmartPointerManager pointerManager = SmartPointerManager.getInstance(psiFile.getProject());
+
+            List<CachedProblem> problems = new ArrayList<>();
+            for (ProblemDescriptor descriptor : inspectFile(psiFile, manager, true)) {
+                if(descriptor.getPsiElement() != null)
+                    problems.add(new CachedProblem(pointerManager.createSmartPsiElementPointer(descriptor.getPsiElement()),
+                            descriptor.getDescriptionTemplate(), descriptor.getHighlightType()));
+            }
+
+            if(log.isDebugEnabled())
+                log.debug("JCL whitelist problems computed for " + psiFile.getName() + " : " + problems.size());
+
+            //Dropped on edits of this file only. Checked JCL types come from the sdk and avm.jar, tracked by project roots
+            return CachedValueProvider.Result.create(problems, psiFile,
+                    service.getWhitelistModificationTracker(), ProjectRootManager.getInstance(psiFile.getProject()));
+        });
+    }
+
+    /**
+     * Run whitelist and abi checks on the whole file. Should be called inside a read action.
+     */
+    public List<ProblemDescriptor> inspectFile(@NotNull PsiFile psiFile, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        ProblemsHolder problemsHolder = new ProblemsHolder(manager, psiFile, isOnTheFly);
+        PsiElementVisitor visitor = createCheckingVisitor(problemsHolder);
+
+        psiFile.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(PsiElement element) {
+                element.accept(visitor);
+                super.visitElement(element);
+            }
+        });
+
+        return problemsHolder.getResults();
+    }
+
+    @NotNull
+    private JavaElementVisitor createCheckingVisitor(@NotNull ProblemsHolder holder) {
+        return new TimedVisitor(new JavaElementVisitor() {
 
             Project project;
 
@@ -95,9 +186,7 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
 
             private void performAbiTypeCheckOnInitializableField(PsiField field) {
                 //Check Abi type check for field with Initializable annotation
-                PsiAnnotation initializableAnnotation = field.getAnnotation(INITIALIZABLE_ANNOTATION);
-
-                if (initializableAnnotation != null)  {
+                if (ContractMethodIndex.getKind(field) == ContractMethodIndex.Kind.INITIALIZABLE)  {
 
                     try {
                         String type = field.getType().getCanonicalText();
@@ -227,102 +316,131 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
             private void verifyIfMethodAllowed(PsiElement expression, AvmService service, String className, PsiMethod psiMethod) {
                 try {
 
-                    if(!service.isClassAllowed(project, className)) {
+                    String methodName = psiMethod.isConstructor()? "<init>" : psiMethod.getName();
+                    List<String> erasedParameterTypes = getErasedParameterTypes(psiMethod);
+
+                    //Same JCL methods are used across all contract files. Verdict is computed once per whitelist
+                    JCLVerdictCache verdictCache = service.getVerdictCache(project);
+                    String verdictKey = JCLVerdictCache.key(className, methodName, erasedParameterTypes);
+
+                    Integer verdict = verdictCache.get(verdictKey);
+                    if(verdict == null) {
+                        verdict = computeVerdict(service, className, methodName, erasedParameterTypes, psiMethod);
+                        verdictCache.put(verdictKey, verdict);
+                    }
+
+                    if((verdict & JCLVerdictCache.CLASS_NOT_ALLOWED) != 0) {
                         holder.registerProblem(expression.getOriginalElement(),
                                 String.format("%s is not allowed in a Avm smart contract project", className), ProblemHighlightType.GENERIC_ERROR);
                     }
 
-                    String methodName = psiMethod.isConstructor()? "<init>" : psiMethod.getName();
-                    List<MethodDescriptor> methodDescriptors = service.getAllowedMethodsForClass(project, className, methodName);
+                    if((verdict & JCLVerdictCache.METHOD_NOT_ALLOWED) != 0) {
+                        holder.registerProblem(expression.getOriginalElement(),
+                                String.format("%s.%s is not allowed in a Avm smart contract project", className, psiMethod.getName()), ProblemHighlightType.GENERIC_ERROR);
+                    }
+
+                } catch (Exception e) {
+                    //e.printStackTrace();
+                    if(log.isDebugEnabled()) {
+                        log.debug(e);
+                    }
+                }
+            }
 
-                    boolean isAllowed = false;
-                    for(MethodDescriptor methodDescriptor: methodDescriptors) {
+            private int computeVerdict(AvmService service, String className, String methodName, List<String> erasedParameterTypes, PsiMethod psiMethod) {
+                int verdict = JCLVerdictCache.ALLOWED;
 
-                       PsiParameter[] jvmParameters = psiMethod.getParameterList().getParameters();//getParameters();//getParameters();
+                if(!service.isClassAllowed(project, className))
+                    verdict |= JCLVerdictCache.CLASS_NOT_ALLOWED;
 
-                       if(methodDescriptor.getParams().size() == 0 && jvmParameters.length == 0)  {
-                           isAllowed = true;
-                           break;
-                       }
+                //Fast path. Exact match of erased signature
+                if(service.isMethodAllowed(project, className, methodName, erasedParameterTypes))
+                    return verdict;
+
+                //Only methods with type variable parameters need the assignability check below
+                if(!hasTypeParameter(psiMethod))
+                    return verdict | JCLVerdictCache.METHOD_NOT_ALLOWED;
 
-                       if(methodDescriptor.getParams().size() != jvmParameters.length) {
-                           continue;
-                       } else {
+                List<MethodDescriptor> methodDescriptors = service.getAllowedMethodsForClass(project, className, methodName);
 
-                           if(log.isDebugEnabled()) {
-                               log.debug("Matching param size >>> " + jvmParameters.length);
-                           }
+                boolean isAllowed = false;
+                for(MethodDescriptor methodDescriptor: methodDescriptors) {
+
+                   PsiParameter[] jvmParameters = psiMethod.getParameterList().getParameters();//getParameters();//getParameters();
+
+                   if(methodDescriptor.getParams().size() == 0 && jvmParameters.length == 0)  {
+                       isAllowed = true;
+                       break;
+                   }
+
+                   if(methodDescriptor.getParams().size() != jvmParameters.length) {
+                       continue;
+                   } else {
+
+                       if(log.isDebugEnabled()) {
+                           log.debug("Matching param size >>> " + jvmParameters.length);
                        }
+                   }
 
-                        for(int i = 0; i < methodDescriptor.getParams().size(); i++) {
+                    for(int i = 0; i < methodDescriptor.getParams().size(); i++) {
 
-                            String param = methodDescriptor.getParams().get(i);
+                        String param = methodDescriptor.getParams().get(i);
 
-                            if(log.isDebugEnabled()) {
-                                log.debug("Actual params:  " + param);
-                                log.debug("Method params " + jvmParameters[i].getType().getCanonicalText());
-                            }
+                        if(log.isDebugEnabled()) {
+                            log.debug("Actual params:  " + param);
+                            log.debug("Method params " + jvmParameters[i].getType().getCanonicalText());
+                        }
 
 
 
-                            if(param.equals(jvmParameters[i].getType().getCanonicalText())) {
-                                isAllowed = true;
-                            } else {
+                        if(param.equals(jvmParameters[i].getType().getCanonicalText())) {
+                            isAllowed = true;
+                        } else {
 
-                                String fqName = jvmParameters[i].getType().getCanonicalText();
-                                if(fqName.contains(">") && fqName.contains("<")) { //generic type
-                                    fqName = getClassNameFromGenericType(jvmParameters[i]);
+                            String fqName = jvmParameters[i].getType().getCanonicalText();
+                            if(fqName.contains(">") && fqName.contains("<")) { //generic type
+                                fqName = getClassNameFromGenericType(jvmParameters[i]);
 
-                                    if(fqName != null && param.equals(fqName)) {
-                                        if(log.isDebugEnabled()) {
-                                            log.debug("Match for fqName with generic : " + fqName); //exp java.util.Collection<?>
-                                        }
-                                        isAllowed = true;
-                                        continue;
+                                if(fqName != null && param.equals(fqName)) {
+                                    if(log.isDebugEnabled()) {
+                                        log.debug("Match for fqName with generic : " + fqName); //exp java.util.Collection<?>
                                     }
+                                    isAllowed = true;
+                                    continue;
                                 }
+                            }
+
+                            //Check if it's a generic type
+                            if(jvmParameters[i].getType().getCanonicalText().length() == 1) {
+                                String superClass = PsiUtil.resolveGenericsClassInType(jvmParameters[i].getType()).getElement().getSuperClass().getQualifiedName();
+
+                                if(param.equals(superClass)) {
 
-                                //Check if it's a generic type
-                                if(jvmParameters[i].getType().getCanonicalText().length() == 1) {
-                                    String superClass = PsiUtil.resolveGenericsClassInType(jvmParameters[i].getType()).getElement().getSuperClass().getQualifiedName();
+                                    if(log.isDebugEnabled())
+                                        log.debug("Super class for Generic >>> " + superClass);
 
-                                    if(param.equals(superClass)) {
+                                    isAllowed = true;
+                                } else {
+                                    if(jvmParameters[i].getType().isAssignableFrom(PsiType.getTypeByName(param, project, GlobalSearchScope.allScope(project)))) {
 
                                         if(log.isDebugEnabled())
-                                            log.debug("Super class for Generic >>> " + superClass);
+                                            log.debug("Can be accessible >>>" + jvmParameters[i].getType());
 
                                         isAllowed = true;
                                     } else {
-                                        if(jvmParameters[i].getType().isAssignableFrom(PsiType.getTypeByName(param, project, GlobalSearchScope.allScope(project)))) {
-
-                                            if(log.isDebugEnabled())
-                                                log.debug("Can be accessible >>>" + jvmParameters[i].getType());
-
-                                            isAllowed = true;
-                                        } else {
-                                            isAllowed = false;
-                                            break;
-                                        }
+                                        isAllowed = false;
+                                        break;
                                     }
                                 }
                             }
                         }
-
-                        if(isAllowed)
-                            break;
                     }
 
-                    if(!isAllowed) {
-                        holder.registerProblem(expression.getOriginalElement(),
-                                String.format("%s.%s is not allowed in a Avm smart contract project", className, psiMethod.getName()), ProblemHighlightType.GENERIC_ERROR);
-                    }
-
-                } catch (Exception e) {
-                    //e.printStackTrace();
-                    if(log.isDebugEnabled()) {
-                        log.debug(e);
-                    }
+                    if(isAllowed)
+                        break;
                 }
+
+                return isAllowed ? verdict : verdict | JCLVerdictCache.METHOD_NOT_ALLOWED;
             }
 
             @Override
@@ -371,9 +489,9 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
             @Override
             public void visitMethod(PsiMethod method) {
                 try {
-                    PsiAnnotation callableAnnotation = method.getAnnotation(CALLABLE_ANNOTATION);
+                    ContractMethodIndex.Kind kind = ContractMethodIndex.getKind(method);
 
-                    if (callableAnnotation != null)  {
+                    if (kind == ContractMethodIndex.Kind.CALLABLE)  {
                         //check if public
                         if(!method.getModifierList().hasModifierProperty("public")) {
                             holder.registerProblem(method.getModifierList().getOriginalElement(),
@@ -403,8 +521,7 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
                         }
                     }
 
-                    PsiAnnotation fallbackAnnotation = method.getAnnotation(FALLBACK_ANNOTATION);
-                    if(fallbackAnnotation != null) {
+                    if(kind == ContractMethodIndex.Kind.FALLBACK) {
                         if(!method.getModifierList().hasModifierProperty("static")) {
                             holder.registerProblem(method.getModifierList().getOriginalElement(),
                                     "@Fallback method should be static", ProblemHighlightType.GENERIC_ERROR);
@@ -429,7 +546,56 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
                         log.debug(e);
                 }
             }
-        };
+        });
+    }
+
+    //Records PerfMetrics of the checks. Elements without a probe are passed to the checking visitor as they are
+    private static class TimedVisitor extends JavaElementVisitor {
+        private final JavaElementVisitor delegate;
+
+        TimedVisitor(JavaElementVisitor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void visitField(PsiField field) {
+            long start = PerfMetrics.start();
+            delegate.visitField(field);
+            PerfMetrics.record(PerfMetrics.Probe.VISIT_FIELD, start);
+        }
+
+        @Override
+        public void visitNewExpression(PsiNewExpression expression) {
+            long start = PerfMetrics.start();
+            delegate.visitNewExpression(expression);
+            PerfMetrics.record(PerfMetrics.Probe.VISIT_NEW_EXPRESSION, start);
+        }
+
+        @Override
+        public void visitMethodCallExpression(PsiMethodCallExpression expression) {
+            long start = PerfMetrics.start();
+            delegate.visitMethodCallExpression(expression);
+            PerfMetrics.record(PerfMetrics.Probe.VISIT_METHOD_CALL, start);
+        }
+
+        @Override
+        public void visitLocalVariable(PsiLocalVariable variable) {
+            long start = PerfMetrics.start();
+            delegate.visitLocalVariable(variable);
+            PerfMetrics.record(PerfMetrics.Probe.VISIT_LOCAL_VARIABLE, start);
+        }
+
+        @Override
+        public void visitMethod(PsiMethod method) {
+            long start = PerfMetrics.start();
+            delegate.visitMethod(method);
+            PerfMetrics.record(PerfMetrics.Probe.VISIT_METHOD, start);
+        }
+
+        @Override
+        public void visitElement(PsiElement element) {
+            element.accept(delegate);
+        }
     }
 
     private String getClassNameFromGenericType(PsiVariable element) {
@@ -440,6 +606,29 @@ public class JCLWhitelistInspection extends AbstractBaseJavaLocalInspectionTool
         }
     }
 
+    private List<String> getErasedParameterTypes(PsiMethod psiMethod) {
+        PsiParameter[] parameters = psiMethod.getParameterList().getParameters();
+        List<String> types = new ArrayList<>(parameters.length);
+
+        for (PsiParameter parameter : parameters) {
+            PsiType type = parameter.getType();
+            if(type instanceof PsiEllipsisType)
+                type = ((PsiEllipsisType) type).toArrayType();
+
+            types.add(TypeConversionUtil.erasure(type).getCanonicalText());
+        }
+
+        return types;
+    }
+
+    private boolean hasTypeParameter(PsiMethod psiMethod) {
+        for (PsiParameter parameter : psiMethod.getParameterList().getParameters()) {
+            if(PsiUtil.resolveClassInType(parameter.getType()) instanceof PsiTypeParameter)
+                return true;
+        }
+        return false;
+    }
+
     private boolean isCheckedType(PsiType type) {
         if (!(type instanceof PsiClassType)) return false;
         else
@@ -0,0 +1,61 @@
+package org.aion4j.avm.idea.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates method args for each call of a load test from a template in the call dialog format
+ * (see {@link org.aion4j.avm.idea.misc.AvmMethodArgsHelper}). Placeholders:
+ * <pre>
+ * {i}          index of the call, from 0
+ * {sender}     address of the sender account of the call
+ * {random}     random non negative long
+ * {random:N}   random number from 0 to N - 1
+ * </pre>
+ * e.g. <code>-A {sender} -J {random:1000}</code>. Other text is kept as is.
+ */
+public class CallArgsGenerator {
+
+    private final static Pattern PLACEHOLDER = Pattern.compile("\\{(i|sender|random)(?::(\\d+))?}");
+
+    private final String template;
+
+    public CallArgsGenerator(String template) {
+        this.template = template != null ? template : "";
+
+        Matcher matcher = PLACEHOLDER.matcher(this.template);
+        while (matcher.find()) {
+            if(matcher.group(2) != null && (!"random".equals(matcher.group(1)) || Long.parseLong(matcher.group(2)) <= 0))
+                throw new IllegalArgumentException("Invalid placeholder " + matcher.group());
+        }
+    }
+
+    public String generate(int index, String sender) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String value;
+            switch (matcher.group(1)) {
+                case "i":
+                    value = String.valueOf(index);
+                    break;
+                case "sender":
+                    value = sender;
+                    break;
+                default:
+                    value = matcher.group(2) != null
+                            ? String.valueOf(ThreadLocalRandom.current().nextLong(Long.parseLong(matcher.group(2))))
+                            : String.valueOf(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE));
+            }
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+
+        return sb.toString();
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+}
@@ -0,0 +1,112 @@
+package org.aion4j.avm.idea.loadtest;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.jgoodies.forms.factories.Borders;
+import com.jgoodies.forms.layout.CellConstraints;
+import com.jgoodies.forms.layout.FormLayout;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+public class LoadTestDialog extends DialogWrapper {
+
+    private final static int MAX_CALLS = 1_000_000;
+    private final static int MAX_BATCH_SIZE = 64;
+    private final static int MAX_SENDERS = 1000;
+
+    private final JTextField callsTf = new JTextField("1000");
+    private final JTextField batchSizeTf = new JTextField("4");
+    private final JTextField sendersTf = new JTextField("4");
+    private final JTextField argsTf = new JTextField();
+
+    public LoadTestDialog(Project project, String method, @Nullable String args) {
+        super(project, false);
+
+        if(args != null)
+            argsTf.setText(args);
+
+        init();
+        setTitle(method + " - Load Test");
+    }
+
+    @Nullable
+    @Override
+    protected JComponent createCenterPanel() {
+        FormLayout layout = new FormLayout(
+                "right:max(40dlu;pref), 3dlu, 200dlu",
+                "p, 3dlu, p, 3dlu, p, 3dlu, p, 3dlu, p");
+
+        JPanel panel = new JPanel(layout);
+        panel.setBorder(Borders.DIALOG_BORDER);
+
+        CellConstraints cc = new CellConstraints();
+
+        panel.add(new JLabel("Calls"), cc.xy(1, 1));
+        panel.add(callsTf, cc.xy(3, 1));
+
+        panel.add(new JLabel("Calls per Batch"), cc.xy(1, 3));
+        panel.add(batchSizeTf, cc.xy(3, 3));
+
+        panel.add(new JLabel("Sender Accounts"), cc.xy(1, 5));
+        panel.add(sendersTf, cc.xy(3, 5));
+
+        panel.add(new JLabel("Args"), cc.xy(1, 7));
+        panel.add(argsTf, cc.xy(3, 7));
+
+        panel.add(new JLabel("<html>Placeholders: {i} call index, {sender} sender address, {random} or {random:N} random number</html>"),
+                cc.xy(3, 9));
+
+        return panel;
+    }
+
+    @Nullable
+    @Override
+    protected ValidationInfo doValidate() {
+        if(parse(callsTf, MAX_CALLS) <= 0)
+            return new ValidationInfo("Calls must be 1 to " + MAX_CALLS, callsTf);
+
+        if(parse(batchSizeTf, MAX_BATCH_SIZE) <= 0)
+            return new ValidationInfo("Calls per batch must be 1 to " + MAX_BATCH_SIZE, batchSizeTf);
+
+        if(parse(sendersTf, MAX_SENDERS) <= 0)
+            return new ValidationInfo("Sender accounts must be 1 to " + MAX_SENDERS, sendersTf);
+
+        if(parse(sendersTf, MAX_SENDERS) < parse(batchSizeTf, MAX_BATCH_SIZE))
+            return new ValidationInfo("Sender accounts must be at least the calls per batch", sendersTf);
+
+        try {
+            new CallArgsGenerator(argsTf.getText());
+        } catch (IllegalArgumentException e) {
+            return new ValidationInfo(e.getMessage(), argsTf);
+        }
+
+        return null;
+    }
+
+    private static int parse(JTextField textField, int max) {
+        try {
+            int value = Integer.parseInt(textField.getText().trim());
+            return value <= max ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getCalls() {
+        return parse(callsTf, MAX_CALLS);
+    }
+
+    public int getBatchSize() {
+        return parse(batchSizeTf, MAX_BATCH_SIZE);
+    }
+
+    public int getSenders() {
+        return parse(sendersTf, MAX_SENDERS);
+    }
+
+    public String getArgsTemplate() {
+        return argsTf.getText().trim();
+    }
+}
@@ -0,0 +1,135 @@
+package org.aion4j.avm.idea.loadtest;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileChooser.FileSaverDialog;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shows the {@link LoadTestResult} of the last load test.
+ */
+public class LoadTestPanel extends JPanel {
+
+    private final static String[] COLUMNS = {"Metric", "Value"};
+
+    private final Project project;
+    private final MetricsTableModel tableModel = new MetricsTableModel();
+    private final JLabel summaryLabel = new JLabel("Run a load test from the gutter of a @Callable method");
+    private final JButton exportButton = new JButton("Export CSV");
+
+    private LoadTestResult result;
+
+    public LoadTestPanel(Project project) {
+        super(new BorderLayout());
+        this.project = project;
+
+        exportButton.setEnabled(false);
+        exportButton.addActionListener(e -> exportCsv());
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(exportButton);
+        top.add(summaryLabel);
+
+        add(top, BorderLayout.NORTH);
+        add(new JBScrollPane(new JBTable(tableModel)), BorderLayout.CENTER);
+    }
+
+    /**
+     * Should be called in EDT.
+     */
+    public void setResult(LoadTestResult result) {
+        this.result = result;
+
+        summaryLabel.setText(result.getAbortMessage() != null
+                ? result.getMethod() + ": aborted. " + result.getAbortMessage()
+                : result.getMethod() + ": " + result.getCalls().size() + " calls, " + result.getFailureCount() + " failed");
+        exportButton.setEnabled(true);
+
+        tableModel.setRows(toRows(result));
+    }
+
+    private static List<String[]> toRows(LoadTestResult result) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Calls", result.getCalls().size() + " of " + result.getRequestedCalls()});
+        rows.add(new String[]{"Failed", String.valueOf(result.getFailureCount())});
+        rows.add(new String[]{"Calls per batch", String.valueOf(result.getBatchSize())});
+        rows.add(new String[]{"Sender accounts", String.valueOf(result.getSenders())});
+        rows.add(new String[]{"Duration (s)", String.format("%.2f", result.getElapsedNanos() / 1_000_000_000.0)});
+        rows.add(new String[]{"Throughput (calls/s)", String.format("%.1f", result.getThroughput())});
+        rows.add(new String[]{"p50 (ms)", String.format("%.2f", result.getPercentileNanos(0.5) / 1_000_000.0)});
+        rows.add(new String[]{"p95 (ms)", String.format("%.2f", result.getPercentileNanos(0.95) / 1_000_000.0)});
+        rows.add(new String[]{"p99 (ms)", String.format("%.2f", result.getPercentileNanos(0.99) / 1_000_000.0)});
+        rows.add(new String[]{"Max (ms)", String.format("%.2f", result.getPercentileNanos(1) / 1_000_000.0)});
+
+        double meanEnergy = result.getMeanEnergy();
+        rows.add(new String[]{"Energy per call", meanEnergy >= 0 ? String.format("%.0f", meanEnergy) : "n/a"});
+
+        for (Map.Entry<String, Long> failure : result.getFailures().entrySet())
+            rows.add(new String[]{"Failure: " + failure.getKey(), String.valueOf(failure.getValue())});
+
+        return rows;
+    }
+
+    private void exportCsv() {
+        if(result == null)
+            return;
+
+        FileSaverDialog dialog = FileChooserFactory.getInstance().createSaveFileDialog(
+                new FileSaverDescriptor("Export Load Test Results", "Save calls as CSV", "csv"), project);
+
+        VirtualFileWrapper fileWrapper = dialog.save(null, "avm-loadtest-" + result.getMethod() + ".csv");
+        if(fileWrapper == null)
+            return;
+
+        try {
+            Files.write(fileWrapper.getFile().toPath(), result.toCsv().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            IdeaUtil.showNotification(project, "AVM Load Test", "Unable to export results: " + e.getMessage(),
+                    NotificationType.ERROR, null);
+        }
+    }
+
+    private static class MetricsTableModel extends AbstractTableModel {
+        private List<String[]> rows = new ArrayList<>();
+
+        void setRows(List<String[]> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return rows.get(row)[column];
+        }
+    }
+}
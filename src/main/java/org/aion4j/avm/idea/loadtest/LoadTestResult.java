@@ -0,0 +1,195 @@
+package org.aion4j.avm.idea.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Calls of a load test. Latency percentiles are exact (nearest rank) over all finished calls.
+ */
+public class LoadTestResult {
+
+    public static class CallRecord {
+        private final int index;
+        private final String sender;
+        private final boolean success;
+        private final long latencyNanos;
+        private final Long energy;
+        private final String error;
+
+        CallRecord(int index, String sender, boolean success, long latencyNanos, Long energy, String error) {
+            this.index = index;
+            this.sender = sender;
+            this.success = success;
+            this.latencyNanos = latencyNanos;
+            this.energy = energy;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getSender() {
+            return sender;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        /**
+         * @return energy reported by the AVM, or null if not available
+         */
+        public Long getEnergy() {
+            return energy;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final String method;
+    private final int requestedCalls;
+    private final int batchSize;
+    private final int senders;
+    private final List<CallRecord> calls;
+    private final long elapsedNanos;
+    private final String abortMessage;
+
+    private final long[] sortedLatencies;
+
+    LoadTestResult(String method, int requestedCalls, int batchSize, int senders, List<CallRecord> calls,
+                   long elapsedNanos, String abortMessage) {
+        this.method = method;
+        this.requestedCalls = requestedCalls;
+        this.batchSize = batchSize;
+        this.senders = senders;
+        this.calls = Collections.unmodifiableList(new ArrayList<>(calls));
+        this.elapsedNanos = elapsedNanos;
+        this.abortMessage = abortMessage;
+
+        this.sortedLatencies = calls.stream().mapToLong(CallRecord::getLatencyNanos).toArray();
+        Arrays.sort(sortedLatencies);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getRequestedCalls() {
+        return requestedCalls;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getSenders() {
+        return senders;
+    }
+
+    /**
+     * @return finished calls, ordered by index. Fewer than requested if the test was cancelled or aborted
+     */
+    public List<CallRecord> getCalls() {
+        return calls;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return why the test stopped early because the embedded AVM was not usable, or null
+     */
+    public String getAbortMessage() {
+        return abortMessage;
+    }
+
+    public int getFailureCount() {
+        return (int) calls.stream().filter(c -> !c.isSuccess()).count();
+    }
+
+    /**
+     * @return finished calls per second
+     */
+    public double getThroughput() {
+        return elapsedNanos > 0 ? calls.size() * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    public long getPercentileNanos(double percentile) {
+        if(sortedLatencies.length == 0)
+            return 0;
+
+        int rank = (int) Math.ceil(percentile * sortedLatencies.length);
+        return sortedLatencies[Math.max(0, Math.min(rank, sortedLatencies.length) - 1)];
+    }
+
+    /**
+     * @return mean energy of the successful calls which report energy, or -1 if none do
+     */
+    public double getMeanEnergy() {
+        return calls.stream().filter(c -> c.isSuccess() && c.getEnergy() != null)
+                .mapToLong(CallRecord::getEnergy).average().orElse(-1);
+    }
+
+    /**
+     * @return number of failed calls by error message, most frequent first
+     */
+    public Map<String, Long> getFailures() {
+        Map<String, Long> counts = calls.stream().filter(c -> !c.isSuccess())
+                .collect(Collectors.groupingBy(c -> String.valueOf(c.getError()), Collectors.counting()));
+
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s: %d of %d calls, %d failed, batches of %d, %d senders in %.2f s",
+                method, calls.size(), requestedCalls, getFailureCount(), batchSize, senders, elapsedNanos / 1_000_000_000.0));
+        sb.append("\n");
+        sb.append(String.format("Throughput %.1f calls/s. Latency p50 %.2f ms, p95 %.2f ms, p99 %.2f ms",
+                getThroughput(), getPercentileNanos(0.5) / 1_000_000.0, getPercentileNanos(0.95) / 1_000_000.0,
+                getPercentileNanos(0.99) / 1_000_000.0));
+
+        double meanEnergy = getMeanEnergy();
+        if(meanEnergy >= 0)
+            sb.append(String.format(". Energy %.0f per call", meanEnergy));
+
+        if(abortMessage != null)
+            sb.append("\nAborted: ").append(abortMessage);
+
+        return sb.toString();
+    }
+
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("index,sender,status,latency_ms,energy,error\n");
+        for (CallRecord call : calls) {
+            sb.append(call.getIndex()).append(',')
+                    .append(call.getSender()).append(',')
+                    .append(call.isSuccess() ? "ok" : "failed").append(',')
+                    .append(String.format("%.3f", call.getLatencyNanos() / 1_000_000.0)).append(',')
+                    .append(call.getEnergy() != null ? call.getEnergy().toString() : "").append(',')
+                    .append(call.getError() != null ? quote(call.getError()) : "")
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\"", "\"\"").replace('\n', ' ') + "\"";
+    }
+}
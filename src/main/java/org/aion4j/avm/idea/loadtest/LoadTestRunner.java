@@ -0,0 +1,149 @@
+package org.aion4j.avm.idea.loadtest;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+import org.aion4j.avm.idea.scenario.ScenarioRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs a number of calls of one method in batches. A batch is one callBatch request to the daemon, which runs its
+ * calls back to back. Call i is sent by sender i % senders, so the calls of a batch have distinct senders and don't
+ * compete for the nonce of one account. Latency of a call is its execution time reported by the daemon, so it doesn't
+ * include the round trip or the wait for the request lock of the client. A failed call is recorded and the test goes
+ * on. An unusable AVM stops the test.
+ */
+public class LoadTestRunner {
+
+    /**
+     * Executes a daemon request. See AvmLocalDaemon for methods and params.
+     */
+    public interface CallExecutor {
+        /**
+         * @return result object with value and output
+         * @throws LocalAvmDaemonException if the request fails
+         */
+        JsonObject execute(String method, JsonObject params);
+    }
+
+    public interface ProgressListener {
+        void progress(int finished, int total);
+    }
+
+    private final CallExecutor executor;
+    private final CallArgsGenerator argsGenerator;
+
+    public LoadTestRunner(CallExecutor executor, CallArgsGenerator argsGenerator) {
+        this.executor = executor;
+        this.argsGenerator = argsGenerator;
+    }
+
+    /**
+     * Create the sender accounts of the test.
+     * @param balance balance of each account in nAmp
+     * @throws LocalAvmDaemonException if an account can't be created
+     */
+    public List<String> createSenders(int count, String balance) {
+        List<String> senders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JsonObject response = executor.execute("createAccount", new JsonObject().add("balance", balance));
+            String address = response.get("value") != null && response.get("value").isObject()
+                    ? response.get("value").asObject().getString("address", null) : null;
+            if(address == null)
+                throw new LocalAvmDaemonException("No address in createAccount response");
+
+            senders.add(address);
+        }
+        return senders;
+    }
+
+    /**
+     * @param contract contract address, or null for the last deployed contract
+     * @param value value of each call in nAmp, or null
+     * @param batchSize calls per request. Limited to the number of senders, so that senders in a batch are distinct
+     */
+    public LoadTestResult run(String contract, String method, String value, List<String> senders, int calls,
+                              int batchSize, ProgressListener listener, BooleanSupplier cancelled) {
+        int size = Math.max(1, Math.min(batchSize, Math.min(calls, senders.size())));
+
+        List<LoadTestResult.CallRecord> records = new ArrayList<>();
+        String abortMessage = null;
+
+        long start = System.nanoTime();
+        for (int first = 0; first < calls && abortMessage == null && !cancelled.getAsBoolean(); first += size) {
+            int last = Math.min(first + size, calls);
+            try {
+                records.addAll(callBatch(first, last, contract, method, value, senders));
+            } catch (LocalAvmDaemonException e) {
+                if(!e.isExecutionError())
+                    abortMessage = Objects.toString(e.getMessage(), e.toString());
+
+                for (int index = first; index < last; index++) {
+                    records.add(new LoadTestResult.CallRecord(index, getSender(senders, index), false, 0, null, e.getMessage()));
+                }
+            }
+            listener.progress(last, calls);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new LoadTestResult(method, calls, size, senders.size(), records, elapsed, abortMessage);
+    }
+
+    private List<LoadTestResult.CallRecord> callBatch(int first, int last, String contract, String method, String value,
+                                                      List<String> senders) {
+        JsonArray calls = new JsonArray();
+        for (int index = first; index < last; index++) {
+            String sender = getSender(senders, index);
+            calls.add(new JsonObject()
+                    .add("address", sender)
+                    .add("args", argsGenerator.generate(index, sender)));
+        }
+
+        JsonObject params = new JsonObject();
+        if(contract != null)
+            params.add("contract", contract);
+        params.add("method", method);
+        if(value != null)
+            params.add("value", value);
+        params.add("calls", calls);
+
+        JsonObject response = executor.execute("callBatch", params);
+        JsonValue results = response.get("value");
+        if(results == null || !results.isArray() || results.asArray().size() != last - first)
+            throw new LocalAvmDaemonException("Unexpected callBatch response " + response);
+
+        List<LoadTestResult.CallRecord> records = new ArrayList<>();
+        for (int index = first; index < last; index++) {
+            JsonObject result = results.asArray().get(index - first).asObject();
+            long latency = result.getLong("elapsedNanos", 0);
+
+            String error = result.getString("error", null);
+            if(error == null)
+                records.add(new LoadTestResult.CallRecord(index, getSender(senders, index), true, latency, parseEnergy(result), null));
+            else
+                records.add(new LoadTestResult.CallRecord(index, getSender(senders, index), false, latency, null, error));
+        }
+        return records;
+    }
+
+    private static String getSender(List<String> senders, int index) {
+        return senders.get(index % senders.size());
+    }
+
+    private static Long parseEnergy(JsonObject response) {
+        String energy = ScenarioRunner.getEnergy(response.get("value"));
+        if(energy == null)
+            return null;
+
+        try {
+            return Long.parseLong(energy.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
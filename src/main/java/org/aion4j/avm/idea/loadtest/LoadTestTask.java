@@ -0,0 +1,82 @@
+package org.aion4j.avm.idea.loadtest;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+import org.aion4j.avm.idea.misc.AionConversionUtil;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.perf.PerfToolWindowFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.idea.maven.project.MavenProject;
+
+import java.util.List;
+
+/**
+ * Runs a load test against the embedded AVM daemon of the module and shows the result in the AVM Performance tool window.
+ */
+public class LoadTestTask extends Task.Backgroundable {
+    private final static Logger log = Logger.getInstance(LoadTestTask.class);
+
+    private final MavenProject mavenProject;
+    private final String contract;
+    private final String method;
+    private final String value;
+    private final String argsTemplate;
+    private final int calls;
+    private final int batchSize;
+    private final int senders;
+
+    /**
+     * @param contract contract address, or null for the last deployed contract
+     * @param value value of each call in nAmp, or null
+     */
+    public LoadTestTask(Project project, MavenProject mavenProject, @Nullable String contract, String method,
+                        @Nullable String value, String argsTemplate, int calls, int batchSize, int senders) {
+        super(project, "Load testing " + method, true);
+        this.mavenProject = mavenProject;
+        this.contract = contract;
+        this.method = method;
+        this.value = value;
+        this.argsTemplate = argsTemplate;
+        this.calls = calls;
+        this.batchSize = batchSize;
+        this.senders = senders;
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        LocalAvmDaemonManager daemonManager = LocalAvmDaemonManager.getInstance(myProject);
+        LoadTestRunner runner = new LoadTestRunner((daemonMethod, params) -> daemonManager.request(mavenProject, daemonMethod, params),
+                new CallArgsGenerator(argsTemplate));
+
+        LoadTestResult result;
+        try {
+            indicator.setText("Creating " + senders + " sender accounts");
+            List<String> senderAccounts = runner.createSenders(senders, AionConversionUtil.aionTonAmp(100000).toString());
+
+            indicator.setIndeterminate(false);
+            result = runner.run(contract, method, value, senderAccounts, calls, batchSize,
+                    (finished, total) -> {
+                        indicator.setFraction((double) finished / total);
+                        indicator.setText(String.format("%s: %d of %d calls", method, finished, total));
+                    }, indicator::isCanceled);
+        } catch (LocalAvmDaemonException e) {
+            log.warn("Load test of " + method + " failed", e);
+            IdeaUtil.showNotification(myProject, "AVM Load Test", "Embedded AVM is not available: " + e.getMessage(),
+                    NotificationType.ERROR, null);
+            return;
+        }
+
+        if(log.isDebugEnabled())
+            log.debug(result.toText());
+
+        ApplicationManager.getApplication().invokeLater(() -> PerfToolWindowFactory.showLoadTestPanel(myProject).setResult(result),
+                myProject.getDisposed());
+    }
+}
@@ -0,0 +1,215 @@
+package org.aion4j.avm.idea.misc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Last built contract jar of a module together with a content hash of the build inputs (sources, resources, pom).
+ * Used to skip the build, when a contract is redeployed without changes.
+ * Files with the same length and modification time as in the last build are not read again, their hash is reused.
+ */
+public class ContractBuildCache {
+
+    public enum BuildMode {
+        UP_TO_DATE, //jar of the last build can be deployed as is
+        INCREMENTAL, //files are changed or added. Build without clean
+        CLEAN //files are removed or there is no previous build. Stale classes would end up in the jar
+    }
+
+    private final static String HASH_FILE = "build.hash";
+    private final static String STAMPS_FILE = "build.stamps"; //path, length, modification time and hash of every file
+    private final static String JAR_FILE = "contract.jar";
+
+    private final File cacheDir;
+
+    public ContractBuildCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Hash all files under the inputs. Inputs can be folders or files. Missing inputs are ignored.
+     * @param buildOptions options which change the jar, e.g. profile or jar optimization
+     */
+    public Snapshot snapshot(List<File> inputs, String buildOptions) throws IOException {
+        Map<String, FileStamp> lastStamps = readStamps();
+
+        List<Path> files = new ArrayList<>();
+        for (File input : inputs) {
+            if(!input.exists())
+                continue;
+
+            try (Stream<Path> paths = Files.walk(input.toPath())) {
+                files.addAll(paths.filter(Files::isRegularFile).collect(Collectors.toList()));
+            }
+        }
+        Collections.sort(files);
+
+        MessageDigest digest = newDigest();
+        digest.update(String.valueOf(buildOptions).getBytes(StandardCharsets.UTF_8));
+
+        Map<String, FileStamp> stamps = new TreeMap<>();
+        for (Path file : files) {
+            String name = file.toAbsolutePath().toString();
+            if(stamps.containsKey(name)) //overlapping inputs
+                continue;
+
+            long length = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+
+            FileStamp stamp = lastStamps.get(name);
+            if(stamp == null || stamp.length != length || stamp.modified != modified)
+                stamp = new FileStamp(length, modified, toHex(newDigest().digest(Files.readAllBytes(file))));
+            stamps.put(name, stamp);
+
+            digest.update((byte) 0);
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(stamp.hash.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new Snapshot(toHex(digest.digest()), stamps);
+    }
+
+    public BuildMode getBuildMode(Snapshot snapshot) {
+        String lastHash = read(HASH_FILE);
+        if(lastHash == null)
+            return BuildMode.CLEAN;
+
+        if(lastHash.equals(snapshot.getHash()) && new File(cacheDir, JAR_FILE).exists())
+            return BuildMode.UP_TO_DATE;
+
+        Map<String, FileStamp> lastStamps = readStamps();
+        if(lastStamps.isEmpty())
+            return BuildMode.CLEAN;
+
+        for (String file : lastStamps.keySet()) {
+            if(!snapshot.getFiles().contains(file))
+                return BuildMode.CLEAN;
+        }
+
+        return BuildMode.INCREMENTAL;
+    }
+
+    /**
+     * Copy the cached jar to the build folder, so that deploy finds it even if the build folder was cleaned.
+     */
+    public void restoreJar(File targetJar) throws IOException {
+        targetJar.getParentFile().mkdirs();
+        Files.copy(new File(cacheDir, JAR_FILE).toPath(), targetJar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Remember the jar built from the snapshot.
+     */
+    public void save(Snapshot snapshot, File builtJar) throws IOException {
+        if(!builtJar.exists())
+            return;
+
+        cacheDir.mkdirs();
+
+        //Invalidate first. A failure in between must not leave a hash for another jar
+        Files.deleteIfExists(new File(cacheDir, HASH_FILE).toPath());
+
+        Files.copy(builtJar.toPath(), new File(cacheDir, JAR_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        StringBuilder stamps = new StringBuilder();
+        for (Map.Entry<String, FileStamp> entry : snapshot.stamps.entrySet()) {
+            FileStamp stamp = entry.getValue();
+            stamps.append(entry.getKey()).append('\t').append(stamp.length).append('\t').append(stamp.modified)
+                    .append('\t').append(stamp.hash).append('\n');
+        }
+        write(STAMPS_FILE, stamps.toString());
+        write(HASH_FILE, snapshot.getHash());
+    }
+
+    private String read(String name) {
+        File file = new File(cacheDir, name);
+        if(!file.exists())
+            return null;
+
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Map<String, FileStamp> readStamps() {
+        Map<String, FileStamp> stamps = new HashMap<>();
+
+        String content = read(STAMPS_FILE);
+        if(content == null)
+            return stamps;
+
+        for (String line : content.split("\n")) {
+            String[] fields = line.split("\t");
+            if(fields.length != 4)
+                continue;
+
+            try {
+                stamps.put(fields[0], new FileStamp(Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3]));
+            } catch (NumberFormatException e) {
+                //Corrupted line. The file is hashed again
+            }
+        }
+        return stamps;
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.write(new File(cacheDir, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    public static class Snapshot {
+        private final String hash;
+        private final Map<String, FileStamp> stamps;
+
+        Snapshot(String hash, Map<String, FileStamp> stamps) {
+            this.hash = hash;
+            this.stamps = stamps;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public Set<String> getFiles() {
+            return stamps.keySet();
+        }
+    }
+
+    private static class FileStamp {
+        private final long length;
+        private final long modified;
+        private final String hash;
+
+        FileStamp(long length, long modified, String hash) {
+            this.length = length;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+}
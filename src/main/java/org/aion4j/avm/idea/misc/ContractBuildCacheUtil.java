@@ -0,0 +1,144 @@
+package org.aion4j.avm.idea.misc;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.aion4j.avm.idea.common.Tuple;
+import org.jetbrains.idea.maven.model.MavenArtifact;
+import org.jetbrains.idea.maven.model.MavenResource;
+import org.jetbrains.idea.maven.project.MavenProject;
+import org.jetbrains.idea.maven.project.MavenProjectsManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ContractBuildCacheUtil {
+    private final static Logger log = Logger.getInstance(ContractBuildCacheUtil.class);
+
+    private final static String CACHE_DIR = "aion4j-build";
+
+    /**
+     * Build goals to run before aion4j:deploy. No goals if the build inputs are not changed since the last build,
+     * package if files are changed or added, clean package otherwise. Should be called in EDT, the build inputs are
+     * hashed under a modal progress.
+     * @param buildOptions options which change the jar, e.g. profile or jar optimization
+     * @return build goals and a callback to run after a successful build, which remembers the jar
+     */
+    public static Tuple<List<String>, Runnable> getBuildGoals(Project project, MavenProject mavenProject, String buildOptions) {
+        Tuple<List<String>, Runnable> cleanBuild = new Tuple<>(new ArrayList<>(Arrays.asList("clean", "package")), () -> {});
+
+        File cacheDir = getCacheDir(project, mavenProject);
+        if(cacheDir == null)
+            return cleanBuild;
+
+        //Changes in editors are part of the build
+        FileDocumentManager.getInstance().saveAllDocuments();
+
+        ContractBuildCache buildCache = new ContractBuildCache(cacheDir);
+        File jar = PsiCustomUtil.getContractJar(mavenProject);
+
+        ContractBuildCache.Snapshot snapshot;
+        try {
+            List<File> inputs = getBuildInputs(project, mavenProject);
+            snapshot = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    () -> buildCache.snapshot(inputs, buildOptions),
+                    "Checking changes in " + mavenProject.getMavenId().getArtifactId(), false, project);
+        } catch (IOException e) {
+            log.warn("Unable to hash build inputs of " + mavenProject.getDirectory(), e);
+            return cleanBuild;
+        }
+
+        Runnable saveBuild = () -> {
+            try {
+                buildCache.save(snapshot, jar);
+            } catch (IOException e) {
+                log.warn("Unable to cache contract jar " + jar, e);
+            }
+        };
+
+        ContractBuildCache.BuildMode buildMode = buildCache.getBuildMode(snapshot);
+
+        if(log.isDebugEnabled())
+            log.debug("Build mode for " + mavenProject.getMavenId().getArtifactId() + " : " + buildMode);
+
+        switch (buildMode) {
+            case UP_TO_DATE:
+                try {
+                    buildCache.restoreJar(jar);
+                    return new Tuple<>(new ArrayList<>(), () -> {});
+                } catch (IOException e) {
+                    log.warn("Unable to restore cached contract jar to " + jar, e);
+                    return new Tuple<>(cleanBuild._1(), saveBuild);
+                }
+            case INCREMENTAL:
+                return new Tuple<>(new ArrayList<>(Collections.singletonList("package")), saveBuild);
+            default:
+                return new Tuple<>(cleanBuild._1(), saveBuild);
+        }
+    }
+
+    //Sources, resources and poms of the module, of the reactor modules it depends on and of the root project. Jars in
+    //the project's lib folder (e.g. avm.jar) and resolved dependency files, so that an updated SNAPSHOT is a change too
+    private static List<File> getBuildInputs(Project project, MavenProject mavenProject) {
+        MavenProjectsManager projectsManager = MavenProjectsManager.getInstance(project);
+
+        List<File> inputs = new ArrayList<>();
+        addModuleInputs(inputs, mavenProject);
+
+        //Dependencies are already transitive
+        for (MavenArtifact dependency : mavenProject.getDependencies()) {
+            MavenProject dependencyProject = projectsManager.findProject(dependency.getMavenId());
+            if(dependencyProject != null && dependencyProject != mavenProject)
+                addModuleInputs(inputs, dependencyProject);
+            else if(dependency.getFile() != null)
+                inputs.add(dependency.getFile());
+        }
+
+        MavenProject rootProject = projectsManager.findRootProject(mavenProject);
+        if(rootProject == null)
+            rootProject = mavenProject;
+        if(rootProject != mavenProject)
+            inputs.add(new File(rootProject.getFile().getPath()));
+
+        File[] libJars = new File(rootProject.getDirectory(), "lib").listFiles((dir, name) -> name.endsWith(".jar"));
+        if(libJars != null)
+            inputs.addAll(Arrays.asList(libJars));
+
+        return inputs;
+    }
+
+    private static void addModuleInputs(List<File> inputs, MavenProject mavenProject) {
+        String buildDirectory = FileUtil.toSystemIndependentName(mavenProject.getBuildDirectory());
+
+        List<String> paths = new ArrayList<>(mavenProject.getSources());
+        for (MavenResource resource : mavenProject.getResources()) {
+            paths.add(resource.getDirectory());
+        }
+
+        for (String path : paths) {
+            if(!FileUtil.isAncestor(buildDirectory, FileUtil.toSystemIndependentName(path), false)) //generated sources
+                inputs.add(new File(path));
+        }
+
+        inputs.add(new File(mavenProject.getFile().getPath()));
+    }
+
+    //Under .idea folder, so that the jar survives mvn clean
+    private static File getCacheDir(Project project, MavenProject mavenProject) {
+        if(mavenProject == null)
+            return null;
+
+        VirtualFile projectFile = project.getProjectFile();
+        if(projectFile == null)
+            return null;
+
+        return new File(projectFile.getParent().getPath(), CACHE_DIR + File.separator + mavenProject.getMavenId().getArtifactId());
+    }
+}
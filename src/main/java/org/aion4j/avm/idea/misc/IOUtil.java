@@ -24,9 +24,12 @@ package org.aion4j.avm.idea.misc;
 
 import com.intellij.openapi.diagnostic.Logger;
 
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Properties;
 
 public class IOUtil {
@@ -46,4 +49,29 @@ public class IOUtil {
             return null;
         }
     }
+
+    /**
+     * Copy a resource of the plugin jar to a folder. Used for helper programs which are run with the project's JDK.
+     * @return path of the copied file
+     */
+    public static String copyResource(String resourceName, String destFolder) {
+        try (InputStream in = IOUtil.class.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new RuntimeException(String.format("%s is not found in the plugin jar. ", resourceName));
+            }
+
+            File targetFile = new File(destFolder, resourceName);
+            try (OutputStream out = new FileOutputStream(targetFile)) {
+                byte[] buffer = new byte[8192];
+                int len;
+                while ((len = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, len);
+                }
+            }
+
+            return targetFile.getAbsolutePath();
+        } catch (IOException e) {
+            throw new RuntimeException("Error copying " + resourceName + " to " + destFolder, e);
+        }
+    }
 }
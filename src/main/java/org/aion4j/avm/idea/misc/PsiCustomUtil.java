@@ -6,7 +6,9 @@ import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootManager;
 import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiDirectory;
@@ -18,6 +20,8 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.idea.maven.project.MavenProject;
 import org.jetbrains.idea.maven.project.MavenProjectsManager;
 
+import java.io.File;
+
 public class PsiCustomUtil {
 
     @Nullable
@@ -110,6 +114,25 @@ public class PsiCustomUtil {
         return mavenProject;
     }
 
+    /**
+     * Maven project with pom.xml in the directory. e.g. working dir of a Maven run
+     */
+    @Nullable
+    public static MavenProject getMavenProject(Project project, String directory) {
+        if(directory == null)
+            return null;
+
+        VirtualFile pom = LocalFileSystem.getInstance().findFileByPath(FileUtil.toSystemIndependentName(directory) + "/pom.xml");
+        return pom != null ? MavenProjectsManager.getInstance(project).findProject(pom) : null;
+    }
+
+    /**
+     * Contract jar built by the module. Same as the jar deployed by aion4j maven plugin
+     */
+    public static File getContractJar(MavenProject mavenProject) {
+        return new File(mavenProject.getBuildDirectory(), mavenProject.getFinalName() + ".jar");
+    }
+
     public static String getMavenProjectName(MavenProject mavenProject) {
         if(mavenProject == null) return null;
         else
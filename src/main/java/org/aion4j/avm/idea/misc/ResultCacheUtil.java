@@ -35,7 +35,10 @@ public class ResultCacheUtil {
     private final static String STORAGE_DIR = "storage";
 
     public static ResultCache getResultCache(Project project, AnActionEvent event) {
-        MavenProject mavenProject = PsiCustomUtil.getMavenProject(project, event);
+        return getResultCache(project, PsiCustomUtil.getMavenProject(project, event));
+    }
+
+    public static ResultCache getResultCache(Project project, MavenProject mavenProject) {
         if(mavenProject == null) {
             return null;
         }
@@ -0,0 +1,201 @@
+package org.aion4j.avm.idea.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low overhead timing of plugin hot paths. Values are recorded into a fixed set of striped counters ({@link LongAdder}),
+ * so concurrent inspection threads don't contend and memory doesn't grow with the number of threads. A snapshot sums
+ * up the counters without locking, so values being recorded concurrently may be slightly behind.
+ * Reset doesn't touch the counters. It only remembers a baseline which is subtracted from later snapshots.
+ *
+ * Latencies are kept in a histogram with power of 2 nanosecond buckets, so percentiles are upper bounds of the bucket.
+ */
+public class PerfMetrics {
+
+    public enum Probe {
+        VISIT_METHOD_CALL("JCLWhitelistInspection.visitMethodCallExpression"),
+        VISIT_NEW_EXPRESSION("JCLWhitelistInspection.visitNewExpression"),
+        VISIT_FIELD("JCLWhitelistInspection.visitField"),
+        VISIT_LOCAL_VARIABLE("JCLWhitelistInspection.visitLocalVariable"),
+        VISIT_METHOD("JCLWhitelistInspection.visitMethod"),
+        IS_CLASS_ALLOWED("AvmService.isClassAllowed"),
+        GET_ALLOWED_METHODS("AvmService.getAllowedMethodsForClass"),
+        IS_METHOD_ALLOWED("AvmService.isMethodAllowed");
+
+        private final String displayName;
+
+        Probe(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final static int PROBES = Probe.values().length;
+    private final static int BUCKETS = 48; //2^47 ns is more than a day
+
+    private final static LongAdder[] counts = adders(PROBES);
+    private final static LongAdder[] totalNanos = adders(PROBES);
+    private final static LongAccumulator[] maxNanos = new LongAccumulator[PROBES];
+    private final static LongAdder[][] histogram = new LongAdder[PROBES][];
+
+    static {
+        for (int p = 0; p < PROBES; p++) {
+            maxNanos[p] = new LongAccumulator(Math::max, 0);
+            histogram[p] = adders(BUCKETS);
+        }
+    }
+
+    private static volatile Snapshot baseline = new Snapshot();
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public static void record(Probe probe, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        int p = probe.ordinal();
+
+        counts[p].increment();
+        totalNanos[p].add(nanos);
+        maxNanos[p].accumulate(nanos);
+        histogram[p][bucket(nanos)].increment();
+    }
+
+    /**
+     * Start counting from zero again.
+     */
+    public static void reset() {
+        baseline = aggregate();
+    }
+
+    public static List<ProbeStats> snapshot() {
+        Snapshot current = aggregate();
+        Snapshot base = baseline;
+
+        List<ProbeStats> stats = new ArrayList<>(PROBES);
+        for (Probe probe : Probe.values()) {
+            int p = probe.ordinal();
+
+            long[] histogram = new long[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) {
+                histogram[b] = current.histogram[p][b] - base.histogram[p][b];
+            }
+
+            stats.add(new ProbeStats(probe, current.counts[p] - base.counts[p], current.totalNanos[p] - base.totalNanos[p],
+                    current.maxNanos[p], histogram));
+        }
+
+        return stats;
+    }
+
+    public static String toCsv(List<ProbeStats> stats) {
+        StringBuilder sb = new StringBuilder("probe,count,total_ms,mean_us,p50_us,p90_us,p99_us,max_us\n");
+        for (ProbeStats stat : stats) {
+            sb.append(stat.getProbe().getDisplayName()).append(',')
+                    .append(stat.getCount()).append(',')
+                    .append(String.format("%.3f", stat.getTotalNanos() / 1_000_000.0)).append(',')
+                    .append(String.format("%.3f", stat.getMeanNanos() / 1000.0)).append(',')
+                    .append(String.format("%.3f", stat.getPercentileNanos(0.5) / 1000.0)).append(',')
+                    .append(String.format("%.3f", stat.getPercentileNanos(0.9) / 1000.0)).append(',')
+                    .append(String.format("%.3f", stat.getPercentileNanos(0.99) / 1000.0)).append(',')
+                    .append(String.format("%.3f", stat.getMaxNanos() / 1000.0)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static Snapshot aggregate() {
+        Snapshot sum = new Snapshot();
+        for (int p = 0; p < PROBES; p++) {
+            sum.counts[p] = counts[p].sum();
+            sum.totalNanos[p] = totalNanos[p].sum();
+            sum.maxNanos[p] = maxNanos[p].get();
+
+            for (int b = 0; b < BUCKETS; b++) {
+                sum.histogram[p][b] = histogram[p][b].sum();
+            }
+        }
+        return sum;
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static int bucket(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)); //0 for 0ns, i for [2^(i-1), 2^i)
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static class Snapshot {
+        private final long[] counts = new long[PROBES];
+        private final long[] totalNanos = new long[PROBES];
+        private final long[] maxNanos = new long[PROBES];
+        private final long[][] histogram = new long[PROBES][BUCKETS];
+    }
+
+    public static class ProbeStats {
+        private final Probe probe;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] histogram;
+
+        ProbeStats(Probe probe, long count, long totalNanos, long maxNanos, long[] histogram) {
+            this.probe = probe;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram;
+        }
+
+        public Probe getProbe() {
+            return probe;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Max since the plugin is loaded. Max is not reset.
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @return upper bound of the histogram bucket containing the percentile
+         */
+        public long getPercentileNanos(double percentile) {
+            if(count == 0)
+                return 0;
+
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int b = 0; b < histogram.length; b++) {
+                seen += histogram[b];
+                if(seen >= rank)
+                    return b == 0 ? 0 : 1L << b;
+            }
+            return maxNanos;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.aion4j.avm.idea.perf;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileChooser.FileSaverDialog;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.service.AvmService;
+import org.aion4j.avm.idea.service.JCLVerdictCache;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows {@link PerfMetrics} of the plugin and hits / misses of the project's {@link JCLVerdictCache}. Refreshed every 2 seconds while the panel is visible.
+ */
+public class PerfPanel extends JPanel implements Disposable {
+
+    private final static String[] COLUMNS = {"Probe", "Count", "Total (ms)", "Mean (µs)", "p50 (µs)", "p90 (µs)", "p99 (µs)", "Max (µs)"};
+
+    private final Project project;
+    private final StatsTableModel tableModel = new StatsTableModel();
+    private final JLabel verdictCacheLabel = new JLabel();
+    private final Timer refreshTimer;
+
+    public PerfPanel(Project project) {
+        super(new BorderLayout());
+        this.project = project;
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            PerfMetrics.reset();
+            getVerdictCache().resetCounters();
+            refresh();
+        });
+
+        JButton exportButton = new JButton("Export CSV");
+        exportButton.addActionListener(e -> exportCsv());
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttons.add(refreshButton);
+        buttons.add(resetButton);
+        buttons.add(exportButton);
+        buttons.add(verdictCacheLabel);
+
+        add(buttons, BorderLayout.NORTH);
+        add(new JBScrollPane(new JBTable(tableModel)), BorderLayout.CENTER);
+
+        refreshTimer = new Timer(2000, e -> {
+            if(isShowing())
+                refresh();
+        });
+        refreshTimer.start();
+
+        refresh();
+    }
+
+    public void refresh() {
+        tableModel.setStats(PerfMetrics.snapshot());
+
+        JCLVerdictCache verdictCache = getVerdictCache();
+        verdictCacheLabel.setText(String.format("JCL verdict cache: %d entries, %d hits, %d misses, hit rate %.1f%%",
+                verdictCache.size(), verdictCache.getHitCount(), verdictCache.getMissCount(), verdictCache.getHitRate() * 100));
+    }
+
+    private JCLVerdictCache getVerdictCache() {
+        return ServiceManager.getService(project, AvmService.class).getVerdictCache(project);
+    }
+
+    private void exportCsv() {
+        FileSaverDialog dialog = FileChooserFactory.getInstance().createSaveFileDialog(
+                new FileSaverDescriptor("Export AVM Performance Metrics", "Save metrics as CSV", "csv"), project);
+
+        VirtualFileWrapper fileWrapper = dialog.save(null, "avm-performance.csv");
+        if(fileWrapper == null)
+            return;
+
+        try {
+            Files.write(fileWrapper.getFile().toPath(), PerfMetrics.toCsv(PerfMetrics.snapshot()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            IdeaUtil.showNotification(project, "AVM Performance", "Unable to export metrics: " + e.getMessage(),
+                    NotificationType.ERROR, null);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+    }
+
+    private static class StatsTableModel extends AbstractTableModel {
+        private List<PerfMetrics.ProbeStats> stats = new ArrayList<>();
+
+        void setStats(List<PerfMetrics.ProbeStats> stats) {
+            this.stats = stats;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return stats.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            PerfMetrics.ProbeStats stat = stats.get(row);
+            switch (column) {
+                case 0: return stat.getProbe().getDisplayName();
+                case 1: return stat.getCount();
+                case 2: return String.format("%.2f", stat.getTotalNanos() / 1_000_000.0);
+                case 3: return String.format("%.2f", stat.getMeanNanos() / 1000.0);
+                case 4: return String.format("%.2f", stat.getPercentileNanos(0.5) / 1000.0);
+                case 5: return String.format("%.2f", stat.getPercentileNanos(0.9) / 1000.0);
+                case 6: return String.format("%.2f", stat.getPercentileNanos(0.99) / 1000.0);
+                case 7: return String.format("%.2f", stat.getMaxNanos() / 1000.0);
+                default: return null;
+            }
+        }
+    }
+}
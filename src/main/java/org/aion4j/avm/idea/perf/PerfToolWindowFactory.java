@@ -0,0 +1,50 @@
+package org.aion4j.avm.idea.perf;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentManager;
+import org.aion4j.avm.idea.loadtest.LoadTestPanel;
+import org.jetbrains.annotations.NotNull;
+
+public class PerfToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    public final static String TOOL_WINDOW_ID = "AVM Performance";
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        PerfPanel panel = new PerfPanel(project);
+
+        Content content = ContentFactory.SERVICE.getInstance().createContent(panel, "Plugin", false);
+        content.setDisposer(panel);
+        toolWindow.getContentManager().addContent(content);
+    }
+
+    /**
+     * Show the tool window with its load test panel, which is added on first use. Should be called in EDT.
+     */
+    public static LoadTestPanel showLoadTestPanel(Project project) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(TOOL_WINDOW_ID);
+        ContentManager contentManager = toolWindow.getContentManager();
+
+        Content loadTestContent = null;
+        for (Content content : contentManager.getContents()) {
+            if(content.getComponent() instanceof LoadTestPanel)
+                loadTestContent = content;
+        }
+
+        if(loadTestContent == null) {
+            loadTestContent = ContentFactory.SERVICE.getInstance().createContent(new LoadTestPanel(project), "Load Test", false);
+            contentManager.addContent(loadTestContent);
+        }
+
+        contentManager.setSelectedContent(loadTestContent);
+        toolWindow.show(null);
+
+        return (LoadTestPanel) loadTestContent.getComponent();
+    }
+}
@@ -0,0 +1,76 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.ParseException;
+import org.aion4j.avm.idea.exception.ScenarioFormatException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A list of contract interactions, run in one embedded AVM session. Scenario files are json:
+ * <pre>
+ * {
+ *   "from": "0xa0...",                                    //optional default sender
+ *   "steps": [
+ *     {"type": "account", "as": "alice", "balance": 100000000000000000000},
+ *     {"type": "deploy", "as": "token", "args": "-T 'MyToken' -I 18"},
+ *     {"type": "call", "contract": "$token", "method": "mint", "args": "-A $alice -K 1000"},
+ *     {"type": "call", "method": "balanceOf", "args": "-A $alice", "expect": "1000"},
+ *     {"type": "call", "from": "$alice", "method": "burn", "args": "-K 5000", "expectError": true},
+ *     {"type": "transfer", "to": "$alice", "value": 1000},
+ *     {"type": "balance", "address": "$alice"}
+ *   ]
+ * }
+ * </pre>
+ * Method args use the same format as the call dialog, see {@link org.aion4j.avm.idea.misc.AvmMethodArgsHelper}.
+ * Calls without contract go to the last deployed contract.
+ */
+public class Scenario {
+
+    private final String from;
+    private final List<ScenarioStep> steps;
+
+    private Scenario(String from, List<ScenarioStep> steps) {
+        this.from = from;
+        this.steps = steps;
+    }
+
+    public static Scenario parse(String text) {
+        JsonValue json;
+        try {
+            json = Json.parse(text);
+        } catch (ParseException e) {
+            throw new ScenarioFormatException("Invalid json at line " + e.getLocation().line + ": " + e.getMessage(), e);
+        }
+
+        if(!json.isObject())
+            throw new ScenarioFormatException("Scenario must be a json object");
+
+        JsonObject object = json.asObject();
+        JsonValue stepsValue = object.get("steps");
+        if(stepsValue == null || !stepsValue.isArray())
+            throw new ScenarioFormatException("steps array is missing");
+
+        List<ScenarioStep> steps = new ArrayList<>();
+        for (JsonValue stepValue : stepsValue.asArray()) {
+            if(!stepValue.isObject())
+                throw new ScenarioFormatException(String.format("Step %d: must be a json object", steps.size() + 1));
+
+            steps.add(ScenarioStep.parse(stepValue.asObject(), steps.size()));
+        }
+
+        return new Scenario(object.getString("from", null), Collections.unmodifiableList(steps));
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public List<ScenarioStep> getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,30 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.configurations.ConfigurationFactory;
+import com.intellij.execution.configurations.ConfigurationTypeBase;
+import com.intellij.execution.configurations.ConfigurationTypeUtil;
+import com.intellij.execution.configurations.RunConfiguration;
+import com.intellij.openapi.project.Project;
+import org.aion4j.avm.idea.misc.AvmIcons;
+import org.jetbrains.annotations.NotNull;
+
+public class ScenarioConfigurationType extends ConfigurationTypeBase {
+
+    public final static String ID = "AvmScenario";
+
+    public ScenarioConfigurationType() {
+        super(ID, "AVM Scenario", "Run a contract scenario file on the embedded AVM", AvmIcons.AION_ICON);
+
+        addFactory(new ConfigurationFactory(this) {
+            @NotNull
+            @Override
+            public RunConfiguration createTemplateConfiguration(@NotNull Project project) {
+                return new ScenarioRunConfiguration(project, this, "AVM Scenario");
+            }
+        });
+    }
+
+    public static ScenarioConfigurationType getInstance() {
+        return ConfigurationTypeUtil.findConfigurationType(ScenarioConfigurationType.class);
+    }
+}
@@ -0,0 +1,71 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Runs the scenario in a pooled thread. Stop skips the steps which are not started yet.
+ */
+public class ScenarioProcessHandler extends ProcessHandler {
+    private final static Logger log = Logger.getInstance(ScenarioProcessHandler.class);
+
+    private final Scenario scenario;
+    private final ScenarioRunner scenarioRunner;
+    private final ScenarioResultsConsole console;
+
+    private volatile boolean cancelled;
+
+    public ScenarioProcessHandler(Scenario scenario, ScenarioRunner scenarioRunner, ScenarioResultsConsole console) {
+        this.scenario = scenario;
+        this.scenarioRunner = scenarioRunner;
+        this.console = console;
+    }
+
+    @Override
+    public void startNotify() {
+        super.startNotify();
+        ApplicationManager.getApplication().executeOnPooledThread(this::runScenario);
+    }
+
+    private void runScenario() {
+        long start = System.currentTimeMillis();
+        int exitCode = 1;
+        try {
+            List<StepResult> results = scenarioRunner.run(scenario, console, () -> cancelled);
+            console.finished(results, System.currentTimeMillis() - start, cancelled);
+
+            exitCode = results.stream().allMatch(r -> r.getStatus() == StepResult.Status.PASSED) ? 0 : 1;
+        } catch (RuntimeException e) {
+            log.error("Scenario run failed", e);
+        } finally {
+            notifyProcessTerminated(exitCode);
+        }
+    }
+
+    @Override
+    protected void destroyProcessImpl() {
+        cancelled = true;
+    }
+
+    @Override
+    protected void detachProcessImpl() {
+        cancelled = true;
+        notifyProcessDetached();
+    }
+
+    @Override
+    public boolean detachIsDefault() {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public OutputStream getProcessInput() {
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.configurations.RunProfile;
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.execution.runners.DefaultProgramRunner;
+import org.jetbrains.annotations.NotNull;
+
+public class ScenarioProgramRunner extends DefaultProgramRunner {
+
+    @NotNull
+    @Override
+    public String getRunnerId() {
+        return "AvmScenarioRunner";
+    }
+
+    @Override
+    public boolean canRun(@NotNull String executorId, @NotNull RunProfile profile) {
+        return DefaultRunExecutor.EXECUTOR_ID.equals(executorId) && profile instanceof ScenarioRunConfiguration;
+    }
+}
@@ -0,0 +1,124 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.ui.ExecutionConsole;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Results table of a scenario run. Rows are updated as steps finish.
+ */
+public class ScenarioResultsConsole implements ExecutionConsole, ScenarioRunner.Listener {
+
+    private final static String[] COLUMNS = {"#", "Step", "Status", "Result", "Energy", "Latency (ms)", "Message"};
+
+    private final Project project;
+    private final StepTableModel tableModel;
+    private final JBTable table;
+    private final JLabel statusLabel = new JLabel("Running...");
+    private final JPanel panel = new JPanel(new BorderLayout());
+
+    public ScenarioResultsConsole(Project project, Scenario scenario) {
+        this.project = project;
+        this.tableModel = new StepTableModel(scenario.getSteps());
+        this.table = new JBTable(tableModel);
+
+        statusLabel.setBorder(JBUI.Borders.empty(2, 5));
+
+        panel.add(statusLabel, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(table), BorderLayout.CENTER);
+    }
+
+    @Override
+    public void stepFinished(StepResult result) {
+        runInEdt(() -> tableModel.setResult(result));
+    }
+
+    public void finished(List<StepResult> results, long elapsedMillis, boolean cancelled) {
+        int passed = 0;
+        int failed = 0;
+        for (StepResult result : results) {
+            if(result.getStatus() == StepResult.Status.PASSED)
+                passed++;
+            else if(result.getStatus() != StepResult.Status.SKIPPED)
+                failed++;
+        }
+        int skipped = results.size() - passed - failed;
+
+        String status = String.format("%s in %d ms. %d passed, %d failed, %d skipped",
+                cancelled ? "Stopped" : "Finished", elapsedMillis, passed, failed, skipped);
+        runInEdt(() -> statusLabel.setText(status));
+    }
+
+    @NotNull
+    @Override
+    public JComponent getComponent() {
+        return panel;
+    }
+
+    @Override
+    public JComponent getPreferredFocusableComponent() {
+        return table;
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private void runInEdt(Runnable runnable) {
+        ApplicationManager.getApplication().invokeLater(runnable, project.getDisposed());
+    }
+
+    private static class StepTableModel extends AbstractTableModel {
+        private final List<ScenarioStep> steps;
+        private final StepResult[] results;
+
+        StepTableModel(List<ScenarioStep> steps) {
+            this.steps = steps;
+            this.results = new StepResult[steps.size()];
+        }
+
+        void setResult(StepResult result) {
+            results[result.getIndex()] = result;
+            fireTableRowsUpdated(result.getIndex(), result.getIndex());
+        }
+
+        @Override
+        public int getRowCount() {
+            return steps.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            StepResult result = results[row];
+            switch (column) {
+                case 0: return row + 1;
+                case 1: return steps.get(row).getDisplayName();
+                case 2: return result != null ? result.getStatus() : "";
+                case 3: return result != null ? result.getResult() : null;
+                case 4: return result != null ? result.getEnergy() : null;
+                case 5: return result != null && result.getStatus() != StepResult.Status.SKIPPED ? result.getLatencyMs() : null;
+                case 6: return result != null ? result.getMessage() : null;
+                default: return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.Executor;
+import com.intellij.execution.configurations.ConfigurationFactory;
+import com.intellij.execution.configurations.RunConfiguration;
+import com.intellij.execution.configurations.RunConfigurationBase;
+import com.intellij.execution.configurations.RunProfileState;
+import com.intellij.execution.configurations.RuntimeConfigurationError;
+import com.intellij.execution.configurations.RuntimeConfigurationException;
+import com.intellij.execution.runners.ExecutionEnvironment;
+import com.intellij.openapi.options.SettingsEditor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.InvalidDataException;
+import com.intellij.openapi.util.JDOMExternalizerUtil;
+import com.intellij.openapi.util.WriteExternalException;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+/**
+ * Runs all steps of a scenario file in one embedded AVM session. The contract jar is not built by the run configuration,
+ * add a Maven "package" goal to "Before launch" for that.
+ */
+public class ScenarioRunConfiguration extends RunConfigurationBase {
+
+    private final static String SCENARIO_FILE = "SCENARIO_FILE";
+
+    private String scenarioFile;
+
+    public ScenarioRunConfiguration(Project project, ConfigurationFactory factory, String name) {
+        super(project, factory, name);
+    }
+
+    @NotNull
+    @Override
+    public SettingsEditor<? extends RunConfiguration> getConfigurationEditor() {
+        return new ScenarioSettingsEditor(getProject());
+    }
+
+    @Override
+    public void checkConfiguration() throws RuntimeConfigurationException {
+        if(StringUtil.isEmptyOrSpaces(scenarioFile))
+            throw new RuntimeConfigurationError("Scenario file is not set");
+
+        if(!new File(scenarioFile).isFile())
+            throw new RuntimeConfigurationError("Scenario file doesn't exist: " + scenarioFile);
+    }
+
+    @Nullable
+    @Override
+    public RunProfileState getState(@NotNull Executor executor, @NotNull ExecutionEnvironment environment) {
+        return new ScenarioRunState(getProject(), scenarioFile);
+    }
+
+    @Override
+    public void readExternal(@NotNull Element element) throws InvalidDataException {
+        super.readExternal(element);
+        scenarioFile = JDOMExternalizerUtil.readField(element, SCENARIO_FILE);
+    }
+
+    @Override
+    public void writeExternal(@NotNull Element element) throws WriteExternalException {
+        super.writeExternal(element);
+        JDOMExternalizerUtil.writeField(element, SCENARIO_FILE, scenarioFile);
+    }
+
+    public String getScenarioFile() {
+        return scenarioFile;
+    }
+
+    public void setScenarioFile(String scenarioFile) {
+        this.scenarioFile = scenarioFile;
+    }
+}
@@ -0,0 +1,45 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.actions.ConfigurationContext;
+import com.intellij.execution.actions.RunConfigurationProducer;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+
+/**
+ * Run a *.scenario.json file from the context menu
+ */
+public class ScenarioRunConfigurationProducer extends RunConfigurationProducer<ScenarioRunConfiguration> {
+
+    private final static String SCENARIO_FILE_SUFFIX = ".scenario.json";
+
+    public ScenarioRunConfigurationProducer() {
+        super(ScenarioConfigurationType.getInstance());
+    }
+
+    @Override
+    protected boolean setupConfigurationFromContext(ScenarioRunConfiguration configuration, ConfigurationContext context, Ref<PsiElement> sourceElement) {
+        VirtualFile file = getScenarioFile(context);
+        if(file == null)
+            return false;
+
+        configuration.setScenarioFile(file.getPath());
+        configuration.setName(file.getName().substring(0, file.getName().length() - SCENARIO_FILE_SUFFIX.length()));
+        return true;
+    }
+
+    @Override
+    public boolean isConfigurationFromContext(ScenarioRunConfiguration configuration, ConfigurationContext context) {
+        VirtualFile file = getScenarioFile(context);
+        return file != null && file.getPath().equals(configuration.getScenarioFile());
+    }
+
+    private static VirtualFile getScenarioFile(ConfigurationContext context) {
+        PsiElement element = context.getPsiLocation();
+        PsiFile psiFile = element != null ? element.getContainingFile() : null;
+        VirtualFile file = psiFile != null ? psiFile.getVirtualFile() : null;
+
+        return file != null && file.getName().endsWith(SCENARIO_FILE_SUFFIX) ? file : null;
+    }
+}
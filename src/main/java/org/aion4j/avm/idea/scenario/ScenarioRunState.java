@@ -0,0 +1,66 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.execution.DefaultExecutionResult;
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.ExecutionResult;
+import com.intellij.execution.Executor;
+import com.intellij.execution.configurations.RunProfileState;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.aion4j.avm.idea.daemon.LocalAvmDaemonManager;
+import org.aion4j.avm.idea.exception.ScenarioFormatException;
+import org.aion4j.avm.idea.misc.PsiCustomUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.idea.maven.project.MavenProject;
+import org.jetbrains.idea.maven.project.MavenProjectsManager;
+
+import java.io.IOException;
+
+public class ScenarioRunState implements RunProfileState {
+
+    private final Project project;
+    private final String scenarioFile;
+
+    public ScenarioRunState(Project project, String scenarioFile) {
+        this.project = project;
+        this.scenarioFile = scenarioFile;
+    }
+
+    @Nullable
+    @Override
+    public ExecutionResult execute(Executor executor, @NotNull ProgramRunner runner) throws ExecutionException {
+        VirtualFile file = scenarioFile != null ? LocalFileSystem.getInstance().refreshAndFindFileByPath(scenarioFile) : null;
+        if(file == null)
+            throw new ExecutionException("Scenario file not found: " + scenarioFile);
+
+        Scenario scenario;
+        try {
+            scenario = Scenario.parse(VfsUtilCore.loadText(file));
+        } catch (IOException e) {
+            throw new ExecutionException("Unable to read scenario file " + scenarioFile, e);
+        } catch (ScenarioFormatException e) {
+            throw new ExecutionException("Invalid scenario file. " + e.getMessage(), e);
+        }
+
+        //The scenario runs against the contract module which contains the file
+        Module module = ProjectFileIndex.getInstance(project).getModuleForFile(file);
+        MavenProject mavenProject = module != null ? MavenProjectsManager.getInstance(project).findProject(module) : null;
+        if(mavenProject == null)
+            throw new ExecutionException("Scenario file must be inside an AVM Maven module: " + scenarioFile);
+
+        LocalAvmDaemonManager daemonManager = LocalAvmDaemonManager.getInstance(project);
+        ScenarioRunner scenarioRunner = new ScenarioRunner((method, params) -> daemonManager.request(mavenProject, method, params),
+                PsiCustomUtil.getContractJar(mavenProject).getAbsolutePath());
+
+        ScenarioResultsConsole console = new ScenarioResultsConsole(project, scenario);
+        ScenarioProcessHandler processHandler = new ScenarioProcessHandler(scenario, scenarioRunner, console);
+
+        return new DefaultExecutionResult(console, processHandler);
+    }
+}
@@ -0,0 +1,214 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the steps of a {@link Scenario} one after another against one AVM session.
+ * A failed step doesn't stop the scenario. An unusable AVM does, remaining steps are skipped.
+ */
+public class ScenarioRunner {
+
+    /**
+     * Executes a daemon request. See AvmLocalDaemon for methods and params.
+     */
+    public interface StepExecutor {
+        /**
+         * @return result object with value and output
+         * @throws LocalAvmDaemonException if the request fails
+         */
+        JsonObject execute(String method, JsonObject params);
+    }
+
+    public interface Listener {
+        void stepFinished(StepResult result);
+    }
+
+    private final static Pattern ALIAS = Pattern.compile("\\$([A-Za-z_][A-Za-z0-9_]*)");
+
+    //Properties of avm-helper responses which hold the result, in order of preference
+    private final static String[] RESULT_PROPERTIES = {"decodedReturnData", "returnData", "data", "result", "address"};
+
+    private final StepExecutor executor;
+    private final String defaultJar;
+
+    private final Map<String, String> aliases = new HashMap<>();
+    private String lastContract;
+
+    public ScenarioRunner(StepExecutor executor, String defaultJar) {
+        this.executor = executor;
+        this.defaultJar = defaultJar;
+    }
+
+    public List<StepResult> run(Scenario scenario, Listener listener, BooleanSupplier cancelled) {
+        List<StepResult> results = new ArrayList<>();
+        boolean skipRemaining = false;
+
+        List<ScenarioStep> steps = scenario.getSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            ScenarioStep step = steps.get(i);
+
+            StepResult result;
+            if(skipRemaining || cancelled.getAsBoolean()) {
+                result = new StepResult(i, step, StepResult.Status.SKIPPED, null, null, 0, null);
+            } else {
+                result = runStep(i, step, scenario.getFrom());
+                skipRemaining = result.getStatus() == StepResult.Status.ERROR;
+            }
+
+            results.add(result);
+            listener.stepFinished(result);
+        }
+
+        return results;
+    }
+
+    private StepResult runStep(int index, ScenarioStep step, String defaultFrom) {
+        JsonObject params;
+        try {
+            params = toParams(step, defaultFrom);
+        } catch (IllegalArgumentException e) {
+            return new StepResult(index, step, StepResult.Status.FAILED, null, null, 0, e.getMessage());
+        }
+
+        long start = System.nanoTime();
+        JsonObject response;
+        try {
+            response = executor.execute(step.getType().getMethod(), params);
+        } catch (LocalAvmDaemonException e) {
+            long latency = (System.nanoTime() - start) / 1_000_000;
+
+            if(!e.isExecutionError())
+                return new StepResult(index, step, StepResult.Status.ERROR, null, null, latency, e.getMessage());
+
+            StepResult.Status status = step.isExpectError() ? StepResult.Status.PASSED : StepResult.Status.FAILED;
+            return new StepResult(index, step, status, null, null, latency, e.getMessage());
+        }
+        long latency = (System.nanoTime() - start) / 1_000_000;
+
+        JsonValue value = response.get("value");
+        String result = getResultText(value);
+        String energy = getEnergy(value);
+
+        if(step.getType() == ScenarioStep.Type.DEPLOY && value != null && value.isObject())
+            lastContract = value.asObject().getString("address", lastContract);
+
+        if(step.getAlias() != null && value != null && value.isObject() && value.asObject().getString("address", null) != null)
+            aliases.put(step.getAlias(), value.asObject().getString("address", null));
+
+        if(step.isExpectError())
+            return new StepResult(index, step, StepResult.Status.FAILED, result, energy, latency, "Expected an error");
+
+        if(step.getExpect() != null && !step.getExpect().trim().equals(result != null ? result.trim() : null)) {
+            return new StepResult(index, step, StepResult.Status.FAILED, result, energy, latency,
+                    String.format("Expected '%s' but was '%s'", step.getExpect(), result));
+        }
+
+        return new StepResult(index, step, StepResult.Status.PASSED, result, energy, latency, null);
+    }
+
+    private JsonObject toParams(ScenarioStep step, String defaultFrom) {
+        JsonObject params = new JsonObject();
+        String from = step.getFrom() != null ? step.getFrom() : defaultFrom;
+
+        switch (step.getType()) {
+            case DEPLOY:
+                add(params, "jar", step.getJar() != null ? step.getJar() : defaultJar);
+                add(params, "args", resolve(step.getArgs()));
+                add(params, "value", step.getValue());
+                add(params, "address", resolve(from));
+                break;
+            case CALL:
+                String contract = step.getContract() != null ? resolve(step.getContract()) : lastContract;
+                add(params, "contract", contract);
+                add(params, "method", step.getMethod());
+                add(params, "args", resolve(step.getArgs()));
+                add(params, "value", step.getValue());
+                add(params, "address", resolve(from));
+                break;
+            case TRANSFER:
+                add(params, "to", resolve(step.getTo()));
+                add(params, "value", step.getValue());
+                add(params, "address", resolve(from));
+                break;
+            case BALANCE:
+                add(params, "address", resolve(step.getAddress() != null ? step.getAddress() : from));
+                break;
+            case ACCOUNT:
+                add(params, "address", resolve(step.getAddress()));
+                add(params, "balance", step.getBalance());
+                break;
+        }
+
+        return params;
+    }
+
+    //Replace $alias with the address of the deploy or account step
+    private String resolve(String text) {
+        if(text == null)
+            return null;
+
+        Matcher matcher = ALIAS.matcher(text);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String address = aliases.get(matcher.group(1));
+            if(address == null)
+                throw new IllegalArgumentException("Unknown alias $" + matcher.group(1));
+
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(address));
+        }
+        matcher.appendTail(sb);
+
+        return sb.toString();
+    }
+
+    private static void add(JsonObject params, String name, String value) {
+        if(value != null)
+            params.add(name, value);
+    }
+
+    static String getResultText(JsonValue value) {
+        if(value == null || value.isNull())
+            return null;
+
+        if(value.isString())
+            return value.asString();
+
+        if(value.isObject()) {
+            JsonObject object = value.asObject();
+            for (String property : RESULT_PROPERTIES) {
+                JsonValue result = object.get(property);
+                if(result != null && !result.isNull())
+                    return result.isString() ? result.asString() : result.toString();
+            }
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * avm-helper responses report energy as energyUsed or similar.
+     * @return energy of the response value, or null if not available
+     */
+    public static String getEnergy(JsonValue value) {
+        if(value == null || !value.isObject())
+            return null;
+
+        for (JsonObject.Member member : value.asObject()) {
+            if(member.getName().toLowerCase().contains("energy") && !member.getValue().isObject() && !member.getValue().isArray()) {
+                JsonValue energy = member.getValue();
+                return energy.isString() ? energy.asString() : energy.toString();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.options.SettingsEditor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.TextFieldWithBrowseButton;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class ScenarioSettingsEditor extends SettingsEditor<ScenarioRunConfiguration> {
+
+    private final TextFieldWithBrowseButton scenarioFileField = new TextFieldWithBrowseButton();
+
+    public ScenarioSettingsEditor(Project project) {
+        scenarioFileField.addBrowseFolderListener("Scenario File", "Select the scenario json file", project,
+                FileChooserDescriptorFactory.createSingleFileDescriptor("json"));
+    }
+
+    @Override
+    protected void resetEditorFrom(@NotNull ScenarioRunConfiguration configuration) {
+        scenarioFileField.setText(configuration.getScenarioFile() != null ? FileUtil.toSystemDependentName(configuration.getScenarioFile()) : "");
+    }
+
+    @Override
+    protected void applyEditorTo(@NotNull ScenarioRunConfiguration configuration) {
+        configuration.setScenarioFile(FileUtil.toSystemIndependentName(scenarioFileField.getText().trim()));
+    }
+
+    @NotNull
+    @Override
+    protected JComponent createEditor() {
+        JPanel panel = new JPanel(new BorderLayout(5, 0));
+        panel.add(new JLabel("Scenario file:"), BorderLayout.WEST);
+        panel.add(scenarioFileField, BorderLayout.CENTER);
+
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(panel, BorderLayout.NORTH);
+        return wrapper;
+    }
+}
@@ -0,0 +1,170 @@
+package org.aion4j.avm.idea.scenario;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.aion4j.avm.idea.exception.ScenarioFormatException;
+
+/**
+ * One step of a {@link Scenario}. Addresses (from, to, contract, address) and method args can refer to a previous
+ * deploy or account step by <code>$alias</code>.
+ */
+public class ScenarioStep {
+
+    public enum Type {
+        DEPLOY("deploy", "deploy"),
+        CALL("call", "call"),
+        TRANSFER("transfer", "transfer"),
+        BALANCE("balance", "getBalance"),
+        ACCOUNT("account", "createAccount");
+
+        private final String name;
+        private final String method; //daemon method
+
+        Type(String name, String method) {
+            this.name = name;
+            this.method = method;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        static Type fromName(String name) {
+            for (Type type : values()) {
+                if(type.name.equals(name))
+                    return type;
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final String name;
+    private final String method;
+    private final String args;
+    private final String value;
+    private final String from;
+    private final String to;
+    private final String contract;
+    private final String address;
+    private final String balance;
+    private final String jar;
+    private final String alias;
+    private final String expect;
+    private final boolean expectError;
+
+    private ScenarioStep(Type type, JsonObject json) {
+        this.type = type;
+        this.name = getString(json, "name");
+        this.method = getString(json, "method");
+        this.args = getString(json, "args");
+        this.value = getString(json, "value");
+        this.from = getString(json, "from");
+        this.to = getString(json, "to");
+        this.contract = getString(json, "contract");
+        this.address = getString(json, "address");
+        this.balance = getString(json, "balance");
+        this.jar = getString(json, "jar");
+        this.alias = getString(json, "as");
+        this.expect = getString(json, "expect");
+        this.expectError = json.getBoolean("expectError", false);
+    }
+
+    static ScenarioStep parse(JsonObject json, int index) {
+        String typeName = getString(json, "type");
+        Type type = Type.fromName(typeName);
+        if(type == null)
+            throw new ScenarioFormatException(String.format("Step %d: unknown type '%s'", index + 1, typeName));
+
+        ScenarioStep step = new ScenarioStep(type, json);
+        if(type == Type.CALL && step.method == null)
+            throw new ScenarioFormatException(String.format("Step %d: method is required for call", index + 1));
+        if(type == Type.TRANSFER && (step.to == null || step.value == null))
+            throw new ScenarioFormatException(String.format("Step %d: to and value are required for transfer", index + 1));
+        if(type == Type.BALANCE && step.address == null && step.from == null)
+            throw new ScenarioFormatException(String.format("Step %d: address is required for balance", index + 1));
+
+        return step;
+    }
+
+    //Numbers and booleans are accepted for convenience. e.g. "value": 1000
+    private static String getString(JsonObject json, String name) {
+        JsonValue value = json.get(name);
+        if(value == null || value.isNull())
+            return null;
+
+        return value.isString() ? value.asString() : value.toString();
+    }
+
+    public String getDisplayName() {
+        if(name != null)
+            return name;
+
+        switch (type) {
+            case CALL:
+                return args != null ? "call " + method + " " + args : "call " + method;
+            case TRANSFER:
+                return "transfer " + value + " to " + to;
+            case BALANCE:
+                return "balance " + (address != null ? address : from);
+            default:
+                return alias != null ? type.getName() + " as " + alias : type.getName();
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getArgs() {
+        return args;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public String getContract() {
+        return contract;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getBalance() {
+        return balance;
+    }
+
+    public String getJar() {
+        return jar;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getExpect() {
+        return expect;
+    }
+
+    public boolean isExpectError() {
+        return expectError;
+    }
+}
@@ -0,0 +1,63 @@
+package org.aion4j.avm.idea.scenario;
+
+public class StepResult {
+
+    public enum Status {
+        PASSED, FAILED, ERROR, SKIPPED
+    }
+
+    private final int index;
+    private final ScenarioStep step;
+    private final Status status;
+    private final String result;
+    private final String energy;
+    private final long latencyMs;
+    private final String message;
+
+    StepResult(int index, ScenarioStep step, Status status, String result, String energy, long latencyMs, String message) {
+        this.index = index;
+        this.step = step;
+        this.status = status;
+        this.result = result;
+        this.energy = energy;
+        this.latencyMs = latencyMs;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public ScenarioStep getStep() {
+        return step;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return return value of a call, address of a deploy, balance etc. Null if the step failed
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return energy reported by the AVM, or null if not available
+     */
+    public String getEnergy() {
+        return energy;
+    }
+
+    /**
+     * @return round trip time of the step in the IDE
+     */
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
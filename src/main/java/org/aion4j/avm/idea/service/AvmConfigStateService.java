@@ -60,9 +60,11 @@ public class AvmConfigStateService implements PersistentStateComponent<AvmConfig
         public String avmStoragePath;
         public String localDefaultAccount;
         public boolean shouldAskCallerAccountEverytime;
+        public boolean disableLocalAvmDaemon; //Run local actions through Maven only
 
         //common
         public boolean disableJarOptimization;
+        public boolean parallelModuleDeploy; //Build and deploy modules of aggregator projects in parallel
     }
 
     State state;
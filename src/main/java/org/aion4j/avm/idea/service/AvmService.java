@@ -1,6 +1,8 @@
 package org.aion4j.avm.idea.service;
 
+import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.vfs.VirtualFile;
 
 import java.util.List;
@@ -9,7 +11,10 @@ public interface AvmService {
 
     public void init(Project project);
 
-    public boolean updateSourceAndTestFolders(Project project);
+    /**
+     * Drop the cached avm module classification, e.g. when a module is added. It's computed again on next lookup.
+     */
+    public void invalidateModuleClassification(Project project);
 
     public boolean isInitialize();
 
@@ -17,11 +22,54 @@ public interface AvmService {
 
     public boolean isAvmProject();
 
+    /**
+     * @return true if the module is a maven module with aion4j maven plugin
+     */
+    public boolean isAvmModule(Module module);
+
     public boolean isClassAllowed(Project project, String clazz);
 
     public List<MethodDescriptor> getAllowedMethodsForClass(Project project, String clazz, String methodName);
 
+    public boolean isMethodAllowed(Project project, String clazz, String methodName, List<String> erasedParamTypes);
+
+    /**
+     * @return true if the file belongs to an AVM module
+     */
+    public boolean isAvmFile(VirtualFile file);
+
     public boolean isUnderTestSource(VirtualFile file);
 
     public void resetJCLClassInitialization();
+
+    /**
+     * Load or regenerate JCL whitelist in a background task, if not already loaded or scheduled.
+     */
+    public void scheduleJCLWhitelistLoad(Project project);
+
+    /**
+     * @return true if JCL whitelist for the current avm.jar is loaded. Whitelist lookups and inspections report nothing
+     * till then, they never trigger the load themselves
+     */
+    public boolean isWhitelistReady();
+
+    /**
+     * @return current JCL whitelist snapshot. Empty if not ready
+     */
+    public JCLWhitelistLookup getJCLWhitelist(Project project);
+
+    /**
+     * @return type hierarchy of the JCL classes in the project's avm.jar. Read on first call, so should not be called in EDT
+     */
+    public JCLClassHierarchy getJCLClassHierarchy(Project project);
+
+    /**
+     * @return tracker which changes whenever a new JCL whitelist is published, so that cached inspection results can be dropped
+     */
+    public ModificationTracker getWhitelistModificationTracker();
+
+    /**
+     * @return verdict cache for the current whitelist and project sdk. A new empty cache is returned once either of them changes.
+     */
+    public JCLVerdictCache getVerdictCache(Project project);
 }
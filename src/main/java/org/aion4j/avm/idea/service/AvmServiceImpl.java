@@ -3,20 +3,32 @@ package org.aion4j.avm.idea.service;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.execution.process.OSProcessHandler;
-import com.intellij.execution.process.ProcessAdapter;
-import com.intellij.execution.process.ProcessEvent;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.execution.process.ProcessHandler;
 import com.intellij.ide.plugins.PluginManager;
 import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.JavaSdk;
+import com.intellij.openapi.projectRoots.JavaSdkVersion;
 import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ProjectFileIndex;
 import com.intellij.openapi.roots.ProjectRootManager;
-import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import org.aion4j.avm.idea.exception.JCLWhiteListLoadException;
+import org.aion4j.avm.idea.misc.IOUtil;
 import org.aion4j.avm.idea.misc.IdeaUtil;
+import org.aion4j.avm.idea.perf.PerfMetrics;
 import org.apache.commons.lang3.SystemUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.idea.maven.model.MavenPlugin;
@@ -28,8 +40,10 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class AvmServiceImpl implements AvmService {
+public class AvmServiceImpl implements AvmService, Disposable {
 
     private final static String AION4j_MAVEN_PLUGIN = "aion4j-maven-plugin";
     private static final Logger log = Logger.getInstance(AvmServiceImpl.class);
@@ -38,15 +52,21 @@ public class AvmServiceImpl implements AvmService {
     private boolean isMavenProject;
     private boolean isAvmProject;
 
-    private List<String> testFolders;
-    private List<String> sourceFolders;
+    private final Project project;
 
-    private boolean isJCLClassInitializationDone = false;
+    //Module -> has aion4j maven plugin. Dropped when project roots change (e.g. maven re-import)
+    private volatile ModuleClassification moduleClassification = new ModuleClassification(-1);
+
+    private volatile boolean isJCLClassInitializationDone = false; //whitelist load is scheduled or done
+    private volatile boolean isWhitelistReady = false;
 //    private Map<String, Map<String, List<MethodDescriptor>>> jclWhitelist;
 
     private JCLWhitelistHolder whitelistHolder;
+    private volatile JCLVerdictCache verdictCache = new JCLVerdictCache(-1);
+    private volatile JCLClassHierarchy classHierarchy;
 
-    public AvmServiceImpl() {
+    public AvmServiceImpl(Project project) {
+        this.project = project;
         this.whitelistHolder = new JCLWhitelistHolder();
     }
 
@@ -95,11 +115,8 @@ public class AvmServiceImpl implements AvmService {
             return;
         }
 
-        updateSourceAndTestFolders(project);
-
-        if(log.isDebugEnabled()) {
-            debug(() -> log.debug(">>>>>> Test source folders: " + testFolders));
-        }
+        invalidateModuleClassification(project);
+        whitelistHolder.getModificationTracker().incModificationCount(); //Inspection results computed as non-avm project are stale
 
        /* if(true)
         return;
@@ -131,29 +148,13 @@ public class AvmServiceImpl implements AvmService {
         }*/
     }
 
-    public boolean updateSourceAndTestFolders(Project project) {
-        List<MavenProject> mavenProjects = MavenProjectsManager.getInstance(project).getProjects();
-
-        if(mavenProjects != null && mavenProjects.size() > 0) {
-            this.testFolders = new ArrayList<>();
-            this.sourceFolders = new ArrayList<>();
-            for (MavenProject mvnProject : mavenProjects) {
-                List<String> testSources = mvnProject.getTestSources();
-                List<String> sources = mvnProject.getSources();
-
-                if(testSources != null && testSources.size() > 0) {
-                    this.testFolders.addAll(testSources);
-                }
-
-                if(sources != null && sources.size() > 0) {
-                    this.sourceFolders.addAll(sources);
-                }
-            }
-
-        } else {
-            return false;
-        }
-        return false;
+    /**
+     * Source and test roots are classified through {@link ProjectFileIndex}, so only the module classification needs to
+     * be dropped here. It's computed again on next lookup.
+     */
+    @Override
+    public void invalidateModuleClassification(Project project) {
+        moduleClassification = new ModuleClassification(-1);
     }
 
 //    private void attachProjectListener(MavenProjectsManager projectsManager) {
@@ -185,6 +186,7 @@ public class AvmServiceImpl implements AvmService {
     @Override
     public void setIsAvmProject(boolean flag) {
         this.isAvmProject = flag;
+        whitelistHolder.getModificationTracker().incModificationCount();
     }
 
     @Override
@@ -193,62 +195,202 @@ public class AvmServiceImpl implements AvmService {
     }
 
     @Override
-    public boolean isClassAllowed(Project project, String clazzName) {
-        if(!isAvmProject)
-            return true;
+    public boolean isAvmModule(Module module) {
+        if(module.isDisposed())
+            return false;
 
-        if(!isJCLClassInitializationDone)
-            getJCLListFromProjectLibrary(project);
+        long stamp = ProjectRootManager.getInstance(project).getModificationCount();
 
-        if(whitelistHolder.size() == 0)
-            return true;
+        ModuleClassification classification = moduleClassification;
+        if(classification.stamp != stamp) {
+            classification = new ModuleClassification(stamp);
+            moduleClassification = classification;
+        }
 
-        if(whitelistHolder.isClassPresent(clazzName))
-            return true;
-        else {
-            if(clazzName.startsWith("java.") || clazzName.startsWith("javax.") || clazzName.startsWith("org.xml"))
-                return false;
-            else
+        return classification.avmModules.computeIfAbsent(module, m -> {
+            MavenProject mavenProject = MavenProjectsManager.getInstance(project).findProject(m);
+
+            return mavenProject != null && mavenProject.findPlugin("org.aion4j", AION4j_MAVEN_PLUGIN) != null;
+        });
+    }
+
+    @Override
+    public boolean isAvmFile(VirtualFile file) {
+        if(file == null || !isAvmProject)
+            return false;
+
+        Module module = ProjectFileIndex.getInstance(project).getModuleForFile(file);
+        return module != null && isAvmModule(module);
+    }
+
+    @Override
+    public boolean isClassAllowed(Project project, String clazzName) {
+        long start = PerfMetrics.start();
+        try {
+            //Nothing is reported till the whitelist is loaded by the background task
+            if(!isAvmProject || !isWhitelistReady)
                 return true;
+
+            JCLWhitelistLookup whitelist = whitelistHolder.getWhitelist();
+            if(whitelist.isClassPresent(clazzName))
+                return true;
+            else {
+                if(clazzName.startsWith("java.") || clazzName.startsWith("javax.") || clazzName.startsWith("org.xml"))
+                    return false;
+                else
+                    return true;
+            }
+        } finally {
+            PerfMetrics.record(PerfMetrics.Probe.IS_CLASS_ALLOWED, start);
         }
     }
 
     @Override
     @NotNull
     public List<MethodDescriptor> getAllowedMethodsForClass(Project project, String clazz, String methodName) {
-        if(!isAvmProject)
-            return Collections.EMPTY_LIST;
+        long start = PerfMetrics.start();
+        try {
+            if(!isAvmProject || !isWhitelistReady)
+                return Collections.EMPTY_LIST;
 
-        if(!isJCLClassInitializationDone)
-            getJCLListFromProjectLibrary(project);
+            return whitelistHolder.getMethods(clazz, methodName);
+        } finally {
+            PerfMetrics.record(PerfMetrics.Probe.GET_ALLOWED_METHODS, start);
+        }
+    }
 
-        return whitelistHolder.getMethods(clazz, methodName);
+    @Override
+    public boolean isMethodAllowed(Project project, String clazz, String methodName, List<String> erasedParamTypes) {
+        long start = PerfMetrics.start();
+        try {
+            if(!isAvmProject || !isWhitelistReady)
+                return true;
 
+            return whitelistHolder.isMethodAllowed(clazz, methodName, erasedParamTypes);
+        } finally {
+            PerfMetrics.record(PerfMetrics.Probe.IS_METHOD_ALLOWED, start);
+        }
     }
 
     @Override
     public boolean isUnderTestSource(VirtualFile file) {
-
-        String filePath =file.getCanonicalPath();
-
-        if(testFolders != null) {
-            for (String testFolder : testFolders) {
-                if (filePath.contains(testFolder)) {
-                    return true;
-                }
-            }
-        } else {
+        if(file == null)
             return false;
-        }
 
-        return false;
+        return ProjectFileIndex.getInstance(project).isInTestSourceContent(file);
+    }
+
+    @Override
+    public void dispose() {
+        //Release shared whitelist when project is closed
+        whitelistHolder.dispose();
     }
 
     public void resetJCLClassInitialization() {
         this.isJCLClassInitializationDone = false;
+        this.isWhitelistReady = false;
+        this.classHierarchy = null; //avm.jar may have changed
+
+        scheduleJCLWhitelistLoad(project);
+    }
+
+    @Override
+    public ModificationTracker getWhitelistModificationTracker() {
+        return whitelistHolder.getModificationTracker();
+    }
+
+    @Override
+    public JCLVerdictCache getVerdictCache(Project project) {
+        //Both trackers only grow, so the sum changes whenever whitelist or project roots (incl. sdk) change
+        long stamp = whitelistHolder.getModificationTracker().getModificationCount()
+                + ProjectRootManager.getInstance(project).getModificationCount();
+
+        JCLVerdictCache cache = verdictCache;
+        if(cache.getStamp() != stamp) {
+            if(log.isDebugEnabled())
+                log.debug("JCL verdict cache invalidated. " + cache);
+
+            cache = cache.renew(stamp);
+            verdictCache = cache;
+        }
+
+        return cache;
+    }
+
+    @Override
+    public JCLWhitelistLookup getJCLWhitelist(Project project) {
+        return isWhitelistReady ? whitelistHolder.getWhitelist() : JCLWhitelist.EMPTY;
+    }
+
+    @Override
+    public JCLClassHierarchy getJCLClassHierarchy(Project project) {
+        JCLClassHierarchy hierarchy = classHierarchy;
+        if(hierarchy != null)
+            return hierarchy;
+
+        File pluginPath = PluginManager.getPlugin(PluginId.getId("org.aion4j.avm")).getPath();
+        File avmJar = getAvmJar(project, pluginPath);
+        try {
+            hierarchy = JCLClassHierarchy.read(avmJar);
+        } catch (IOException e) {
+            log.warn("Unable to read JCL class hierarchy from " + avmJar, e);
+            hierarchy = JCLClassHierarchy.EMPTY;
+        }
+
+        if(log.isDebugEnabled())
+            log.debug("JCL class hierarchy read from " + avmJar + ". Empty: " + hierarchy.isEmpty());
+
+        classHierarchy = hierarchy;
+        return hierarchy;
+    }
+
+    @Override
+    public boolean isWhitelistReady() {
+        return isWhitelistReady;
+    }
+
+    @Override
+    public void scheduleJCLWhitelistLoad(Project project) {
+        if(!isAvmProject || isJCLClassInitializationDone)
+            return;
+
+        //Project is not yet initialized properly. Scheduled again when project roots (incl. sdk) change
+        if(ProjectRootManager.getInstance(project).getProjectSdk() == null || whitelistHolder.getCacheFolder(project) == null)
+            return;
+
+        synchronized (this) {
+            if(isJCLClassInitializationDone)
+                return;
+            isJCLClassInitializationDone = true;
+        }
+
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if(project.isDisposed())
+                return;
+
+            new Task.Backgroundable(project, "Loading AVM JCL whitelist", true) {
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    try {
+                        loadJCLWhitelist(project, indicator);
+                    } catch (ProcessCanceledException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        log.warn("Error loading JCL whitelist", e);
+                        IdeaUtil.showNotification(project, "JCL Whitelist cache",
+                                "Error loading JCL whitelist. Whitelist checks are disabled until it's loaded. " +
+                                        "Change the project SDK or run Initialize to try again", NotificationType.ERROR, null);
+                    } finally {
+                        //Failed, cancelled or project not ready yet. Load again on next roots change or initialize
+                        if(!isWhitelistReady)
+                            isJCLClassInitializationDone = false;
+                    }
+                }
+            }.queue();
+        });
     }
 
-    private void getJCLListFromProjectLibrary(Project project) {
+    private void loadJCLWhitelist(Project project, ProgressIndicator indicator) {
         Sdk sdk = ProjectRootManager.getInstance(project).getProjectSdk();
 
         if(sdk == null) {
@@ -259,6 +401,10 @@ public class AvmServiceImpl implements AvmService {
             return;
         }
 
+        whitelistHolder.deleteLegacyCacheFiles(project);
+
+        indicator.setIndeterminate(true);
+
         String homePath = sdk.getHomePath();
         File pluginPath = PluginManager.getPlugin(PluginId.getId("org.aion4j.avm")).getPath();
 
@@ -268,13 +414,95 @@ public class AvmServiceImpl implements AvmService {
             log.debug("Plugin Path >>>> " + pluginPath);
         }
 
-        copyFile("/AvmDetailsGetter.class", pluginPath.getAbsolutePath());
+        File avmJar = getAvmJar(project, pluginPath);
+
+        //Plugin's default avm.jar. Whitelist index is generated at build time, usable if the project uses the same JDK version
+        if(isBundledAvmJar(avmJar, pluginPath) && whitelistHolder.loadBundled(jdkVersion -> isSameJdkVersion(sdk, jdkVersion))) {
+            debug(() -> log.debug("Using bundled JCL whitelist index"));
+
+            whitelistLoaded(project);
+            return;
+        }
+
+        //Check shared cache first. If the same avm.jar was already processed with this jdk, no need to run AvmDetailsGetter again
+        indicator.setText("Looking up shared JCL whitelist cache");
+        String sharedCacheKey = JCLWhitelistCacheStore.getCacheKey(avmJar, sdk.getVersionString());
+        if(whitelistHolder.loadShared(sharedCacheKey)) {
+            debug(() -> log.debug("JCL whitelist found in shared cache for key " + sharedCacheKey));
+
+            whitelistLoaded(project);
+            return;
+        }
+
+        indicator.checkCanceled();
+
+        //Extract in-process if project jdk is compatible with IDE's runtime. Otherwise fall back to AvmDetailsGetter process
+        boolean loaded = false;
+        if(isProjectJdkCompatible(sdk)) {
+            indicator.setText("Extracting JCL whitelist from " + avmJar.getName());
+            try {
+                Map<String, Map<String, List<MethodDescriptor>>> whitelist = JCLWhitelistExtractor.extract(avmJar);
+                indicator.checkCanceled();
+
+                whitelistHolder.init(project, whitelist, sharedCacheKey);
+                loaded = true;
+            } catch (JCLWhiteListLoadException e) {
+                log.warn("In-process JCL whitelist extraction failed. Trying with project jdk", e);
+            }
+        }
+
+        if(!loaded) {
+            indicator.setText("Generating JCL whitelist with project JDK");
+            loaded = runAvmDetailsGetter(project, sdk, pluginPath, avmJar, sharedCacheKey, indicator);
+        }
+
+        if(loaded)
+            whitelistLoaded(project);
+    }
+
+    //Mark whitelist ready and re-run highlighting, so that open editors are checked with the loaded whitelist
+    private void whitelistLoaded(Project project) {
+        isWhitelistReady = true;
+
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if(!project.isDisposed())
+                DaemonCodeAnalyzer.getInstance(project).restart();
+        });
+    }
+
+    private boolean isProjectJdkCompatible(Sdk sdk) {
+        try {
+            JavaSdkVersion projectJdkVersion = JavaSdk.getInstance().getVersion(sdk);
+            JavaSdkVersion ideJdkVersion = JavaSdkVersion.fromVersionString(SystemInfo.JAVA_VERSION);
+
+            return projectJdkVersion != null && projectJdkVersion == ideJdkVersion;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean isSameJdkVersion(Sdk sdk, String jdkVersion) {
+        if(jdkVersion == null)
+            return false;
+
+        try {
+            JavaSdkVersion projectJdkVersion = JavaSdk.getInstance().getVersion(sdk);
+            return projectJdkVersion != null && projectJdkVersion == JavaSdkVersion.fromVersionString(jdkVersion);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean runAvmDetailsGetter(Project project, Sdk sdk, File pluginPath, File avmJar, String sharedCacheKey, ProgressIndicator indicator) {
+        String homePath = sdk.getHomePath();
+
+        IOUtil.copyResource("/AvmDetailsGetter.class", pluginPath.getAbsolutePath());
 
         ArrayList<String> cmds = new ArrayList<>();
         cmds.add(homePath + File.separator + "bin/java");
         cmds.add("-cp");
        // cmds.add("lib" + File.separatorChar + "*");
-        cmds.add(buildClasspathForAvmDetails(project));
+        cmds.add(buildClasspathForAvmDetails(avmJar));
         cmds.add("-Dfile.encoding=UTF8");
         cmds.add("AvmDetailsGetter");
         cmds.add(whitelistHolder.getSourceFilePath(project));
@@ -290,55 +518,62 @@ public class AvmServiceImpl implements AvmService {
         ProcessHandler processHandler = null;
         try {
             processHandler = new OSProcessHandler(generalCommandLine);
-
             processHandler.startNotify();
-            processHandler.addProcessListener(new ProcessAdapter() {
 
-                @Override
-                public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
+            //Wait for the process. Kill it if the task is cancelled
+            while (!processHandler.waitFor(200)) {
+                if(indicator.isCanceled()) {
+                    processHandler.destroyProcess();
+                    indicator.checkCanceled();
                 }
+            }
 
-                @Override
-                public void processTerminated(@NotNull ProcessEvent event) {
-                    try {
-                        whitelistHolder.init(project);
-                    } catch (Exception e) {
-                        log.error("Error parsing JCLWhitelist json string >>> ", e);
-                        throw e;
-                    }
-                }
-            });
+            Integer exitCode = processHandler.getExitCode();
+            if(exitCode != null && exitCode != 0) {
+                log.warn("AvmDetailsGetter exited with code " + exitCode);
+                IdeaUtil.showNotification(project, "JCL Whitelist cache", "Error getting JCL whitelist data for AVM", NotificationType.ERROR, null);
+                return false;
+            }
+
+            try {
+                whitelistHolder.init(project, sharedCacheKey);
+            } catch (Exception e) {
+                log.error("Error parsing JCLWhitelist json string >>> ", e);
+                throw e;
+            }
+
+            return true;
         } catch (ExecutionException e) {
             log.error(e);
             IdeaUtil.showNotification(project, "JCL Whitelist cache", "Error getting JCL whitelist data for AVM", NotificationType.ERROR, null);
+            return false;
         }
-
-        try {
-            whitelistHolder.loadFromCache(project);
-        } catch (Exception e) {
-
-        }
-
-        isJCLClassInitializationDone = true;
     }
 
-    private String buildClasspathForAvmDetails(Project project) {
+    private File getAvmJar(Project project, File pluginPath) {
         //check if there is a lib folder in project. Ignore, if avmLib in maven project has anyother value for now.
         String basePath = project.getBasePath();
         File libAvmJar = new File(basePath + File.separatorChar + "lib" + File.separatorChar + "avm.jar");
 
-        String avmJarPath = null;
         if(libAvmJar.exists()) {
             if(log.isDebugEnabled())
                 log.debug("Lib avm.jar exists in project.. Use project's avm.jar");
 
-            avmJarPath = libAvmJar.getAbsolutePath();
+            return libAvmJar;
         } else {
             if(log.isDebugEnabled())
                 log.debug("Use default avm.jar from plugin.......");
 
-            avmJarPath = "lib" + File.separatorChar + "avm.jar";
+            return new File(pluginPath, "lib" + File.separatorChar + "avm.jar");
         }
+    }
+
+    private boolean isBundledAvmJar(File avmJar, File pluginPath) {
+        return avmJar.getAbsoluteFile().equals(new File(pluginPath, "lib" + File.separatorChar + "avm.jar").getAbsoluteFile());
+    }
+
+    private String buildClasspathForAvmDetails(File avmJar) {
+        String avmJarPath = avmJar.getAbsolutePath();
 
         char cpSeparator = ':';
 
@@ -358,56 +593,18 @@ public class AvmServiceImpl implements AvmService {
         return sb.toString();
     }
 
-    private String copyFile(String fileName, String destFolder) {
-
-        InputStream fileStream = null;
-        OutputStream out = null;
-        try {
-            // Read the file we're looking for
-            fileStream = this.getClass().getResourceAsStream(fileName);
-
-            if (fileStream == null) {
-                throw new RuntimeException(String.format("%s is not found in the plugin jar. ", fileName));
-            }
-
-            File targetFile
-                    = new File(destFolder, fileName);
-
-            out = new FileOutputStream(targetFile);
-
-            // Write the file to the temp file
-            byte[] buffer = new byte[1024];
-            int len = fileStream.read(buffer);
-            while (len != -1) {
-                out.write(buffer, 0, len);
-                len = fileStream.read(buffer);
-            }
-
-            // Return the path of this sweet new file
-            return targetFile.getAbsolutePath();
-
-        } catch (IOException e) {
-            throw new RuntimeException("Error copying " + fileName + "to " + destFolder, e);
-        } finally {
-            if (fileStream != null) {
-                try {
-                    fileStream.close();
-                } catch (IOException e) {
-                }
-            }
-
-            if (out != null) {
-                try {
-                    out.close();
-                } catch (IOException e) {
-                }
-            }
-        }
-    }
-
     private void debug(Runnable doWhenDebug) {
         if (log.isDebugEnabled()) {
             doWhenDebug.run();
         }
     }
+
+    private static class ModuleClassification {
+        private final long stamp;
+        private final Map<Module, Boolean> avmModules = new ConcurrentHashMap<>();
+
+        ModuleClassification(long stamp) {
+            this.stamp = stamp;
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package org.aion4j.avm.idea.service;
+
+import org.jetbrains.org.objectweb.asm.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Type hierarchy of the JCL classes supported by AVM, read from the shadow classes in avm.jar (s/java/lang/String for
+ * java/lang/String). For every class it keeps the supertypes and the declared methods (name and parameter count), so
+ * that a method referenced through a subtype can be resolved to the class declaring it, as PSI resolves a method call.
+ *
+ * All names are JVM internal names. Instances are immutable.
+ */
+public class JCLClassHierarchy {
+
+    public final static JCLClassHierarchy EMPTY = new JCLClassHierarchy(Collections.emptyMap());
+
+    private final static String SHADOW_PREFIX = "s/";
+    private final static String SHADOW_METHOD_PREFIX = "avm_";
+    private final static String OBJECT = "java/lang/Object";
+
+    private final Map<String, ClassInfo> classes;
+
+    private JCLClassHierarchy(Map<String, ClassInfo> classes) {
+        this.classes = classes;
+    }
+
+    public static JCLClassHierarchy read(File avmJar) throws IOException {
+        Map<String, ClassInfo> classes = new HashMap<>();
+
+        try (JarFile jarFile = new JarFile(avmJar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if(!entry.getName().startsWith(SHADOW_PREFIX) || !entry.getName().endsWith(".class"))
+                    continue;
+
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    ClassInfo classInfo = readShadowClass(new ClassReader(in));
+                    classes.put(classInfo.name, classInfo);
+                }
+            }
+        }
+
+        return new JCLClassHierarchy(classes);
+    }
+
+    private static ClassInfo readShadowClass(ClassReader classReader) {
+        ClassInfo classInfo = new ClassInfo();
+
+        classReader.accept(new ClassVisitor(Opcodes.ASM6) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                classInfo.name = unshadow(name);
+                classInfo.superName = superName != null && superName.startsWith(SHADOW_PREFIX) ? unshadow(superName) : null;
+
+                if(interfaces != null) {
+                    for (String anInterface : interfaces) {
+                        if(anInterface.startsWith(SHADOW_PREFIX)) //Skip AVM internal interfaces
+                            classInfo.interfaces.add(unshadow(anInterface));
+                    }
+                }
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                if(name.startsWith(SHADOW_METHOD_PREFIX))
+                    classInfo.methods.add(methodKey(name.substring(SHADOW_METHOD_PREFIX.length()), Type.getArgumentTypes(descriptor).length));
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return classInfo;
+    }
+
+    /**
+     * For tests and for hierarchies built from other sources.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    /**
+     * Find the class which declares the method, starting from the owner (static receiver type in bytecode). Superclasses
+     * are searched before interfaces, and java/lang/Object last, like method resolution of the JVM.
+     *
+     * @return internal name of the declaring class, or null if the owner is unknown or no class declares the method
+     */
+    public String findDeclaringClass(String owner, String methodName, int paramCount) {
+        if(!classes.containsKey(owner))
+            return null;
+
+        String key = methodKey(methodName, paramCount);
+
+        List<String> interfaces = new ArrayList<>();
+        for (String current = owner; current != null; ) {
+            ClassInfo classInfo = classes.get(current);
+            if(classInfo == null)
+                break;
+
+            if(classInfo.methods.contains(key))
+                return current;
+
+            interfaces.addAll(classInfo.interfaces);
+            current = classInfo.superName;
+        }
+
+        Deque<String> queue = new ArrayDeque<>(interfaces);
+        Set<String> visited = new HashSet<>();
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            ClassInfo classInfo = classes.get(current);
+            if(!visited.add(current) || classInfo == null)
+                continue;
+
+            if(classInfo.methods.contains(key))
+                return current;
+
+            queue.addAll(classInfo.interfaces);
+        }
+
+        //Object methods called on an interface type
+        ClassInfo object = classes.get(OBJECT);
+        if(object != null && object.methods.contains(key))
+            return OBJECT;
+
+        return null;
+    }
+
+    private static String unshadow(String name) {
+        return name.substring(SHADOW_PREFIX.length());
+    }
+
+    private static String methodKey(String name, int paramCount) {
+        return name + '/' + paramCount;
+    }
+
+    private static class ClassInfo {
+        private String name;
+        private String superName;
+        private final List<String> interfaces = new ArrayList<>();
+        private final Set<String> methods = new HashSet<>();
+    }
+
+    public static class Builder {
+        private final Map<String, ClassInfo> classes = new HashMap<>();
+
+        public Builder addClass(String name, String superName, String... interfaces) {
+            ClassInfo classInfo = new ClassInfo();
+            classInfo.name = name;
+            classInfo.superName = superName;
+            classInfo.interfaces.addAll(Arrays.asList(interfaces));
+
+            classes.put(name, classInfo);
+            return this;
+        }
+
+        /**
+         * Should be called after the class is added.
+         */
+        public Builder addMethod(String className, String methodName, int paramCount) {
+            classes.get(className).methods.add(methodKey(methodName, paramCount));
+            return this;
+        }
+
+        public JCLClassHierarchy build() {
+            return new JCLClassHierarchy(new HashMap<>(classes));
+        }
+    }
+}
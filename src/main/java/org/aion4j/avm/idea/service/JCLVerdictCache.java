@@ -0,0 +1,105 @@
+package org.aion4j.avm.idea.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Project level cache of whitelist verdicts for resolved JCL methods, keyed by class fqn, method name and erased
+ * parameter types. An instance belongs to one whitelist / project roots state (stamp). When the state changes, a new
+ * empty instance is created with {@link #renew(long)}, so verdicts computed against the old whitelist are never seen again.
+ * Hit and miss counters are carried over to the new instance.
+ */
+public class JCLVerdictCache {
+
+    public final static int ALLOWED = 0;
+    public final static int CLASS_NOT_ALLOWED = 1;
+    public final static int METHOD_NOT_ALLOWED = 2;
+
+    private final long stamp;
+    private final ConcurrentHashMap<String, Integer> verdicts = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public JCLVerdictCache(long stamp) {
+        this(stamp, new AtomicLong(), new AtomicLong());
+    }
+
+    private JCLVerdictCache(long stamp, AtomicLong hits, AtomicLong misses) {
+        this.stamp = stamp;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * @return an empty cache for the new stamp, sharing the hit/miss counters
+     */
+    public JCLVerdictCache renew(long newStamp) {
+        return new JCLVerdictCache(newStamp, hits, misses);
+    }
+
+    public long getStamp() {
+        return stamp;
+    }
+
+    public static String key(String className, String methodName, List<String> paramTypes) {
+        StringBuilder sb = new StringBuilder(className.length() + methodName.length() + paramTypes.size() * 16 + 3);
+        sb.append(className).append('#').append(methodName).append('(');
+        for (int i = 0; i < paramTypes.size(); i++) {
+            if(i > 0)
+                sb.append(',');
+            sb.append(paramTypes.get(i));
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * @return verdict flags or null if not yet computed
+     */
+    public Integer get(String key) {
+        Integer verdict = verdicts.get(key);
+        if(verdict != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+
+        return verdict;
+    }
+
+    public void put(String key, int verdict) {
+        verdicts.put(key, verdict);
+    }
+
+    public int size() {
+        return verdicts.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Start counting hits and misses from zero again. Cached verdicts are kept.
+     */
+    public void resetCounters() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JCLVerdictCache[size=%d, hits=%d, misses=%d, hitRate=%.2f%%]",
+                size(), getHitCount(), getMissCount(), getHitRate() * 100);
+    }
+}
@@ -0,0 +1,452 @@
+package org.aion4j.avm.idea.service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compact in-memory JCL whitelist. All class, method and parameter type names are interned into int ids. Parameter
+ * lists are stored as packed int signatures in one flat array (identical signatures are shared), and methods are kept
+ * in flat arrays grouped by class. Lookups of names and classes go through open-addressing hash tables.
+ *
+ * The tables are immutable after creation and method descriptors are cached in a concurrent map, so instances are safe
+ * to share between threads.
+ */
+public class JCLWhitelist implements JCLWhitelistLookup {
+
+    public final static JCLWhitelist EMPTY = from(Collections.emptyMap());
+
+    private final static int FLAG_STATIC = 1;
+
+    //interned names
+    private final String[] names;
+    private final int[] nameSlots; //open addressing: name id + 1, 0 = empty
+
+    //classes
+    private final int[] classNameIds;
+    private final int[] classMethodStart; //methods of a class are sorted by name id
+    private final int[] classMethodEnd;
+    private final int[] classSlots; //open addressing: class index + 1, 0 = empty
+
+    //methods
+    private final int[] methodNameIds;
+    private final int[] methodSigStart;
+    private final int[] methodSigLength;
+    private final byte[] methodFlags;
+
+    //packed parameter type ids
+    private final int[] signatures;
+
+    //open addressing: method index + 1, keyed by hash of (class, method name, erased parameter types)
+    private final int[] signatureSlots;
+
+    //Immutable descriptors of the overloads of a method, keyed by the index of its first overload. Built on first
+    //getMethods of the method, so only methods used in code get descriptors
+    private final Map<Integer, List<MethodDescriptor>> methodGroups = new ConcurrentHashMap<>();
+
+    private JCLWhitelist(String[] names, int[] classNameIds, int[] classMethodStart, int[] classMethodEnd,
+                         int[] methodNameIds, int[] methodSigStart, int[] methodSigLength, byte[] methodFlags, int[] signatures) {
+        this.names = names;
+        this.classNameIds = classNameIds;
+        this.classMethodStart = classMethodStart;
+        this.classMethodEnd = classMethodEnd;
+        this.methodNameIds = methodNameIds;
+        this.methodSigStart = methodSigStart;
+        this.methodSigLength = methodSigLength;
+        this.methodFlags = methodFlags;
+        this.signatures = signatures;
+
+        this.nameSlots = new int[tableSize(names.length)];
+        for (int id = 0; id < names.length; id++) {
+            insert(nameSlots, names[id].hashCode(), id);
+        }
+
+        this.classSlots = new int[tableSize(classNameIds.length)];
+        for (int ci = 0; ci < classNameIds.length; ci++) {
+            insert(classSlots, names[classNameIds[ci]].hashCode(), ci);
+        }
+
+        this.signatureSlots = new int[tableSize(methodNameIds.length)];
+        for (int ci = 0; ci < classNameIds.length; ci++) {
+            for (int mi = classMethodStart[ci]; mi < classMethodEnd[ci]; mi++) {
+                insert(signatureSlots, signatureHash(ci, methodNameIds[mi], signatures, methodSigStart[mi], methodSigLength[mi]), mi);
+            }
+        }
+    }
+
+    /**
+     * Build the interned model straight from the records of a whitelist index. Every name of the string table is
+     * decoded once, no intermediate map or descriptors are created.
+     */
+    public static JCLWhitelist from(JCLWhitelistIndex index) {
+        Builder builder = new Builder();
+
+        //string table offset -> name id
+        Map<Integer, Integer> offsetIds = new HashMap<>();
+        IntUnaryOperator nameId = offset -> offsetIds.computeIfAbsent(offset, o -> builder.intern(index.readString(o)));
+
+        for (int ci = 0; ci < index.size(); ci++) {
+            builder.addClass(nameId.applyAsInt(index.getClassNameOffset(ci)));
+
+            int firstMethod = index.getFirstMethod(ci);
+            for (int mi = firstMethod; mi < firstMethod + index.getMethodCount(ci); mi++) {
+                int[] paramIds = new int[index.getParamCount(mi)];
+                for (int p = 0; p < paramIds.length; p++) {
+                    paramIds[p] = nameId.applyAsInt(index.getParamTypeOffset(mi, p));
+                }
+
+                builder.addMethod(nameId.applyAsInt(index.getMethodNameOffset(mi)), paramIds, index.isStatic(mi));
+            }
+        }
+
+        return builder.build();
+    }
+
+    public static JCLWhitelist from(Map<String, Map<String, List<MethodDescriptor>>> whitelist) {
+        Builder builder = new Builder();
+
+        for (Map.Entry<String, Map<String, List<MethodDescriptor>>> classEntry : whitelist.entrySet()) {
+            builder.addClass(builder.intern(classEntry.getKey()));
+
+            for (Map.Entry<String, List<MethodDescriptor>> methodEntry : classEntry.getValue().entrySet()) {
+                int methodNameId = builder.intern(methodEntry.getKey());
+
+                for (MethodDescriptor methodDescriptor : methodEntry.getValue()) {
+                    List<String> params = methodDescriptor.getParams() != null ? methodDescriptor.getParams() : Collections.emptyList();
+
+                    int[] paramIds = new int[params.size()];
+                    for (int i = 0; i < paramIds.length; i++) {
+                        paramIds[i] = builder.intern(params.get(i));
+                    }
+
+                    builder.addMethod(methodNameId, paramIds, methodDescriptor.isStatic());
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return classNameIds.length;
+    }
+
+    /**
+     * @return number of distinct class, method and parameter type names. Every name is stored once
+     */
+    public int getNameCount() {
+        return names.length;
+    }
+
+    public int getMethodCount() {
+        return methodNameIds.length;
+    }
+
+    /**
+     * @return length of the packed parameter type table. Identical parameter lists are stored once
+     */
+    public int getSignatureTableLength() {
+        return signatures.length;
+    }
+
+    @Override
+    public boolean isClassPresent(String clazz) {
+        return classIndex(clazz) >= 0;
+    }
+
+    /**
+     * @return index of the class or -1 if class is not whitelisted
+     */
+    public int classIndex(String clazz) {
+        if (clazz == null || classSlots.length == 0)
+            return -1;
+
+        int mask = classSlots.length - 1;
+        for (int slot = mix(clazz.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = classSlots[slot];
+            if (entry == 0)
+                return -1;
+            if (names[classNameIds[entry - 1]].equals(clazz))
+                return entry - 1;
+        }
+    }
+
+    /**
+     * @return interned id of the name or -1 if the name is not used anywhere in the whitelist
+     */
+    public int nameId(String name) {
+        if (name == null || nameSlots.length == 0)
+            return -1;
+
+        int mask = nameSlots.length - 1;
+        for (int slot = mix(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = nameSlots[slot];
+            if (entry == 0)
+                return -1;
+            if (names[entry - 1].equals(name))
+                return entry - 1;
+        }
+    }
+
+    public String name(int nameId) {
+        return names[nameId];
+    }
+
+    /**
+     * @return shared, unmodifiable descriptors of the overloads. Created on the first call for a method, later calls
+     * return the same list
+     */
+    @Override
+    public List<MethodDescriptor> getMethods(String clazz, String methodName) {
+        int ci = classIndex(clazz);
+        if (ci < 0)
+            return Collections.EMPTY_LIST;
+
+        int nameId = nameId(methodName);
+        if (nameId < 0)
+            return Collections.EMPTY_LIST;
+
+        int first = firstMethod(ci, nameId);
+        if (first < classMethodEnd[ci] && methodNameIds[first] == nameId)
+            return methodGroups.computeIfAbsent(first, k -> createMethodGroup(ci, first));
+
+        return Collections.EMPTY_LIST;
+    }
+
+    private List<MethodDescriptor> createMethodGroup(int ci, int first) {
+        List<MethodDescriptor> group = new ArrayList<>();
+        for (int mi = first; mi < classMethodEnd[ci] && methodNameIds[mi] == methodNameIds[first]; mi++) {
+            group.add(new MethodDescriptor(names[methodNameIds[mi]], new SignatureView(methodSigStart[mi], methodSigLength[mi]),
+                    (methodFlags[mi] & FLAG_STATIC) != 0));
+        }
+        return Collections.unmodifiableList(group);
+    }
+
+    /**
+     * Check if a method with the exact erased signature is whitelisted. This is a single hash lookup.
+     *
+     * @param clazz class fqn
+     * @param methodName method name or &lt;init&gt; for constructors
+     * @param paramTypes canonical names of erased parameter types
+     */
+    @Override
+    public boolean isMethodAllowed(String clazz, String methodName, List<String> paramTypes) {
+        int ci = classIndex(clazz);
+        if (ci < 0)
+            return false;
+
+        int nameId = nameId(methodName);
+        if (nameId < 0)
+            return false;
+
+        int[] paramIds = new int[paramTypes.size()];
+        for (int i = 0; i < paramIds.length; i++) {
+            paramIds[i] = nameId(paramTypes.get(i));
+            if (paramIds[i] < 0) //type is not used anywhere in the whitelist
+                return false;
+        }
+
+        int mask = signatureSlots.length - 1;
+        for (int slot = mix(signatureHash(ci, nameId, paramIds, 0, paramIds.length)) & mask; ; slot = (slot + 1) & mask) {
+            int entry = signatureSlots[slot];
+            if (entry == 0)
+                return false;
+
+            int mi = entry - 1;
+            if (mi >= classMethodStart[ci] && mi < classMethodEnd[ci] && methodNameIds[mi] == nameId
+                    && sameSignature(mi, paramIds))
+                return true;
+        }
+    }
+
+    private boolean sameSignature(int mi, int[] paramIds) {
+        if (methodSigLength[mi] != paramIds.length)
+            return false;
+
+        int start = methodSigStart[mi];
+        for (int i = 0; i < paramIds.length; i++) {
+            if (signatures[start + i] != paramIds[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static int signatureHash(int ci, int nameId, int[] paramIds, int start, int length) {
+        int hash = 31 * ci + nameId;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + paramIds[i];
+        }
+        return hash;
+    }
+
+    //Lower bound of methods with the given name id in class's method range
+    private int firstMethod(int ci, int nameId) {
+        int low = classMethodStart[ci];
+        int high = classMethodEnd[ci];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (methodNameIds[mid] < nameId)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static void insert(int[] table, int hash, int value) {
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value + 1;
+    }
+
+    //Table with load factor <= 0.5
+    private static int tableSize(int count) {
+        int size = 2;
+        while (size < count * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    //Spread the bits, as String hash codes of similar class names are close to each other and would cluster in linear probing
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //Read-only view of a packed signature as parameter type names
+    private class SignatureView extends AbstractList<String> implements RandomAccess {
+        private final int start;
+        private final int length;
+
+        SignatureView(int start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            return names[signatures[start + index]];
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+
+    //Collects the whitelist class by class. Methods of a class are sorted by name id when the next class starts,
+    //overloads keep their order
+    private static class Builder {
+        private final Map<String, Integer> nameIds = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        private final Map<List<Integer>, Integer> signatureIndex = new HashMap<>();
+        private final IntList signatures = new IntList();
+
+        private final IntList classNameIds = new IntList();
+        private final IntList classMethodStart = new IntList();
+        private final IntList classMethodEnd = new IntList();
+
+        private final IntList methodNameIds = new IntList();
+        private final IntList methodSigStart = new IntList();
+        private final IntList methodSigLength = new IntList();
+        private final IntList methodFlags = new IntList();
+
+        //name id, signature start, signature length and flags of the methods of the current class
+        private final List<int[]> classMethods = new ArrayList<>();
+
+        int intern(String name) {
+            Integer id = nameIds.get(name);
+            if (id == null) {
+                id = names.size();
+                names.add(name);
+                nameIds.put(name, id);
+            }
+            return id;
+        }
+
+        void addClass(int nameId) {
+            endClass();
+            classNameIds.add(nameId);
+        }
+
+        void addMethod(int nameId, int[] paramIds, boolean isStatic) {
+            List<Integer> sig = new ArrayList<>(paramIds.length);
+            for (int paramId : paramIds) {
+                sig.add(paramId);
+            }
+
+            Integer sigStart = signatureIndex.get(sig);
+            if (sigStart == null) {
+                sigStart = signatures.size();
+                for (int paramId : paramIds) {
+                    signatures.add(paramId);
+                }
+                signatureIndex.put(sig, sigStart);
+            }
+
+            classMethods.add(new int[]{nameId, sigStart, paramIds.length, isStatic ? FLAG_STATIC : 0});
+        }
+
+        private void endClass() {
+            if (classMethodStart.size() == classNameIds.size())
+                return;
+
+            classMethods.sort(Comparator.comparingInt(method -> method[0]));
+
+            classMethodStart.add(methodNameIds.size());
+            for (int[] method : classMethods) {
+                methodNameIds.add(method[0]);
+                methodSigStart.add(method[1]);
+                methodSigLength.add(method[2]);
+                methodFlags.add(method[3]);
+            }
+            classMethodEnd.add(methodNameIds.size());
+
+            classMethods.clear();
+        }
+
+        JCLWhitelist build() {
+            endClass();
+
+            byte[] flags = new byte[methodFlags.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = (byte) methodFlags.get(i);
+            }
+
+            return new JCLWhitelist(names.toArray(new String[0]), classNameIds.toArray(), classMethodStart.toArray(),
+                    classMethodEnd.toArray(), methodNameIds.toArray(), methodSigStart.toArray(), methodSigLength.toArray(),
+                    flags, signatures.toArray());
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.aion4j.avm.idea.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content addressed store for generated JCL whitelists, shared by all projects of the user.
+ * A whitelist is keyed by the digest of the effective avm.jar and the JDK version used to generate it,
+ * so projects which use the same avm.jar don't need to run AvmDetailsGetter again.
+ */
+public class JCLWhitelistCacheStore {
+    private final static Logger log = Logger.getInstance(JCLWhitelistCacheStore.class);
+
+    private final static String CACHE_DIR = ".aion4j" + File.separator + "jclwhitelist";
+    private final static String INDEX_EXT = ".idx";
+
+    public static String targetFolder = System.getProperty("user.home");
+
+    //avm.jar path -> digest. Avoid re-hashing the same jar if it's not modified
+    private final static Map<String, JarDigest> jarDigests = new ConcurrentHashMap<>();
+
+    /**
+     * Compute the cache key for an avm.jar and JDK version.
+     * @return cache key or null if avm.jar can't be read
+     */
+    public static String getCacheKey(File avmJar, String jdkVersion) {
+        if(avmJar == null || !avmJar.exists())
+            return null;
+
+        try {
+            String jarDigest = getJarDigest(avmJar);
+
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(jarDigest.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(String.valueOf(jdkVersion).getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(String.valueOf(JCLWhitelistIndex.VERSION).getBytes(StandardCharsets.UTF_8));
+
+            return toHex(md.digest());
+        } catch (Exception e) {
+            if(log.isDebugEnabled())
+                log.debug("Unable to compute digest for " + avmJar, e);
+            return null;
+        }
+    }
+
+    public static File getIndexFile(String cacheKey) {
+        return new File(new File(targetFolder, CACHE_DIR), cacheKey + INDEX_EXT);
+    }
+
+    /**
+     * @return whitelist index for the key or null if not found in the cache
+     */
+    public static JCLWhitelistIndex load(String cacheKey) {
+        if(cacheKey == null)
+            return null;
+
+        File indexFile = getIndexFile(cacheKey);
+        if(!indexFile.exists())
+            return null;
+
+        try {
+            return JCLWhitelistIndex.open(indexFile);
+        } catch (IOException e) {
+            log.warn("Invalid JCL whitelist index in cache, ignoring " + indexFile, e);
+            indexFile.delete();
+            return null;
+        }
+    }
+
+    public static void store(String cacheKey, Map<String, Map<String, List<MethodDescriptor>>> whitelist) {
+        if(cacheKey == null || whitelist == null || whitelist.isEmpty())
+            return;
+
+        File indexFile = getIndexFile(cacheKey);
+        if(indexFile.exists()) //Same content. Nothing to do
+            return;
+
+        indexFile.getParentFile().mkdirs();
+
+        try {
+            JCLWhitelistIndex.write(whitelist, indexFile);
+        } catch (IOException e) {
+            log.warn("Error writing JCL whitelist to shared cache " + indexFile, e);
+        }
+    }
+
+    private static String getJarDigest(File avmJar) throws IOException, NoSuchAlgorithmException {
+        String path = avmJar.getCanonicalPath();
+        long lastModified = avmJar.lastModified();
+        long length = avmJar.length();
+
+        JarDigest jarDigest = jarDigests.get(path);
+        if(jarDigest != null && jarDigest.lastModified == lastModified && jarDigest.length == length)
+            return jarDigest.digest;
+
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new BufferedInputStream(new FileInputStream(avmJar))) {
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                md.update(buffer, 0, len);
+            }
+        }
+
+        String digest = toHex(md.digest());
+        jarDigests.put(path, new JarDigest(lastModified, length, digest));
+
+        return digest;
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static class JarDigest {
+        private final long lastModified;
+        private final long length;
+        private final String digest;
+
+        JarDigest(long lastModified, long length, String digest) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.digest = digest;
+        }
+    }
+}
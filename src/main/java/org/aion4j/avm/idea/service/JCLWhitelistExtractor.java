@@ -0,0 +1,120 @@
+package org.aion4j.avm.idea.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.aion4j.avm.idea.exception.JCLWhiteListLoadException;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+/**
+ * Extract JCL whitelist from avm.jar inside the IDE process. avm.jar is loaded in a dedicated child-first classloader
+ * and AvmDetails.getClassLibraryWhiteList() is invoked through reflection. Whitelist structures are built directly,
+ * so there is no process launch and no intermediate json file.
+ *
+ * As the whitelisted classes are resolved against the JCL of the running JVM, this should only be used when the
+ * project JDK is compatible with the IDE runtime. Otherwise AvmDetailsGetter needs to be run with project's JDK.
+ */
+public class JCLWhitelistExtractor {
+    private final static Logger log = Logger.getInstance(JCLWhitelistExtractor.class);
+
+    private final static String AVM_DETAILS_CLASS = "org.aion.avm.core.util.AvmDetails";
+
+    public static Map<String, Map<String, List<MethodDescriptor>>> extract(File avmJar) {
+        if(avmJar == null || !avmJar.exists())
+            throw new JCLWhiteListLoadException("avm.jar not found : " + avmJar);
+
+        try (ChildFirstClassLoader classLoader = new ChildFirstClassLoader(new URL[]{avmJar.toURI().toURL()},
+                JCLWhitelistExtractor.class.getClassLoader())) {
+
+            Class<?> avmDetailsClass = Class.forName(AVM_DETAILS_CLASS, true, classLoader);
+            Method getWhitelistMethod = avmDetailsClass.getMethod("getClassLibraryWhiteList");
+
+            Map<Class<?>, List<?>> details = (Map<Class<?>, List<?>>) getWhitelistMethod.invoke(null);
+
+            Map<String, Map<String, List<MethodDescriptor>>> whitelist = new HashMap<>();
+
+            Field nameField = null;
+            Field isStaticField = null;
+            Field parametersField = null;
+
+            for (Map.Entry<Class<?>, List<?>> entry : details.entrySet()) {
+                Map<String, List<MethodDescriptor>> methodMap = new HashMap<>();
+                whitelist.put(entry.getKey().getCanonicalName(), methodMap);
+
+                for (Object avmMethodDescriptor : entry.getValue()) {
+                    if(nameField == null) {
+                        Class<?> descriptorClass = avmMethodDescriptor.getClass();
+                        nameField = descriptorClass.getField("name");
+                        isStaticField = descriptorClass.getField("isStatic");
+                        parametersField = descriptorClass.getField("parameters");
+                    }
+
+                    String methodName = (String) nameField.get(avmMethodDescriptor);
+                    boolean isStatic = isStaticField.getBoolean(avmMethodDescriptor);
+                    Class<?>[] parameters = (Class<?>[]) parametersField.get(avmMethodDescriptor);
+
+                    List<String> params = new ArrayList<>(parameters.length);
+                    for (Class<?> param : parameters) {
+                        params.add(param.getCanonicalName());
+                    }
+
+                    methodMap.computeIfAbsent(methodName, k -> new ArrayList<>())
+                            .add(new MethodDescriptor(methodName, params, isStatic));
+                }
+            }
+
+            if(log.isDebugEnabled())
+                log.debug("JCL whitelist extracted in-process. No of classes: " + whitelist.size());
+
+            return whitelist;
+        } catch (JCLWhiteListLoadException e) {
+            throw e;
+        } catch (Throwable e) { //LinkageError in case of incompatible avm.jar
+            throw new JCLWhiteListLoadException("Unable to extract JCL whitelist from " + avmJar, new Exception(e));
+        }
+    }
+
+    /**
+     * Classloader which looks into avm.jar before delegating to the parent. JDK classes are always loaded by the parent,
+     * so that the whitelist refers to the same JCL classes.
+     */
+    static class ChildFirstClassLoader extends URLClassLoader {
+
+        ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+
+                if(clazz == null && !name.startsWith("java.") && !name.startsWith("javax.")) {
+                    try {
+                        clazz = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        //not in avm.jar, delegate to parent
+                    }
+                }
+
+                if(clazz == null)
+                    clazz = super.loadClass(name, false);
+
+                if(resolve)
+                    resolveClass(clazz);
+
+                return clazz;
+            }
+        }
+
+        @Override
+        public URL getResource(String name) {
+            URL url = findResource(name);
+            return url != null ? url : super.getResource(name);
+        }
+    }
+}
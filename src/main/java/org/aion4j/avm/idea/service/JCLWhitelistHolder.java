@@ -1,58 +1,182 @@
 package org.aion4j.avm.idea.service;
 
-import com.eclipsesource.json.Json;
-import com.eclipsesource.json.JsonArray;
-import com.eclipsesource.json.JsonObject;
-import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.ParseException;
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.aion4j.avm.idea.exception.JCLWhiteListLoadException;
 import org.aion4j.avm.idea.misc.IdeaUtil;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Predicate;
 
+/**
+ * Holds the JCL whitelist of a project. Readers always see one immutable snapshot published through a volatile
+ * reference, so lookups are lock-free. A refresh builds the replacement completely and then swaps it in atomically.
+ */
 public class JCLWhitelistHolder {
 
     public final static String SOURCE_FILE = "avmJclwhitelist.json";
-    private final static String CACHE_FILE = "aion4jJclwhitelist.cache";
+    //Index of the plugin's default avm.jar, generated at build time
+    public final static String BUNDLED_INDEX = "/jclwhitelist/avm.idx";
+    private final static String BUNDLED_REGISTRY_KEY = "bundled-avm-" + JCLWhitelistIndex.VERSION;
+    //Cache files of earlier versions in .idea folder: aion4jJclwhitelist.cache and aion4jJclwhitelist[-generation].idx
+    private final static String LEGACY_CACHE_FILE_PREFIX = "aion4jJclwhitelist";
     private static final Logger log = Logger.getInstance(JCLWhitelistHolder.class);
 
-    private Map<String, Map<String, List<MethodDescriptor>>> jclWhitelist;
-    private Map<String, Map<String, List<MethodDescriptor>>> jclWhitelistCache;
+    //Current snapshot. Generated or loaded whitelist, shared through JCLWhitelistRegistry if registryKey is set.
+    //Always the interned model, built from the index or the generated whitelist
+    private volatile JCLWhitelistLookup snapshot;
+    private String registryKey;
+
+    //Incremented whenever a new snapshot is published. Cached inspection results depend on it
+    private final SimpleModificationTracker modificationTracker = new SimpleModificationTracker();
 
     private boolean projectLoadFailedWarningShown = false; //If project loading failed warning already shown
 
     public JCLWhitelistHolder() {
-        jclWhitelist = new HashMap<>();
-        jclWhitelistCache = new HashMap<>();
+        snapshot = JCLWhitelist.EMPTY;
+    }
 
+    /**
+     * @return current whitelist snapshot. Callers doing multiple lookups should read it once and use the same snapshot.
+     */
+    public JCLWhitelistLookup getWhitelist() {
+        return snapshot;
     }
 
-    public void loadFromCache(Project project) {
+    public SimpleModificationTracker getModificationTracker() {
+        return modificationTracker;
+    }
 
-        if(log.isDebugEnabled()) {
-            log.debug("Try to load from cache meanwhile >>>>>>>>>>>>>");
+    private void setSnapshot(JCLWhitelistLookup whitelist) {
+        snapshot = whitelist;
+        modificationTracker.incModificationCount();
+    }
+
+    /**
+     * Use an already loaded or generated whitelist for this key. The whitelist is first looked up in
+     * {@link JCLWhitelistRegistry} (loaded by another open project) and then in the shared {@link JCLWhitelistCacheStore}.
+     *
+     * @return true if a whitelist was found for the key
+     */
+    public synchronized boolean loadShared(String sharedCacheKey) {
+        if(sharedCacheKey == null)
+            return false;
+
+        if(sharedCacheKey.equals(registryKey)) //Already using it
+            return true;
+
+        //Interned whitelist is built from the index only by the first project using it
+        JCLWhitelistRegistry registry = JCLWhitelistRegistry.getInstance();
+        JCLWhitelist whitelist = registry.acquire(sharedCacheKey);
+
+        if(whitelist == null) {
+            JCLWhitelistIndex index = JCLWhitelistCacheStore.load(sharedCacheKey);
+            if(index == null)
+                return false;
+
+            whitelist = registry.register(sharedCacheKey, JCLWhitelist.from(index));
         }
 
-        jclWhitelistCache = readFromCache(getCacheFolder(project));
-        if(jclWhitelistCache == null)
-            jclWhitelistCache = new HashMap<>();
+        releaseShared();
+        registryKey = sharedCacheKey;
+        setSnapshot(whitelist);
 
+        return true;
+    }
+
+    /**
+     * Use the index pre-generated at build time for the avm.jar bundled with the plugin. The index is only used if it
+     * was generated with the same JDK version as the project JDK.
+     *
+     * @param isProjectJdk checks the java.specification.version recorded in the index (null if not recorded)
+     * @return true if the plugin has a bundled index for the project JDK
+     */
+    public synchronized boolean loadBundled(Predicate<String> isProjectJdk) {
+        if(BUNDLED_REGISTRY_KEY.equals(registryKey))
+            return true;
+
+        JCLWhitelistIndex index = readBundledIndex();
+        if(index == null)
+            return false;
+
+        if(!isProjectJdk.test(index.getJdkVersion())) {
+            if(log.isDebugEnabled())
+                log.debug("Bundled JCL whitelist index is for JDK " + index.getJdkVersion() + ", not the project JDK");
+            return false;
+        }
+
+        JCLWhitelistRegistry registry = JCLWhitelistRegistry.getInstance();
+        JCLWhitelist whitelist = registry.acquire(BUNDLED_REGISTRY_KEY);
+
+        if(whitelist == null)
+            whitelist = registry.register(BUNDLED_REGISTRY_KEY, JCLWhitelist.from(index));
+
+        releaseShared();
+        registryKey = BUNDLED_REGISTRY_KEY;
+        setSnapshot(whitelist);
+
+        return true;
     }
 
     public void init(Project project) {
+        init(project, null);
+    }
+
+    public void init(Project project, String sharedCacheKey) {
 
-        jclWhitelist.clear();
-        parseAndLoad(project, jclWhitelist);
+        Map<String, Map<String, List<MethodDescriptor>>> whitelist = new HashMap<>();
+        parseAndLoad(project, whitelist);
 
         if(log.isDebugEnabled()) {
             log.debug("JCL whitelist >>> " );
         }
-        writeToCache(getCacheFolder(project));
+        JCLWhitelistCacheStore.store(sharedCacheKey, whitelist);
 
+        publish(sharedCacheKey, JCLWhitelist.from(whitelist));
+
+    }
+
+    /**
+     * Load a whitelist which was extracted in-process. No source json file is involved.
+     */
+    public void init(Project project, Map<String, Map<String, List<MethodDescriptor>>> whitelist, String sharedCacheKey) {
+
+        JCLWhitelistCacheStore.store(sharedCacheKey, whitelist);
+
+        publish(sharedCacheKey, JCLWhitelist.from(whitelist));
+    }
+
+    /**
+     * Release the shared whitelist. Called when the project is closed.
+     */
+    public synchronized void dispose() {
+        releaseShared();
+        setSnapshot(JCLWhitelist.EMPTY);
+    }
+
+    private synchronized void publish(String sharedCacheKey, JCLWhitelist whitelist) {
+        //Release first, so that a regenerated whitelist replaces the old one if no other project is using it
+        releaseShared();
+
+        if(sharedCacheKey != null) {
+            whitelist = JCLWhitelistRegistry.getInstance().register(sharedCacheKey, whitelist);
+            registryKey = sharedCacheKey;
+        }
+
+        setSnapshot(whitelist);
+    }
+
+    private void releaseShared() {
+        if(registryKey != null) {
+            JCLWhitelistRegistry.getInstance().release(registryKey);
+            registryKey = null;
+        }
     }
 
     public String getCacheFolder(Project project) {
@@ -72,6 +196,26 @@ public class JCLWhitelistHolder {
         return ideaDir.getCanonicalPath();
     }
 
+    /**
+     * Delete the whitelist cache files earlier versions wrote to .idea folder. The whitelist is cached in the shared
+     * {@link JCLWhitelistCacheStore} now.
+     */
+    public void deleteLegacyCacheFiles(Project project) {
+        String cacheFolder = getCacheFolder(project);
+        if(cacheFolder == null)
+            return;
+
+        File[] files = new File(cacheFolder).listFiles((dir, name) -> name.startsWith(LEGACY_CACHE_FILE_PREFIX)
+                && (name.endsWith(".cache") || name.endsWith(".idx") || name.endsWith(".idx.tmp")));
+        if(files == null)
+            return;
+
+        for (File file : files) {
+            if(!file.delete())
+                log.warn("Unable to delete old JCL whitelist cache file " + file);
+        }
+    }
+
     public String getSourceFilePath(Project project) {
         String cacheFolder = getCacheFolder(project);
         return cacheFolder + File.separator + SOURCE_FILE;
@@ -82,92 +226,53 @@ public class JCLWhitelistHolder {
         if(getCacheFolder(project) == null) //Project is not yet initialized properly
             return;
 
-        JsonObject object = null;
-        try (FileReader reader = new FileReader(new File(getSourceFilePath(project)))) {
-             object = Json.parse(reader).asObject();
-        } catch (IOException e) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(getSourceFilePath(project)), StandardCharsets.UTF_8))) {
+            JCLWhitelistJsonReader.read(reader, map);
+        } catch (IOException | ParseException e) {
             log.error("Error reading jclwhitelist source json file {}", e, getSourceFilePath(project));
             throw new JCLWhiteListLoadException(String.format("Unable to read JCLWhitelist source json file %s " , getSourceFilePath(project)), e);
         }
 
-        if(object == null) {
+        if(map.isEmpty()) {
             throw new JCLWhiteListLoadException("JCLWhitelist could not be loaded from source json file which was generated by AvmDetails");
         }
-
-        List<String> classNames = object.names();
-
-        for (String className : classNames) {
-            JsonArray methodArray = object.get(className).asArray();
-
-            List<MethodDescriptor> methods = new ArrayList<>();
-
-            map.put(className, new HashMap<>()); //add classname entry
-            Iterator<JsonValue> it = methodArray.iterator();
-            while (it.hasNext()) {
-                JsonObject methodObj = it.next().asObject();
-
-                Iterator<JsonValue> paramIt = methodObj.get("parameters").asArray().iterator();
-                List<String> params = new ArrayList<>();
-                paramIt.forEachRemaining(param -> params.add(param.asString()));
-
-                String methodName = methodObj.get("name").asString();
-                List<MethodDescriptor> methodList = map.get(className).get(methodName);
-
-                if (methodList == null) {
-                    methodList = new ArrayList<>();
-                    map.get(className).put(methodName, methodList);
-                }
-
-                MethodDescriptor methodDescriptor = new MethodDescriptor(methodObj.get("name").asString(),
-                        params, methodObj.get("isStatic").asBoolean());
-                methodList.add(methodDescriptor);
-            }
-        }
     }
 
     public boolean isClassPresent(String clazz) {
-        return isFromCache() ? jclWhitelistCache.containsKey(clazz) : jclWhitelist.containsKey(clazz);
+        return snapshot.isClassPresent(clazz);
     }
 
     public List<MethodDescriptor> getMethods(String clazz, String methodName) {
-        if (isClassPresent(clazz))
-            return isFromCache() ? jclWhitelistCache.get(clazz).getOrDefault(methodName, Collections.EMPTY_LIST) :
-                    jclWhitelist.get(clazz).getOrDefault(methodName, Collections.EMPTY_LIST);
-        else
-            return Collections.EMPTY_LIST;
+        return snapshot.getMethods(clazz, methodName);
     }
 
-    public int size() {
-        return isFromCache() ? jclWhitelistCache.size() : jclWhitelist.size();
-    }
-
-    private boolean isFromCache() {
-        return jclWhitelist.size() == 0 ? true : false;
+    public boolean isMethodAllowed(String clazz, String methodName, List<String> paramTypes) {
+        return snapshot.isMethodAllowed(clazz, methodName, paramTypes);
     }
 
-    private synchronized void writeToCache(String folder) {
-
-        try(ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(new File(folder + File.separator + CACHE_FILE)))) {
-            outputStream.writeObject(jclWhitelist);
-        } catch (IOException e) {
-            log.error("Error writing to cache >> ", e);
-        }
+    public int size() {
+        return snapshot.size();
     }
 
-    private synchronized Map<String, Map<String, List<MethodDescriptor>>> readFromCache(String folder) {
-        FileInputStream fileInputStream = null;
-        try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(new File(folder + File.separator + CACHE_FILE)))) {
-
-            return (Map<String, Map<String, List<MethodDescriptor>>>)inputStream.readObject();
+    private JCLWhitelistIndex readBundledIndex() {
+        try (InputStream in = JCLWhitelistHolder.class.getResourceAsStream(BUNDLED_INDEX)) {
+            if(in == null)
+                return null;
 
-        } catch (Exception e) {
-            // TODO Auto-generated catch block
-            if(log.isDebugEnabled()) {
-                log.debug("Error reading from cache >> ", e);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
             }
+
+            return JCLWhitelistIndex.wrap(out.toByteArray());
+        } catch (IOException e) {
+            log.warn("Error reading bundled JCL whitelist index", e);
             return null;
         }
     }
 
 
+
 }
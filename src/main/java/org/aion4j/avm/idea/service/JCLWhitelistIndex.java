@@ -0,0 +1,297 @@
+package org.aion4j.avm.idea.service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compact, versioned binary index of the JCL whitelist.
+ *
+ * File layout (all ints are big-endian):
+ * <pre>
+ *   header  : magic, version, classCount, methodCount, paramCount, stringTableSize, jdkVersionOffset (-1 if unknown)
+ *   classes : classCount  x [nameOffset, firstMethod, methodCount]      sorted by class name
+ *   methods : methodCount x [nameOffset, flags, firstParam, paramCount]  sorted by name within a class
+ *   params  : paramCount  x [typeOffset]
+ *   strings : sorted, de-duplicated table of [u2 length, utf-8 bytes]
+ * </pre>
+ * Names are stored once in the string table and referenced by offset. The index is read through a
+ * {@link MappedByteBuffer}. {@link JCLWhitelist#from(JCLWhitelistIndex)} builds the interned lookup tables straight
+ * from the mapped records, decoding every name once.
+ */
+public class JCLWhitelistIndex {
+
+    private final static int MAGIC = 0x414A574C; //AJWL
+    public final static int VERSION = 2;
+
+    private final static int HEADER_SIZE = 7 * 4;
+    private final static int CLASS_RECORD_SIZE = 3 * 4;
+    private final static int METHOD_RECORD_SIZE = 4 * 4;
+    private final static int PARAM_RECORD_SIZE = 4;
+
+    private final static int FLAG_STATIC = 1;
+
+    private final ByteBuffer buffer;
+    private final int classCount;
+    private final int classTableStart;
+    private final int methodTableStart;
+    private final int paramTableStart;
+    private final int stringTableStart;
+    private final int jdkVersionOffset;
+
+    private JCLWhitelistIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if(buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a JCL whitelist index");
+
+        int version = buffer.getInt(4);
+        if(version != VERSION)
+            throw new IOException(String.format("Unsupported JCL whitelist index version %d, expected %d", version, VERSION));
+
+        this.classCount = buffer.getInt(8);
+        int methodCount = buffer.getInt(12);
+        int paramCount = buffer.getInt(16);
+        int stringTableSize = buffer.getInt(20);
+        this.jdkVersionOffset = buffer.getInt(24);
+
+        this.classTableStart = HEADER_SIZE;
+        this.methodTableStart = classTableStart + classCount * CLASS_RECORD_SIZE;
+        this.paramTableStart = methodTableStart + methodCount * METHOD_RECORD_SIZE;
+        this.stringTableStart = paramTableStart + paramCount * PARAM_RECORD_SIZE;
+
+        if(stringTableStart + stringTableSize != buffer.capacity() || jdkVersionOffset >= stringTableSize)
+            throw new IOException("Corrupted JCL whitelist index");
+    }
+
+    /**
+     * Map an index file in read-only mode.
+     */
+    public static JCLWhitelistIndex open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new JCLWhitelistIndex(mappedBuffer);
+        }
+    }
+
+    /**
+     * Wrap an index which is already in memory. Mainly useful for index bundled as a resource.
+     */
+    public static JCLWhitelistIndex wrap(byte[] bytes) throws IOException {
+        return new JCLWhitelistIndex(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /**
+     * @return number of classes
+     */
+    public int size() {
+        return classCount;
+    }
+
+    /**
+     * @return java.specification.version of the JDK the whitelist was extracted with, or null if not recorded.
+     * The whitelist depends on the JDK, e.g. for inherited methods
+     */
+    public String getJdkVersion() {
+        return jdkVersionOffset >= 0 ? readString(jdkVersionOffset) : null;
+    }
+
+    //Records, read by JCLWhitelist.from(JCLWhitelistIndex). Classes are sorted by name, methods by name within a class
+
+    int getClassNameOffset(int classIndex) {
+        return buffer.getInt(classRecord(classIndex));
+    }
+
+    int getFirstMethod(int classIndex) {
+        return buffer.getInt(classRecord(classIndex) + 4);
+    }
+
+    int getMethodCount(int classIndex) {
+        return buffer.getInt(classRecord(classIndex) + 8);
+    }
+
+    int getMethodNameOffset(int methodIndex) {
+        return buffer.getInt(methodRecord(methodIndex));
+    }
+
+    boolean isStatic(int methodIndex) {
+        return (buffer.getInt(methodRecord(methodIndex) + 4) & FLAG_STATIC) != 0;
+    }
+
+    int getParamCount(int methodIndex) {
+        return buffer.getInt(methodRecord(methodIndex) + 12);
+    }
+
+    int getParamTypeOffset(int methodIndex, int param) {
+        int firstParam = buffer.getInt(methodRecord(methodIndex) + 8);
+        return buffer.getInt(paramTableStart + (firstParam + param) * PARAM_RECORD_SIZE);
+    }
+
+    private int classRecord(int classIndex) {
+        return classTableStart + classIndex * CLASS_RECORD_SIZE;
+    }
+
+    private int methodRecord(int methodIndex) {
+        return methodTableStart + methodIndex * METHOD_RECORD_SIZE;
+    }
+
+    /**
+     * @param stringOffset offset in the string table, as stored in the records
+     */
+    String readString(int stringOffset) {
+        int pos = stringTableStart + stringOffset;
+        int length = buffer.getShort(pos) & 0xFFFF;
+
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(pos + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the whitelist to an index file. The file is first written to a temp file and then moved, so that a reader
+     * never maps a partially written index.
+     */
+    public static void write(Map<String, Map<String, List<MethodDescriptor>>> whitelist, File file) throws IOException {
+        write(whitelist, null, file);
+    }
+
+    /**
+     * @param jdkVersion java.specification.version of the JDK used for extraction, or null
+     */
+    public static void write(Map<String, Map<String, List<MethodDescriptor>>> whitelist, String jdkVersion, File file) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            write(whitelist, jdkVersion, out);
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static void write(Map<String, Map<String, List<MethodDescriptor>>> whitelist, String jdkVersion, DataOutputStream out) throws IOException {
+        //Build sorted and de-duplicated string table
+        TreeMap<byte[], Integer> strings = new TreeMap<>(JCLWhitelistIndex::compareBytes);
+        if(jdkVersion != null)
+            strings.put(utf8(jdkVersion), 0);
+        int methodCount = 0;
+        int paramCount = 0;
+
+        for (Map.Entry<String, Map<String, List<MethodDescriptor>>> classEntry : whitelist.entrySet()) {
+            strings.put(utf8(classEntry.getKey()), 0);
+
+            for (Map.Entry<String, List<MethodDescriptor>> methodEntry : classEntry.getValue().entrySet()) {
+                strings.put(utf8(methodEntry.getKey()), 0);
+
+                for (MethodDescriptor methodDescriptor : methodEntry.getValue()) {
+                    methodCount++;
+                    List<String> params = methodDescriptor.getParams();
+                    if(params == null)
+                        continue;
+
+                    for (String param : params) {
+                        strings.put(utf8(param), 0);
+                        paramCount++;
+                    }
+                }
+            }
+        }
+
+        int stringTableSize = 0;
+        for (Map.Entry<byte[], Integer> entry : strings.entrySet()) {
+            entry.setValue(stringTableSize);
+            stringTableSize += 2 + entry.getKey().length;
+        }
+
+        TreeMap<byte[], Map<String, List<MethodDescriptor>>> sortedClasses = new TreeMap<>(JCLWhitelistIndex::compareBytes);
+        for (Map.Entry<String, Map<String, List<MethodDescriptor>>> classEntry : whitelist.entrySet()) {
+            sortedClasses.put(utf8(classEntry.getKey()), classEntry.getValue());
+        }
+
+        //header
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sortedClasses.size());
+        out.writeInt(methodCount);
+        out.writeInt(paramCount);
+        out.writeInt(stringTableSize);
+        out.writeInt(jdkVersion != null ? strings.get(utf8(jdkVersion)) : -1);
+
+        //class records
+        int methodIndex = 0;
+        for (Map.Entry<byte[], Map<String, List<MethodDescriptor>>> classEntry : sortedClasses.entrySet()) {
+            int count = 0;
+            for (List<MethodDescriptor> methods : classEntry.getValue().values()) {
+                count += methods.size();
+            }
+
+            out.writeInt(strings.get(classEntry.getKey()));
+            out.writeInt(methodIndex);
+            out.writeInt(count);
+            methodIndex += count;
+        }
+
+        //method records
+        int paramIndex = 0;
+        List<int[]> paramRefs = new ArrayList<>();
+        for (Map<String, List<MethodDescriptor>> methodMap : sortedClasses.values()) {
+            TreeMap<byte[], List<MethodDescriptor>> sortedMethods = new TreeMap<>(JCLWhitelistIndex::compareBytes);
+            for (Map.Entry<String, List<MethodDescriptor>> methodEntry : methodMap.entrySet()) {
+                sortedMethods.put(utf8(methodEntry.getKey()), methodEntry.getValue());
+            }
+
+            for (Map.Entry<byte[], List<MethodDescriptor>> methodEntry : sortedMethods.entrySet()) {
+                for (MethodDescriptor methodDescriptor : methodEntry.getValue()) {
+                    List<String> params = methodDescriptor.getParams() != null ? methodDescriptor.getParams() : Collections.EMPTY_LIST;
+
+                    out.writeInt(strings.get(methodEntry.getKey()));
+                    out.writeInt(methodDescriptor.isStatic() ? FLAG_STATIC : 0);
+                    out.writeInt(paramIndex);
+                    out.writeInt(params.size());
+
+                    int[] refs = new int[params.size()];
+                    for (int i = 0; i < refs.length; i++) {
+                        refs[i] = strings.get(utf8(params.get(i)));
+                    }
+                    paramRefs.add(refs);
+                    paramIndex += refs.length;
+                }
+            }
+        }
+
+        //param records
+        for (int[] refs : paramRefs) {
+            for (int ref : refs) {
+                out.writeInt(ref);
+            }
+        }
+
+        //string table
+        for (byte[] bytes : strings.keySet()) {
+            if(bytes.length > 0xFFFF)
+                throw new IOException("Name is too long for JCL whitelist index");
+
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] utf8(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0)
+                return cmp;
+        }
+        return a.length - b.length;
+    }
+}
@@ -0,0 +1,36 @@
+package org.aion4j.avm.idea.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build time tool to generate JCL whitelist index for the avm.jar bundled with the plugin. Invoked from the
+ * generateJclWhitelistIndex task in build.gradle. The generated index is packaged as {@link JCLWhitelistHolder#BUNDLED_INDEX}.
+ * The version of the JDK running the generator is recorded in the index, as the whitelist depends on it.
+ *
+ * Usage: JCLWhitelistIndexGenerator &lt;avm.jar&gt; &lt;output index file&gt;
+ */
+public class JCLWhitelistIndexGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: JCLWhitelistIndexGenerator <avm.jar> <output index file>");
+            System.exit(1);
+        }
+
+        File avmJar = new File(args[0]);
+        File indexFile = new File(args[1]);
+
+        Map<String, Map<String, List<MethodDescriptor>>> whitelist = JCLWhitelistExtractor.extract(avmJar);
+        if(whitelist.isEmpty())
+            throw new IllegalStateException("No JCL whitelist found in " + avmJar);
+
+        indexFile.getParentFile().mkdirs();
+        String jdkVersion = System.getProperty("java.specification.version");
+        JCLWhitelistIndex.write(whitelist, jdkVersion, indexFile);
+
+        System.out.println(String.format("JCL whitelist index written to %s for JDK %s. No of classes: %d", indexFile, jdkVersion, whitelist.size()));
+    }
+}
@@ -0,0 +1,110 @@
+package org.aion4j.avm.idea.service;
+
+import com.eclipsesource.json.JsonHandler;
+import com.eclipsesource.json.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader for avmJclwhitelist.json generated by AvmDetailsGetter. The whitelist map is populated as tokens
+ * arrive, so no json DOM is kept in memory.
+ *
+ * Format:
+ * <pre>
+ *  { "java.lang.String": [ {"name": "length", "isStatic": false, "parameters": []}, ... ], ... }
+ * </pre>
+ */
+public class JCLWhitelistJsonReader extends JsonHandler<Object, Object> {
+
+    private final static String NAME = "name";
+    private final static String IS_STATIC = "isStatic";
+
+    //nesting levels
+    private final static int ROOT = 1;
+    private final static int METHOD_ARRAY = 2;
+    private final static int METHOD = 3;
+    private final static int PARAM_ARRAY = 4;
+
+    private final Map<String, Map<String, List<MethodDescriptor>>> whitelist;
+
+    private int depth;
+    private Map<String, List<MethodDescriptor>> currentClass;
+    private String currentKey;
+
+    private String methodName;
+    private boolean isStatic;
+    private List<String> params;
+
+    private JCLWhitelistJsonReader(Map<String, Map<String, List<MethodDescriptor>>> whitelist) {
+        this.whitelist = whitelist;
+    }
+
+    /**
+     * Parse whitelist json from the reader and add entries to the given map.
+     */
+    public static void read(Reader reader, Map<String, Map<String, List<MethodDescriptor>>> whitelist) throws IOException {
+        new JsonParser(new JCLWhitelistJsonReader(whitelist)).parse(reader);
+    }
+
+    @Override
+    public Object startObject() {
+        depth++;
+        if(depth == METHOD) {
+            methodName = null;
+            isStatic = false;
+            params = new ArrayList<>();
+        }
+        return null;
+    }
+
+    @Override
+    public void endObject(Object object) {
+        if(depth == METHOD && currentClass != null && methodName != null) {
+            currentClass.computeIfAbsent(methodName, k -> new ArrayList<>())
+                    .add(new MethodDescriptor(methodName, params, isStatic));
+        }
+        depth--;
+    }
+
+    @Override
+    public void endObjectName(Object object, String name) {
+        if(depth == ROOT) {
+            currentClass = new HashMap<>();
+            whitelist.put(name, currentClass);
+        } else {
+            currentKey = name;
+        }
+    }
+
+    @Override
+    public Object startArray() {
+        depth++;
+        return null;
+    }
+
+    @Override
+    public void endArray(Object array) {
+        depth--;
+    }
+
+    @Override
+    public void endString(String string) {
+        if(depth == PARAM_ARRAY) {
+            params.add(string);
+        } else if(depth == METHOD && NAME.equals(currentKey)) {
+            methodName = string;
+        }
+    }
+
+    @Override
+    public void endBoolean(boolean value) {
+        if(depth == METHOD && IS_STATIC.equals(currentKey)) {
+            isStatic = value;
+        }
+    }
+}
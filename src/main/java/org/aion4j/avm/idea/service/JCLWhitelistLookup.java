@@ -0,0 +1,17 @@
+package org.aion4j.avm.idea.service;
+
+import java.util.List;
+
+/**
+ * Read-only view of a loaded JCL whitelist. Implementations are immutable and can be shared between projects.
+ */
+public interface JCLWhitelistLookup {
+
+    public int size();
+
+    public boolean isClassPresent(String clazz);
+
+    public List<MethodDescriptor> getMethods(String clazz, String methodName);
+
+    public boolean isMethodAllowed(String clazz, String methodName, List<String> paramTypes);
+}
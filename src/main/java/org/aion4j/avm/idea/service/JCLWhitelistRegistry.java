@@ -0,0 +1,79 @@
+package org.aion4j.avm.idea.service;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Application level registry of loaded JCL whitelists. Whitelists are keyed by avm.jar identity (see
+ * {@link JCLWhitelistCacheStore#getCacheKey}), so all open projects using the same AVM version share one immutable
+ * instance. Only the interned {@link JCLWhitelist} is registered, so every project gets its signature hash lookups.
+ * Entries are reference counted and removed when the last project using it releases the whitelist.
+ */
+public class JCLWhitelistRegistry {
+    private final static Logger log = Logger.getInstance(JCLWhitelistRegistry.class);
+
+    private final Map<String, Entry> whitelists = new HashMap<>();
+
+    public static JCLWhitelistRegistry getInstance() {
+        return ServiceManager.getService(JCLWhitelistRegistry.class);
+    }
+
+    /**
+     * Get a registered whitelist and increment its reference count.
+     * @return whitelist or null if there is no whitelist for this key
+     */
+    public synchronized JCLWhitelist acquire(String key) {
+        Entry entry = whitelists.get(key);
+        if(entry == null)
+            return null;
+
+        entry.refCount++;
+        return entry.whitelist;
+    }
+
+    /**
+     * Register a whitelist with reference count 1. If another project has already registered a whitelist for the key,
+     * the existing instance is returned (with its reference count incremented) and the given one should be dropped.
+     */
+    public synchronized JCLWhitelist register(String key, JCLWhitelist whitelist) {
+        Entry entry = whitelists.get(key);
+        if(entry != null) {
+            entry.refCount++;
+            return entry.whitelist;
+        }
+
+        whitelists.put(key, new Entry(whitelist));
+
+        if(log.isDebugEnabled())
+            log.debug("JCL whitelist registered for key " + key + ". Total whitelists: " + whitelists.size());
+
+        return whitelist;
+    }
+
+    public synchronized void release(String key) {
+        Entry entry = whitelists.get(key);
+        if(entry == null)
+            return;
+
+        entry.refCount--;
+        if(entry.refCount <= 0) {
+            whitelists.remove(key);
+
+            if(log.isDebugEnabled())
+                log.debug("JCL whitelist released for key " + key + ". Total whitelists: " + whitelists.size());
+        }
+    }
+
+    private static class Entry {
+        private final JCLWhitelist whitelist;
+        private int refCount;
+
+        Entry(JCLWhitelist whitelist) {
+            this.whitelist = whitelist;
+            this.refCount = 1;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.misc.ContractBuildCache;
+import org.aion4j.avm.idea.misc.ContractBuildCache.BuildMode;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ContractBuildCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sources;
+    private File pom;
+    private File jar;
+    private ContractBuildCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        sources = folder.newFolder("src");
+        pom = folder.newFile("pom.xml");
+        jar = new File(folder.getRoot(), "target/contract.jar");
+
+        write(new File(sources, "A.java"), "class A {}");
+        write(pom, "<project/>");
+        write(jar, "jar-1");
+
+        cache = new ContractBuildCache(new File(folder.getRoot(), "cache"));
+    }
+
+    @Test
+    public void testFirstBuildIsClean() throws IOException {
+        assertEquals(BuildMode.CLEAN, cache.getBuildMode(snapshot("")));
+    }
+
+    @Test
+    public void testUnchangedSourcesAreUpToDate() throws IOException {
+        cache.save(snapshot(""), jar);
+
+        assertEquals(BuildMode.UP_TO_DATE, cache.getBuildMode(snapshot("")));
+
+        //jar is restored after mvn clean
+        Files.delete(jar.toPath());
+        cache.restoreJar(jar);
+        assertEquals("jar-1", new String(Files.readAllBytes(jar.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testChangedOrAddedFilesAreIncremental() throws IOException {
+        cache.save(snapshot(""), jar);
+
+        write(new File(sources, "A.java"), "class A { int a; }");
+        assertEquals(BuildMode.INCREMENTAL, cache.getBuildMode(snapshot("")));
+
+        write(new File(sources, "B.java"), "class B {}");
+        assertEquals(BuildMode.INCREMENTAL, cache.getBuildMode(snapshot("")));
+    }
+
+    @Test
+    public void testRemovedFilesNeedClean() throws IOException {
+        write(new File(sources, "B.java"), "class B {}");
+        cache.save(snapshot(""), jar);
+
+        Files.delete(new File(sources, "B.java").toPath());
+        assertEquals(BuildMode.CLEAN, cache.getBuildMode(snapshot("")));
+    }
+
+    @Test
+    public void testBuildOptionsChangeHash() throws IOException {
+        cache.save(snapshot("disableJarOptimization=false"), jar);
+
+        assertEquals(BuildMode.INCREMENTAL, cache.getBuildMode(snapshot("disableJarOptimization=true")));
+    }
+
+    @Test
+    public void testUnchangedFileStampsAreNotHashedAgain() throws IOException {
+        File source = new File(sources, "A.java");
+        FileTime modified = Files.getLastModifiedTime(source.toPath());
+        cache.save(snapshot(""), jar);
+
+        //Same length and modification time. The hash of the last build is used, the content is not read
+        write(source, "class X {}");
+        Files.setLastModifiedTime(source.toPath(), modified);
+        assertEquals(BuildMode.UP_TO_DATE, cache.getBuildMode(snapshot("")));
+
+        Files.setLastModifiedTime(source.toPath(), FileTime.fromMillis(modified.toMillis() + 2000));
+        assertEquals(BuildMode.INCREMENTAL, cache.getBuildMode(snapshot("")));
+    }
+
+    private ContractBuildCache.Snapshot snapshot(String options) throws IOException {
+        List<File> inputs = Arrays.asList(sources, pom, new File(folder.getRoot(), "missing"));
+        return cache.snapshot(inputs, options);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.compliance.ContractJarVerifier;
+import org.aion4j.avm.idea.service.JCLClassHierarchy;
+import org.aion4j.avm.idea.service.JCLWhitelist;
+import org.aion4j.avm.idea.service.MethodDescriptor;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ContractJarVerifierTest {
+
+    @Test
+    public void reportNonWhitelistedCalls() throws Exception {
+        Map<String, Map<String, List<MethodDescriptor>>> map = new HashMap<>();
+
+        Map<String, List<MethodDescriptor>> objectMethods = new HashMap<>();
+        objectMethods.put("<init>", Arrays.asList(new MethodDescriptor("<init>", Collections.emptyList(), false)));
+        objectMethods.put("hashCode", Arrays.asList(new MethodDescriptor("hashCode", Collections.emptyList(), false)));
+        objectMethods.put("equals", Arrays.asList(new MethodDescriptor("equals", Arrays.asList("java.lang.Object"), false)));
+        map.put("java.lang.Object", objectMethods);
+
+        Map<String, List<MethodDescriptor>> stringMethods = new HashMap<>();
+        stringMethods.put("length", Arrays.asList(new MethodDescriptor("length", Collections.emptyList(), false)));
+        map.put("java.lang.String", stringMethods);
+        map.put("java.lang.StringBuilder", new HashMap<>());
+
+        JCLClassHierarchy hierarchy = JCLClassHierarchy.builder()
+                .addClass("java/lang/Object", null)
+                .addMethod("java/lang/Object", "hashCode", 0)
+                .addMethod("java/lang/Object", "equals", 1)
+                .addClass("java/lang/String", "java/lang/Object")
+                .addMethod("java/lang/String", "hashCode", 0)
+                .addMethod("java/lang/String", "length", 0)
+                .addMethod("java/lang/String", "isEmpty", 0)
+                .addClass("java/lang/StringBuilder", "java/lang/Object")
+                .build();
+
+        File jar = File.createTempFile("contract", ".jar");
+        jar.deleteOnExit();
+
+        String fixtureClass = Fixture.class.getName().replace('.', '/') + ".class";
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+             InputStream in = getClass().getClassLoader().getResourceAsStream(fixtureClass)) {
+            out.putNextEntry(new JarEntry(fixtureClass));
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            out.closeEntry();
+        }
+
+        List<ContractJarVerifier.Violation> violations = new ContractJarVerifier(JCLWhitelist.from(map), hierarchy).verify(jar);
+
+        List<String> messages = new ArrayList<>();
+        for (ContractJarVerifier.Violation violation : violations) {
+            messages.add(violation.getMessage());
+            assertEquals(Fixture.class.getName(), violation.getClassName());
+            assertTrue(violation.getLine() > 0);
+        }
+
+        assertTrue(messages.contains("java.util.HashMap is not allowed in a Avm smart contract project"));
+        //String declares hashCode(), so it's not allowed through Object.hashCode(). Same as the PSI inspection
+        assertTrue(messages.contains("java.lang.String.hashCode is not allowed in a Avm smart contract project"));
+        assertFalse(messages.contains("java.lang.String.length is not allowed in a Avm smart contract project"));
+        //StringBuilder.equals() is inherited from Object
+        assertFalse(messages.contains("java.lang.StringBuilder.equals is not allowed in a Avm smart contract project"));
+        //invokedynamic call sites
+        assertTrue(messages.contains("java.lang.invoke.LambdaMetafactory is not allowed in a Avm smart contract project"));
+        assertTrue(messages.contains("java.lang.String.isEmpty is not allowed in a Avm smart contract project"));
+    }
+
+    static class Fixture {
+        static int run(String s) {
+            Map<String, String> map = new HashMap<>();
+            map.put(s, s);
+            Function<String, Boolean> isEmpty = String::isEmpty;
+            return s.length() + s.hashCode() + (new StringBuilder().equals(s) ? 1 : 0) + (isEmpty.apply(s) ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.deploy.DeploySummary;
+import org.aion4j.avm.idea.deploy.ModuleDeployResult;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class DeploySummaryTest {
+
+    @Test
+    public void testFailedModulesFirstThenSlowest() {
+        DeploySummary summary = new DeploySummary(3, 2, 5000, 7000, Arrays.asList(
+                new ModuleDeployResult("token", true, 300, "0xa0token"),
+                new ModuleDeployResult("dao", true, 900, "0xa0dao"),
+                new ModuleDeployResult("vote", false, 100, "Maven exit code 1")));
+
+        assertFalse(summary.isSuccess());
+        assertEquals(1, summary.getFailedCount());
+
+        String[] lines = summary.toText().split("\n");
+        assertEquals("Build: 2 of 3 modules in 5000 ms", lines[0]);
+        assertEquals("Deployed 2 of 3 modules. Total 7000 ms", lines[1]);
+        assertTrue(lines[2].contains("vote") && lines[2].contains("FAILED"));
+        assertTrue(lines[3].contains("dao") && lines[3].contains("0xa0dao"));
+        assertTrue(lines[4].contains("token"));
+    }
+
+    @Test
+    public void testMissingResultIsNotSuccess() {
+        DeploySummary summary = new DeploySummary(2, 0, 0, 100,
+                Collections.singletonList(new ModuleDeployResult("token", true, 100, null)));
+
+        assertFalse(summary.isSuccess());
+        assertTrue(summary.toText().startsWith("Build: all 2 modules up to date"));
+    }
+}
@@ -0,0 +1,55 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.service.JCLVerdictCache;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class JCLVerdictCacheTest {
+
+    @Test
+    public void cacheVerdictsAndCountHits() {
+        JCLVerdictCache cache = new JCLVerdictCache(1);
+
+        String key = JCLVerdictCache.key("java.math.BigInteger", "add", Arrays.asList("java.math.BigInteger"));
+        assertEquals("java.math.BigInteger#add(java.math.BigInteger)", key);
+
+        assertNull(cache.get(key));
+        cache.put(key, JCLVerdictCache.ALLOWED);
+
+        String lengthKey = JCLVerdictCache.key("java.lang.String", "length", Collections.emptyList());
+        cache.put(lengthKey, JCLVerdictCache.METHOD_NOT_ALLOWED);
+
+        assertEquals(Integer.valueOf(JCLVerdictCache.ALLOWED), cache.get(key));
+        assertEquals(Integer.valueOf(JCLVerdictCache.METHOD_NOT_ALLOWED), cache.get(lengthKey));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2.0 / 3, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void renewDropsVerdictsButKeepsCounters() {
+        JCLVerdictCache cache = new JCLVerdictCache(1);
+        String key = JCLVerdictCache.key("java.lang.String", "length", Collections.emptyList());
+
+        cache.put(key, JCLVerdictCache.ALLOWED);
+        cache.get(key);
+
+        JCLVerdictCache renewed = cache.renew(2);
+
+        assertEquals(2, renewed.getStamp());
+        assertEquals(0, renewed.size());
+        assertNull(renewed.get(key));
+        assertEquals(1, renewed.getHitCount());
+        assertEquals(1, renewed.getMissCount());
+
+        renewed.resetCounters();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, renewed.getHitRate(), 0);
+    }
+}
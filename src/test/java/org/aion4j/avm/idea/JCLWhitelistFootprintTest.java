@@ -0,0 +1,128 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.service.JCLWhitelist;
+import org.aion4j.avm.idea.service.MethodDescriptor;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the interned {@link JCLWhitelist} with the nested map model it replaced (class -> method name -> overloads).
+ * Both models get the same synthetic whitelist. The interned model must answer the same queries, and its footprint is
+ * checked through entry counts, which are deterministic: names and parameter lists are stored once, not per method.
+ */
+public class JCLWhitelistFootprintTest {
+
+    private final static int CLASSES = 400;
+    private final static int METHODS_PER_CLASS = 10;
+    private final static int OVERLOADS = 5;
+    private final static int QUERIES = 20_000;
+
+    private final static String[] PARAM_TYPES = {"int", "long", "byte[]", "java.lang.String", "java.math.BigInteger",
+            "java.lang.Object", "boolean", "char[]"};
+
+    @Test
+    public void sameAnswersAsMapModel() {
+        Map<String, Map<String, List<MethodDescriptor>>> maps = createWhitelist();
+        JCLWhitelist interned = JCLWhitelist.from(maps);
+
+        Random random = new Random(42);
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            boolean miss = random.nextBoolean();
+            String clazz = "java.util.Class" + random.nextInt(miss ? CLASSES * 2 : CLASSES);
+            String method = "method" + random.nextInt(METHODS_PER_CLASS);
+            List<String> params = params(random.nextInt(miss ? OVERLOADS * 2 : OVERLOADS));
+
+            boolean allowed = isMethodAllowed(maps, clazz, method, params);
+            assertEquals(clazz + "." + method + params, allowed, interned.isMethodAllowed(clazz, method, params));
+            if(allowed)
+                hits++;
+        }
+
+        assertTrue(hits > 0 && hits < QUERIES);
+    }
+
+    @Test
+    public void namesAndSignaturesAreStoredOnce() {
+        Map<String, Map<String, List<MethodDescriptor>>> maps = createWhitelist();
+        JCLWhitelist interned = JCLWhitelist.from(maps);
+
+        int methods = CLASSES * METHODS_PER_CLASS * OVERLOADS;
+        assertEquals(methods, interned.getMethodCount());
+
+        //Map model keeps a name string per class, per method entry and per descriptor, and a param list per descriptor
+        int mapNames = CLASSES + CLASSES * METHODS_PER_CLASS + methods;
+        int mapParams = 0;
+        for (Map<String, List<MethodDescriptor>> classMethods : maps.values()) {
+            for (List<MethodDescriptor> overloads : classMethods.values()) {
+                for (MethodDescriptor methodDescriptor : overloads) {
+                    mapParams += methodDescriptor.getParams().size();
+                }
+            }
+        }
+
+        assertEquals(CLASSES + METHODS_PER_CLASS + PARAM_TYPES.length, interned.getNameCount());
+        assertTrue(interned.getNameCount() * 50 < mapNames);
+
+        //Overload o has o + 1 parameters, the same list in every class
+        int distinctSignatureLength = OVERLOADS * (OVERLOADS + 1) / 2;
+        assertEquals(distinctSignatureLength, interned.getSignatureTableLength());
+        assertEquals(CLASSES * METHODS_PER_CLASS * distinctSignatureLength, mapParams);
+    }
+
+    @Test
+    public void getMethodsReturnsSharedDescriptors() {
+        JCLWhitelist whitelist = JCLWhitelist.from(createWhitelist());
+
+        List<MethodDescriptor> methods = whitelist.getMethods("java.util.Class1", "method1");
+        assertEquals(OVERLOADS, methods.size());
+        assertSame(methods, whitelist.getMethods("java.util.Class1", "method1"));
+        assertSame(methods.get(0), whitelist.getMethods("java.util.Class1", "method1").get(0));
+    }
+
+    //Lookup of the map model, as done before the interned model
+    private static boolean isMethodAllowed(Map<String, Map<String, List<MethodDescriptor>>> maps, String clazz,
+                                           String methodName, List<String> paramTypes) {
+        Map<String, List<MethodDescriptor>> methods = maps.get(clazz);
+        if(methods == null)
+            return false;
+
+        List<MethodDescriptor> overloads = methods.get(methodName);
+        if(overloads == null)
+            return false;
+
+        for (MethodDescriptor methodDescriptor : overloads) {
+            if(paramTypes.equals(methodDescriptor.getParams()))
+                return true;
+        }
+        return false;
+    }
+
+    private static Map<String, Map<String, List<MethodDescriptor>>> createWhitelist() {
+        Map<String, Map<String, List<MethodDescriptor>>> whitelist = new HashMap<>();
+        for (int c = 0; c < CLASSES; c++) {
+            Map<String, List<MethodDescriptor>> methods = new HashMap<>();
+            for (int m = 0; m < METHODS_PER_CLASS; m++) {
+                List<MethodDescriptor> overloads = new ArrayList<>();
+                for (int o = 0; o < OVERLOADS; o++) {
+                    overloads.add(new MethodDescriptor("method" + m, params(o), o % 2 == 0));
+                }
+                methods.put("method" + m, overloads);
+            }
+            whitelist.put("java.util.Class" + c, methods);
+        }
+        return whitelist;
+    }
+
+    //Overload o takes o + 1 parameters. Fresh lists, as the inspection builds them per call
+    private static List<String> params(int overload) {
+        List<String> params = new ArrayList<>();
+        for (int i = 0; i <= overload; i++) {
+            params.add(new String(PARAM_TYPES[(overload + i) % PARAM_TYPES.length]));
+        }
+        return params;
+    }
+}
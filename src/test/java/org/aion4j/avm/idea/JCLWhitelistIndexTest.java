@@ -0,0 +1,106 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.service.JCLWhitelist;
+import org.aion4j.avm.idea.service.JCLWhitelistIndex;
+import org.aion4j.avm.idea.service.MethodDescriptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class JCLWhitelistIndexTest {
+
+    private File indexFile;
+
+    @Before
+    public void setUp() throws Exception {
+        indexFile = File.createTempFile("jclwhitelist", ".idx");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        indexFile.delete();
+    }
+
+    @Test
+    public void writeAndReadIndex() throws Exception {
+        Map<String, Map<String, List<MethodDescriptor>>> whitelist = new HashMap<>();
+
+        Map<String, List<MethodDescriptor>> stringMethods = new HashMap<>();
+        stringMethods.put("length", new ArrayList<>(Arrays.asList(new MethodDescriptor("length", Collections.emptyList(), false))));
+        stringMethods.put("valueOf", new ArrayList<>(Arrays.asList(
+                new MethodDescriptor("valueOf", Arrays.asList("int"), true),
+                new MethodDescriptor("valueOf", Arrays.asList("char[]", "int", "int"), true))));
+        whitelist.put("java.lang.String", stringMethods);
+
+        Map<String, List<MethodDescriptor>> bigIntegerMethods = new HashMap<>();
+        bigIntegerMethods.put("add", new ArrayList<>(Arrays.asList(new MethodDescriptor("add", Arrays.asList("java.math.BigInteger"), false))));
+        whitelist.put("java.math.BigInteger", bigIntegerMethods);
+        whitelist.put("java.lang.Object", new HashMap<>());
+
+        JCLWhitelistIndex.write(whitelist, "1.8", indexFile);
+        JCLWhitelistIndex index = JCLWhitelistIndex.open(indexFile);
+
+        assertEquals(3, index.size());
+        assertEquals("1.8", index.getJdkVersion());
+
+        JCLWhitelist interned = JCLWhitelist.from(index);
+        assertTrue(interned.isClassPresent("java.lang.String"));
+        assertTrue(interned.isClassPresent("java.lang.Object"));
+        assertFalse(interned.isClassPresent("java.lang.Thread"));
+
+        List<MethodDescriptor> valueOfs = interned.getMethods("java.lang.String", "valueOf");
+        assertEquals(2, valueOfs.size());
+        assertTrue(valueOfs.get(0).isStatic());
+
+        Set<List<String>> signatures = new HashSet<>();
+        for (MethodDescriptor methodDescriptor : valueOfs) {
+            signatures.add(new ArrayList<>(methodDescriptor.getParams()));
+        }
+        assertTrue(signatures.contains(Arrays.asList("int")));
+        assertTrue(signatures.contains(Arrays.asList("char[]", "int", "int")));
+
+        List<MethodDescriptor> lengths = interned.getMethods("java.lang.String", "length");
+        assertEquals(1, lengths.size());
+        assertFalse(lengths.get(0).isStatic());
+        assertTrue(lengths.get(0).getParams().isEmpty());
+
+        assertEquals(Arrays.asList("java.math.BigInteger"), interned.getMethods("java.math.BigInteger", "add").get(0).getParams());
+        assertTrue(interned.getMethods("java.math.BigInteger", "subtract").isEmpty());
+        assertTrue(interned.getMethods("java.lang.Thread", "start").isEmpty());
+    }
+
+    @Test
+    public void buildInternedWhitelistFromIndex() throws Exception {
+        Map<String, Map<String, List<MethodDescriptor>>> whitelist = new HashMap<>();
+
+        Map<String, List<MethodDescriptor>> stringMethods = new HashMap<>();
+        stringMethods.put("valueOf", new ArrayList<>(Arrays.asList(
+                new MethodDescriptor("valueOf", Arrays.asList("int"), true),
+                new MethodDescriptor("valueOf", Arrays.asList("char[]", "int", "int"), true))));
+        whitelist.put("java.lang.String", stringMethods);
+        whitelist.put("java.lang.Object", new HashMap<>());
+
+        JCLWhitelistIndex.write(whitelist, indexFile);
+        JCLWhitelistIndex index = JCLWhitelistIndex.open(indexFile);
+        assertNull(index.getJdkVersion());
+
+        JCLWhitelist interned = JCLWhitelist.from(index);
+
+        assertEquals(2, interned.size());
+        assertTrue(interned.isClassPresent("java.lang.Object"));
+        assertTrue(interned.isMethodAllowed("java.lang.String", "valueOf", Arrays.asList("char[]", "int", "int")));
+        assertTrue(interned.isMethodAllowed("java.lang.String", "valueOf", Arrays.asList("int")));
+        assertFalse(interned.isMethodAllowed("java.lang.String", "valueOf", Arrays.asList("long")));
+        assertTrue(interned.getMethods("java.lang.String", "valueOf").get(0).isStatic());
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void rejectUnknownFormat() throws Exception {
+        JCLWhitelistIndex.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+    }
+}
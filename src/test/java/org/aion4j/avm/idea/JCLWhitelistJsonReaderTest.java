@@ -0,0 +1,43 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.service.JCLWhitelistJsonReader;
+import org.aion4j.avm.idea.service.MethodDescriptor;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JCLWhitelistJsonReaderTest {
+
+    @Test
+    public void readWhitelist() throws Exception {
+        String json = "{\"java.lang.String\":[" +
+                "{\"name\":\"length\",\"isStatic\":false,\"parameters\":[]}," +
+                "{\"name\":\"valueOf\",\"isStatic\":true,\"parameters\":[\"char[]\",\"int\",\"int\"]}," +
+                "{\"parameters\":[\"int\"],\"isStatic\":true,\"name\":\"valueOf\"}]," +
+                "\"java.lang.Object\":[]}";
+
+        Map<String, Map<String, List<MethodDescriptor>>> whitelist = new HashMap<>();
+        JCLWhitelistJsonReader.read(new StringReader(json), whitelist);
+
+        assertEquals(2, whitelist.size());
+        assertTrue(whitelist.get("java.lang.Object").isEmpty());
+
+        Map<String, List<MethodDescriptor>> stringMethods = whitelist.get("java.lang.String");
+        assertEquals(1, stringMethods.get("length").size());
+        assertFalse(stringMethods.get("length").get(0).isStatic());
+        assertTrue(stringMethods.get("length").get(0).getParams().isEmpty());
+
+        List<MethodDescriptor> valueOfs = stringMethods.get("valueOf");
+        assertEquals(2, valueOfs.size());
+        assertTrue(valueOfs.get(0).isStatic());
+        assertEquals(Arrays.asList("char[]", "int", "int"), valueOfs.get(0).getParams());
+        assertEquals(Arrays.asList("int"), valueOfs.get(1).getParams());
+        assertEquals("valueOf", valueOfs.get(1).getName());
+    }
+}
@@ -0,0 +1,96 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.service.JCLWhitelist;
+import org.aion4j.avm.idea.service.MethodDescriptor;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class JCLWhitelistTest {
+
+    @Test
+    public void lookupClassesAndMethods() {
+        Map<String, Map<String, List<MethodDescriptor>>> map = new HashMap<>();
+
+        Map<String, List<MethodDescriptor>> stringMethods = new HashMap<>();
+        stringMethods.put("length", Arrays.asList(new MethodDescriptor("length", Collections.emptyList(), false)));
+        stringMethods.put("valueOf", Arrays.asList(
+                new MethodDescriptor("valueOf", Arrays.asList("int"), true),
+                new MethodDescriptor("valueOf", Arrays.asList("long"), true)));
+        stringMethods.put("concat", Arrays.asList(new MethodDescriptor("concat", Arrays.asList("java.lang.String"), false)));
+        map.put("java.lang.String", stringMethods);
+
+        Map<String, List<MethodDescriptor>> integerMethods = new HashMap<>();
+        integerMethods.put("valueOf", Arrays.asList(new MethodDescriptor("valueOf", Arrays.asList("int"), true)));
+        map.put("java.lang.Integer", integerMethods);
+
+        for (int i = 0; i < 100; i++) {
+            map.put("java.util.Dummy" + i, new HashMap<>());
+        }
+
+        JCLWhitelist whitelist = JCLWhitelist.from(map);
+
+        assertEquals(102, whitelist.size());
+        assertTrue(whitelist.isClassPresent("java.lang.String"));
+        assertTrue(whitelist.isClassPresent("java.util.Dummy99"));
+        assertFalse(whitelist.isClassPresent("java.lang.Thread"));
+        assertFalse(whitelist.isClassPresent(null));
+
+        List<MethodDescriptor> valueOfs = whitelist.getMethods("java.lang.String", "valueOf");
+        assertEquals(2, valueOfs.size());
+        assertTrue(valueOfs.get(0).isStatic());
+        assertEquals(Arrays.asList("int"), valueOfs.get(0).getParams());
+        assertEquals(Arrays.asList("long"), valueOfs.get(1).getParams());
+
+        assertEquals(1, whitelist.getMethods("java.lang.Integer", "valueOf").size());
+        assertTrue(whitelist.getMethods("java.lang.String", "length").get(0).getParams().isEmpty());
+        assertFalse(whitelist.getMethods("java.lang.String", "length").get(0).isStatic());
+        assertTrue(whitelist.getMethods("java.lang.Integer", "length").isEmpty());
+        assertTrue(whitelist.getMethods("java.lang.String", "notExists").isEmpty());
+
+        assertEquals("java.lang.String", whitelist.name(whitelist.nameId("java.lang.String")));
+        assertEquals(-1, whitelist.nameId("java.lang.Thread"));
+    }
+
+    @Test
+    public void matchErasedSignature() {
+        Map<String, Map<String, List<MethodDescriptor>>> map = new HashMap<>();
+
+        Map<String, List<MethodDescriptor>> bigIntegerMethods = new HashMap<>();
+        bigIntegerMethods.put("<init>", Arrays.asList(
+                new MethodDescriptor("<init>", Arrays.asList("java.lang.String"), false),
+                new MethodDescriptor("<init>", Arrays.asList("byte[]"), false)));
+        bigIntegerMethods.put("add", Arrays.asList(new MethodDescriptor("add", Arrays.asList("java.math.BigInteger"), false)));
+        bigIntegerMethods.put("valueOf", Arrays.asList(new MethodDescriptor("valueOf", Arrays.asList("long"), true)));
+        map.put("java.math.BigInteger", bigIntegerMethods);
+
+        Map<String, List<MethodDescriptor>> stringMethods = new HashMap<>();
+        stringMethods.put("valueOf", Arrays.asList(new MethodDescriptor("valueOf", Arrays.asList("int"), true)));
+        stringMethods.put("length", Arrays.asList(new MethodDescriptor("length", Collections.emptyList(), false)));
+        map.put("java.lang.String", stringMethods);
+
+        JCLWhitelist whitelist = JCLWhitelist.from(map);
+
+        assertTrue(whitelist.isMethodAllowed("java.math.BigInteger", "add", Arrays.asList("java.math.BigInteger")));
+        assertTrue(whitelist.isMethodAllowed("java.math.BigInteger", "<init>", Arrays.asList("byte[]")));
+        assertTrue(whitelist.isMethodAllowed("java.math.BigInteger", "<init>", Arrays.asList("java.lang.String")));
+        assertTrue(whitelist.isMethodAllowed("java.lang.String", "length", Collections.emptyList()));
+        assertTrue(whitelist.isMethodAllowed("java.lang.String", "valueOf", Arrays.asList("int")));
+
+        assertFalse(whitelist.isMethodAllowed("java.math.BigInteger", "<init>", Arrays.asList("java.lang.String", "int")));
+        assertFalse(whitelist.isMethodAllowed("java.math.BigInteger", "valueOf", Arrays.asList("int")));
+        assertFalse(whitelist.isMethodAllowed("java.lang.String", "valueOf", Arrays.asList("long")));
+        assertFalse(whitelist.isMethodAllowed("java.lang.String", "add", Arrays.asList("java.math.BigInteger")));
+        assertFalse(whitelist.isMethodAllowed("java.lang.String", "length", Arrays.asList("java.util.Random")));
+        assertFalse(whitelist.isMethodAllowed("java.lang.Thread", "length", Collections.emptyList()));
+    }
+
+    @Test
+    public void emptyWhitelist() {
+        assertEquals(0, JCLWhitelist.EMPTY.size());
+        assertFalse(JCLWhitelist.EMPTY.isClassPresent("java.lang.String"));
+        assertTrue(JCLWhitelist.EMPTY.getMethods("java.lang.String", "length").isEmpty());
+    }
+}
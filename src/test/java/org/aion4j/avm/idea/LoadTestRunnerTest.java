@@ -0,0 +1,122 @@
+package org.aion4j.avm.idea;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+import org.aion4j.avm.idea.loadtest.CallArgsGenerator;
+import org.aion4j.avm.idea.loadtest.LoadTestResult;
+import org.aion4j.avm.idea.loadtest.LoadTestRunner;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LoadTestRunnerTest {
+
+    @Test
+    public void testArgsGenerator() {
+        CallArgsGenerator generator = new CallArgsGenerator("-A {sender} -I {i} -J {random:10} -T '{name}'");
+        String args = generator.generate(7, "0xa0alice");
+
+        assertTrue(args, args.matches("-A 0xa0alice -I 7 -J [0-9] -T '\\{name}'"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testArgsGeneratorInvalidBound() {
+        new CallArgsGenerator("-J {random:0}");
+    }
+
+    @Test
+    public void testRun() {
+        Set<String> callSenders = new HashSet<>();
+        AtomicInteger accounts = new AtomicInteger();
+        AtomicInteger batches = new AtomicInteger();
+
+        LoadTestRunner runner = new LoadTestRunner((method, params) -> {
+            if("createAccount".equals(method))
+                return result(new JsonObject().add("address", "0xa0" + accounts.incrementAndGet()));
+
+            assertEquals("callBatch", method);
+            batches.incrementAndGet();
+
+            Set<String> batchSenders = new HashSet<>();
+            JsonArray results = new JsonArray();
+            for (JsonValue call : params.get("calls").asArray()) {
+                String sender = call.asObject().getString("address", null);
+                assertTrue("Senders of a batch are distinct", batchSenders.add(sender));
+                callSenders.add(sender);
+
+                if(call.asObject().getString("args", "").endsWith(" 3"))
+                    results.add(new JsonObject().add("error", "revert").add("elapsedNanos", 2_000_000L));
+                else
+                    results.add(new JsonObject().add("value", new JsonObject().add("data", "true").add("energyUsed", "100"))
+                            .add("elapsedNanos", 1_000_000L));
+            }
+            return new JsonObject().add("value", results);
+        }, new CallArgsGenerator("-A {sender} -I {i}"));
+
+        List<String> senders = runner.createSenders(4, "1000");
+        assertEquals(Arrays.asList("0xa01", "0xa02", "0xa03", "0xa04"), senders);
+
+        LoadTestResult result = runner.run(null, "transfer", null, senders, 20, 4, (f, t) -> {}, () -> false);
+
+        assertEquals(20, result.getCalls().size());
+        assertEquals(4, result.getBatchSize());
+        assertEquals(5, batches.get());
+        assertEquals(1, result.getFailureCount()); //only call 3
+        assertEquals(Long.valueOf(1), result.getFailures().get("revert"));
+        assertEquals(100.0, result.getMeanEnergy(), 0.001);
+        assertEquals(4, callSenders.size());
+        assertNull(result.getAbortMessage());
+        assertTrue(result.getThroughput() > 0);
+
+        //Latency is the execution time reported by the daemon
+        assertEquals(1_000_000L, result.getPercentileNanos(0.5));
+        assertEquals(2_000_000L, result.getPercentileNanos(1));
+
+        String csv = result.toCsv();
+        assertTrue(csv.startsWith("index,sender,status,latency_ms,energy,error\n0,0xa01,ok,1.000,100,"));
+        assertTrue(csv.contains("\n3,0xa04,failed,2.000,"));
+    }
+
+    @Test
+    public void testBatchSizeLimitedToSenders() {
+        LoadTestRunner runner = new LoadTestRunner((method, params) -> {
+            JsonArray results = new JsonArray();
+            for (int i = 0; i < params.get("calls").asArray().size(); i++)
+                results.add(new JsonObject().add("value", "ok").add("elapsedNanos", 1L));
+            return new JsonObject().add("value", results);
+        }, new CallArgsGenerator(null));
+
+        LoadTestResult result = runner.run("0xa0contract", "ping", null, Arrays.asList("0xa01", "0xa02"), 5, 8, (f, t) -> {}, () -> false);
+
+        assertEquals(2, result.getBatchSize());
+        assertEquals(5, result.getCalls().size());
+        assertEquals(0, result.getFailureCount());
+    }
+
+    @Test
+    public void testAbortWhenAvmNotUsable() {
+        LoadTestRunner runner = new LoadTestRunner((method, params) -> {
+            throw new LocalAvmDaemonException("Connection refused");
+        }, new CallArgsGenerator(null));
+
+        LoadTestResult result = runner.run("0xa0contract", "ping", null, Arrays.asList("0xa01"), 100, 1, (f, t) -> {}, () -> false);
+
+        assertEquals(1, result.getCalls().size());
+        assertEquals("Connection refused", result.getAbortMessage());
+        Map<String, Long> failures = result.getFailures();
+        assertEquals(Long.valueOf(1), failures.get("Connection refused"));
+    }
+
+    private static JsonObject result(JsonObject value) {
+        return new JsonObject().add("value", value);
+    }
+}
@@ -0,0 +1,78 @@
+package org.aion4j.avm.idea;
+
+import org.aion4j.avm.idea.perf.PerfMetrics;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PerfMetricsTest {
+
+    @Test
+    public void aggregateAcrossThreadsAndReset() throws Exception {
+        PerfMetrics.reset();
+
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                PerfMetrics.record(PerfMetrics.Probe.IS_CLASS_ALLOWED, PerfMetrics.start());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        for (int i = 0; i < 50; i++) {
+            PerfMetrics.record(PerfMetrics.Probe.IS_CLASS_ALLOWED, PerfMetrics.start());
+        }
+        PerfMetrics.record(PerfMetrics.Probe.VISIT_FIELD, System.nanoTime() - 5_000_000);
+
+        PerfMetrics.ProbeStats classAllowed = find(PerfMetrics.snapshot(), PerfMetrics.Probe.IS_CLASS_ALLOWED);
+        assertEquals(150, classAllowed.getCount());
+
+        PerfMetrics.ProbeStats visitField = find(PerfMetrics.snapshot(), PerfMetrics.Probe.VISIT_FIELD);
+        assertEquals(1, visitField.getCount());
+        //Percentile is the upper bound of the power of 2 bucket
+        assertTrue(visitField.getPercentileNanos(0.99) >= 5_000_000);
+        assertTrue(visitField.getPercentileNanos(0.99) <= 2 * visitField.getMaxNanos());
+
+        PerfMetrics.reset();
+        assertEquals(0, find(PerfMetrics.snapshot(), PerfMetrics.Probe.IS_CLASS_ALLOWED).getCount());
+        assertEquals(0, find(PerfMetrics.snapshot(), PerfMetrics.Probe.VISIT_FIELD).getPercentileNanos(0.5));
+    }
+
+    @Test
+    public void countFromShortLivedThreads() throws Exception {
+        PerfMetrics.reset();
+
+        //Inspection threads come and go. Nothing is kept per thread, so counts of finished threads are not lost
+        for (int t = 0; t < 64; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    PerfMetrics.record(PerfMetrics.Probe.VISIT_METHOD, PerfMetrics.start());
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+
+        assertEquals(640, find(PerfMetrics.snapshot(), PerfMetrics.Probe.VISIT_METHOD).getCount());
+    }
+
+    @Test
+    public void exportCsv() {
+        String csv = PerfMetrics.toCsv(PerfMetrics.snapshot());
+        String[] lines = csv.split("\n");
+
+        assertEquals("probe,count,total_ms,mean_us,p50_us,p90_us,p99_us,max_us", lines[0]);
+        assertEquals(PerfMetrics.Probe.values().length + 1, lines.length);
+        assertTrue(lines[1].startsWith(PerfMetrics.Probe.values()[0].getDisplayName() + ","));
+    }
+
+    private PerfMetrics.ProbeStats find(List<PerfMetrics.ProbeStats> stats, PerfMetrics.Probe probe) {
+        for (PerfMetrics.ProbeStats stat : stats) {
+            if(stat.getProbe() == probe)
+                return stat;
+        }
+        throw new AssertionError(probe);
+    }
+}
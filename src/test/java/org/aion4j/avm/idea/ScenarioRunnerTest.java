@@ -0,0 +1,101 @@
+package org.aion4j.avm.idea;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.aion4j.avm.idea.exception.LocalAvmDaemonException;
+import org.aion4j.avm.idea.exception.ScenarioFormatException;
+import org.aion4j.avm.idea.scenario.Scenario;
+import org.aion4j.avm.idea.scenario.ScenarioRunner;
+import org.aion4j.avm.idea.scenario.StepResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScenarioRunnerTest {
+
+    private final static String SCENARIO = "{\n" +
+            "  \"from\": \"0xa0default\",\n" +
+            "  \"steps\": [\n" +
+            "    {\"type\": \"account\", \"as\": \"alice\", \"balance\": 1000},\n" +
+            "    {\"type\": \"deploy\", \"as\": \"token\", \"args\": \"-T 'Token'\"},\n" +
+            "    {\"type\": \"call\", \"method\": \"mint\", \"args\": \"-A $alice -K 10\", \"expect\": \"true\"},\n" +
+            "    {\"type\": \"call\", \"from\": \"$alice\", \"contract\": \"$token\", \"method\": \"burn\", \"expectError\": true},\n" +
+            "    {\"type\": \"call\", \"method\": \"name\", \"expect\": \"Other\"},\n" +
+            "    {\"type\": \"balance\", \"address\": \"$bob\"}\n" +
+            "  ]\n" +
+            "}";
+
+    @Test
+    public void testRunScenario() {
+        List<JsonObject> requests = new ArrayList<>();
+
+        ScenarioRunner runner = new ScenarioRunner((method, params) -> {
+            requests.add(new JsonObject().add("method", method).add("params", params));
+
+            switch (method) {
+                case "createAccount":
+                    return result(new JsonObject().add("address", "0xa0alice").add("created", true));
+                case "deploy":
+                    return result(new JsonObject().add("address", "0xa0token").add("energyUsed", "5000"));
+                default:
+                    if("burn".equals(params.getString("method", null)))
+                        throw new LocalAvmDaemonException("revert", true);
+                    if("name".equals(params.getString("method", null)))
+                        return result(new JsonObject().add("data", "Token").add("energyUsed", "30"));
+                    return result(Json.value("true"));
+            }
+        }, "/target/token.jar");
+
+        List<StepResult> results = runner.run(Scenario.parse(SCENARIO), r -> {}, () -> false);
+
+        assertEquals(6, results.size());
+        assertEquals(StepResult.Status.PASSED, results.get(0).getStatus());
+        assertEquals(StepResult.Status.PASSED, results.get(1).getStatus());
+        assertEquals("5000", results.get(1).getEnergy());
+        assertEquals(StepResult.Status.PASSED, results.get(2).getStatus());
+        assertEquals(StepResult.Status.PASSED, results.get(3).getStatus()); //expected error
+        assertEquals(StepResult.Status.FAILED, results.get(4).getStatus());
+        assertEquals("Token", results.get(4).getResult());
+        assertEquals(StepResult.Status.FAILED, results.get(5).getStatus()); //unknown alias
+
+        JsonObject deploy = requests.get(1).get("params").asObject();
+        assertEquals("/target/token.jar", deploy.getString("jar", null));
+        assertEquals("0xa0default", deploy.getString("address", null));
+
+        JsonObject mint = requests.get(2).get("params").asObject();
+        assertEquals("0xa0token", mint.getString("contract", null));
+        assertEquals("-A 0xa0alice -K 10", mint.getString("args", null));
+
+        JsonObject burn = requests.get(3).get("params").asObject();
+        assertEquals("0xa0alice", burn.getString("address", null));
+    }
+
+    @Test
+    public void testUnavailableAvmSkipsRemainingSteps() {
+        ScenarioRunner runner = new ScenarioRunner((method, params) -> {
+            throw new LocalAvmDaemonException("daemon not started");
+        }, "/target/token.jar");
+
+        List<StepResult> results = runner.run(Scenario.parse(SCENARIO), r -> {}, () -> false);
+
+        assertEquals(StepResult.Status.ERROR, results.get(0).getStatus());
+        assertEquals(StepResult.Status.SKIPPED, results.get(5).getStatus());
+    }
+
+    @Test(expected = ScenarioFormatException.class)
+    public void testUnknownStepType() {
+        Scenario.parse("{\"steps\": [{\"type\": \"explode\"}]}");
+    }
+
+    @Test(expected = ScenarioFormatException.class)
+    public void testCallWithoutMethod() {
+        Scenario.parse("{\"steps\": [{\"type\": \"call\"}]}");
+    }
+
+    private static JsonObject result(com.eclipsesource.json.JsonValue value) {
+        return new JsonObject().add("value", value).add("output", "").add("elapsedMs", 1);
+    }
+}